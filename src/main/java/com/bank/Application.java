@@ -1,29 +1,309 @@
 package com.bank;
 
+import com.bank.application.metrics.LineErrorCounts;
+import com.bank.application.metrics.TaxCalculationMetrics;
+import com.bank.config.CalculationEngine;
+import com.bank.config.ProcessingMode;
+import com.bank.framework.adapter.input.ParallelTaxCalculationCLIAdapter;
 import com.bank.framework.adapter.input.TaxCalculationViewCLIAdapter;
 import com.bank.config.ApplicationConfiguration;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.application.usecases.TaxCalculationUseCase;
+import com.bank.domain.valueobject.TaxRules;
+import com.bank.framework.adapter.output.AsyncBatchedOutputStream;
+import com.bank.framework.adapter.output.FileChannelStockOperationJournalAdapter;
+import com.bank.framework.adapter.output.JsonToBinaryOperationLogConverter;
+import com.bank.framework.adapter.output.MappedStockTransactionSnapshotAdapter;
+import com.bank.framework.adapter.output.MappedStockTransactionCheckpointAdapter;
+import com.bank.framework.adapter.output.StringToStockOperationParserAdapter;
+import com.bank.framework.adapter.output.StockOperationJournalOutputPort;
+import com.bank.framework.adapter.output.StockOperationJournalSnapshotter;
+import com.bank.framework.adapter.output.StockTransactionCheckpointOutputPort;
+import com.bank.framework.adapter.output.TaxCalculationMetricsReporter;
+import com.sun.net.httpserver.HttpServer;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
 
 public class Application {
-    public static void main(String[] args) {
 
-        String response = "";
+    /**
+     * Line that marks the end of the input
+     */
+    private static final String END_OF_INPUT = " ";
 
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    public static void main(String[] args) throws IOException {
+
+        CalculationEngine calculationEngine = CalculationEngine.valueOf(System.getProperty("calculation.engine", CalculationEngine.POLICY.name()).toUpperCase());
+        ProcessingMode processingMode = ProcessingMode.valueOf(System.getProperty("processing.mode", ProcessingMode.STREAMING.name()).toUpperCase());
+
+        long metricsInterval = Long.getLong("metrics.interval", 0L);
+        TaxCalculationMetrics taxCalculationMetrics = metricsInterval > 0 ? TaxCalculationMetrics.enabled() : TaxCalculationMetrics.disabled();
+
+        TaxRules taxRules = TaxRules.builder().percentageTaxToBeApplied(getDouble("tax.percentage"))
+                .amountExemptToPayTax(getDouble("tax.exempt.amount")).build();
+
+        // A portfolio keeps one position per ticker, the checkpoint and the journal only persist a single position
+        if (calculationEngine == CalculationEngine.PORTFOLIO && processingMode == ProcessingMode.STREAMING && System.getProperty("http.port") == null
+                && (System.getProperty("checkpoint.file") != null || System.getProperty("journal.file") != null)) {
+            throw new IllegalArgumentException("The portfolio engine can not be combined with checkpoint.file or journal.file");
+        }
+
+        // The journal continues one transaction, which only the streaming mode of the CLI does
+        boolean journaled = processingMode == ProcessingMode.STREAMING && System.getProperty("journal.file") != null && System.getProperty("http.port") == null;
+        StockOperationJournalOutputPort stockOperationJournal = !journaled ? null
+                : FileChannelStockOperationJournalAdapter.builder().journalFile(Path.of(System.getProperty("journal.file"))).build();
+
+        // Reported lines are written by the streaming and parallel modes of the CLI, the buffered mode fails on the first
+        // one and the pipeline can not write them
+        boolean reportLineErrors = "report".equalsIgnoreCase(System.getProperty("line.errors", "fail"));
+        if (reportLineErrors && processingMode == ProcessingMode.PIPELINE && System.getProperty("http.port") == null) {
+            throw new IllegalArgumentException("line.errors=report can not be combined with processing.mode=pipeline");
+        }
+        LineErrorCounts lineErrorCounts = reportLineErrors ? new LineErrorCounts() : null;
+
+        ApplicationConfiguration applicationConfiguration = ApplicationConfiguration.builder().calculationEngine(calculationEngine)
+                .taxCalculationMetrics(taxCalculationMetrics)
+                .taxRules(taxRules)
+                .resultCacheMaxEntries(Long.getLong("cache.max.entries", 0L))
+                .resultCacheMaxBytes(Long.getLong("cache.max.bytes", 64L << 20))
+                .prefixTrieMaxNodes(Long.getLong("prefix.cache.max.nodes", 0L))
+                .parallelScanMinOperations(Integer.getInteger("parallel.scan.min.operations", 0))
+                .stockOperationJournal(stockOperationJournal)
+                .lineErrorCounts(lineErrorCounts)
+                .build();
+        TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter = applicationConfiguration.configureDependencies();
+
+        TaxCalculationMetricsReporter taxCalculationMetricsReporter = null;
+        if (taxCalculationMetrics.isEnabled()) {
+            taxCalculationMetricsReporter = TaxCalculationMetricsReporter.builder().taxCalculationMetrics(taxCalculationMetrics)
+                    .printStream(System.err).interval(Duration.ofSeconds(metricsInterval)).build();
+            taxCalculationMetricsReporter.start();
+        }
+
+        if (System.getProperty("http.port") != null) {
+            int threads = Integer.getInteger("http.threads", Runtime.getRuntime().availableProcessors() * 2);
+            HttpServer httpServer = ApplicationConfiguration.builder().calculationEngine(calculationEngine).taxCalculationMetrics(taxCalculationMetrics).taxRules(taxRules).build()
+                    .configureHttpAdapter().start(new InetSocketAddress(Integer.getInteger("http.port")), ApplicationConfiguration.configureHttpExecutor(threads));
+            System.err.println("Listening on port " + httpServer.getAddress().getPort());
+            return;
+        }
+
+        String inputFile = System.getProperty("input.file");
+        BufferedReader reader = inputFile == null ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(inputFile), StandardCharsets.UTF_8);
+        // A checkpoint or a snapshot may only be saved once the taxes before it are written, which the async flush does not wait for
+        boolean persisted = System.getProperty("checkpoint.file") != null || System.getProperty("journal.file") != null;
+        OutputStream output = openStandardOutput(!persisted && !"buffered".equalsIgnoreCase(System.getProperty("output.writer", "async")));
+        try {
+            if (System.getProperty("binary.convert") != null) {
+                JsonToBinaryOperationLogConverter.builder().stringToStockOperationParserAdapter(StringToStockOperationParserAdapter.builder().build()).build()
+                        .convert(reader.lines().takeWhile(line -> !END_OF_INPUT.equals(line)).iterator(), Path.of(System.getProperty("binary.convert")));
+            } else if (System.getProperty("binary.replay") != null) {
+                ApplicationConfiguration.builder().calculationEngine(calculationEngine).taxCalculationMetrics(taxCalculationMetrics).taxRules(taxRules).build()
+                        .configureBinaryReplay(Path.of(System.getProperty("binary.replay"))).replay(output);
+                output.flush();
+            } else if (processingMode == ProcessingMode.BUFFERED) {
+                processBuffered(reader, taxCalculationViewCLIAdapter, output);
+            } else if (processingMode == ProcessingMode.PARALLEL) {
+                int parallelism = Integer.getInteger("parallelism", Runtime.getRuntime().availableProcessors());
+                processParallel(reader, taxCalculationViewCLIAdapter, parallelism, output);
+            } else if (processingMode == ProcessingMode.PIPELINE) {
+                processPipeline(reader, applicationConfiguration, Integer.getInteger("pipeline.buffer.size", Flow.defaultBufferSize()), output);
+            } else if (stockOperationJournal != null) {
+                StockOperationJournalSnapshotter stockOperationJournalSnapshotter = StockOperationJournalSnapshotter.builder()
+                        .stockOperationJournal(stockOperationJournal)
+                        .stockTransactionSnapshotPort(MappedStockTransactionSnapshotAdapter.builder()
+                                .snapshotFile(Path.of(System.getProperty("snapshot.file", System.getProperty("journal.file") + ".snapshot"))).build())
+                        .operationsPerSnapshot(Long.getLong("snapshot.operations", 100_000L))
+                        .snapshotInterval(Duration.ofSeconds(Long.getLong("snapshot.interval", 60L)))
+                        .build();
+                processJournaled(reader, taxCalculationViewCLIAdapter, stockOperationJournalSnapshotter,
+                        ApplicationConfiguration.builder().calculationEngine(calculationEngine).taxRules(taxRules).build().configureTaxCalculationUseCase(), output);
+            } else if (System.getProperty("checkpoint.file") != null) {
+                StockTransactionCheckpointOutputPort checkpoint = MappedStockTransactionCheckpointAdapter.builder().checkpointFile(Path.of(System.getProperty("checkpoint.file"))).build();
+                processResumable(reader, taxCalculationViewCLIAdapter, checkpoint, output);
+            } else {
+                processStreaming(reader, taxCalculationViewCLIAdapter, output);
+            }
+        } finally {
+            output.close();
+            if (inputFile != null) {
+                reader.close();
+            }
+            if (stockOperationJournal != null) {
+                stockOperationJournal.close();
+            }
+            if (taxCalculationMetricsReporter != null) {
+                taxCalculationMetricsReporter.close();
+            }
+            if (lineErrorCounts != null && lineErrorCounts.getTotalCount() > 0L) {
+                System.err.print(lineErrorCounts.summary());
+            }
+        }
+    }
+
+    /**
+     * Opens the standard output of the results. The asynchronous writer is closed by a shutdown hook too, so the results
+     * already given to it are written even when the process is stopped.
+     *
+     * @param async if the results are written by a dedicated thread, otherwise they are buffered and written by the caller
+     */
+    static OutputStream openStandardOutput(boolean async) {
+        FileOutputStream standardOutput = new FileOutputStream(FileDescriptor.out);
+        if (!async) {
+            return new BufferedOutputStream(standardOutput, OUTPUT_BUFFER_SIZE);
+        }
+        AsyncBatchedOutputStream output = AsyncBatchedOutputStream.builder().channel(standardOutput.getChannel()).build();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                output.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, "output-shutdown"));
+        return output;
+    }
+
+    /**
+     * Reads every line before calculating, memory grows with the input.
+     * Each line is parsed as a whole list, so engines able to split a list, like the portfolio one, can use every core.
+     */
+    static void processBuffered(BufferedReader reader, TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter, OutputStream output) throws IOException {
         List<String> operationStringList = new ArrayList<>();
+        String operationString = reader.readLine();
+        while (!isEndOfInput(operationString)) {
+            operationStringList.add(operationString);
+            operationString = reader.readLine();
+        }
+        try {
+            for (String line : operationStringList) {
+                output.write(taxCalculationViewCLIAdapter.calculateTaxesFromList(line).getBytes(StandardCharsets.UTF_8));
+                output.write('\n');
+            }
+        } finally {
+            output.flush();
+        }
+    }
+
+    /**
+     * Writes the result of each line as soon as it is read, only one line is kept in memory.
+     * The taxes are serialized straight into the buffered output, which is flushed whenever no more input is waiting.
+     */
+    static void processStreaming(BufferedReader reader, TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter, OutputStream output) throws IOException {
+        try {
+            String operationString = reader.readLine();
+            while (!isEndOfInput(operationString)) {
+                taxCalculationViewCLIAdapter.calculateTaxes(operationString, output);
+                if (!reader.ready()) {
+                    output.flush();
+                }
+                operationString = reader.readLine();
+            }
+        } finally {
+            output.flush();
+        }
+    }
+
+    /**
+     * Same as {@link #processStreaming} but every line continues the transaction of the previous one, starting from the
+     * last checkpoint. The checkpoint is saved after each line once its taxes are written, so a restart only
+     * processes the new operations. The output must write the taxes on {@code flush}, as the buffered one does.
+     */
+    static void processResumable(BufferedReader reader, TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter,
+                                 StockTransactionCheckpointOutputPort checkpoint, OutputStream output) throws IOException {
+        StockTransaction stockTransaction = checkpoint.load().orElseGet(StockTransaction::new);
+        try {
+            String operationString = reader.readLine();
+            while (!isEndOfInput(operationString)) {
+                stockTransaction = taxCalculationViewCLIAdapter.calculateTaxes(operationString, output, stockTransaction);
+                output.flush();
+                checkpoint.save(stockTransaction);
+                operationString = reader.readLine();
+            }
+        } finally {
+            output.flush();
+        }
+    }
 
-        Scanner stringScanner = new Scanner(System.in);
+    /**
+     * Same as {@link #processStreaming} but every line continues the transaction rebuilt from the last snapshot and the
+     * operations journaled after it, replayed through the same engine as the new lines. The operations of each line are
+     * committed to the journal before its taxes are written to the output, with one force per line, and a snapshot is
+     * saved after the lines where one is due and at the end. The output must write the taxes on {@code flush}, as the
+     * buffered one does, so a snapshot never covers lines whose taxes were not written.
+     */
+    static void processJournaled(BufferedReader reader, TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter,
+                                 StockOperationJournalSnapshotter stockOperationJournalSnapshotter, TaxCalculationUseCase taxCalculationUseCase,
+                                 OutputStream output) throws IOException {
+        StockTransaction stockTransaction = stockOperationJournalSnapshotter.recover(taxCalculationUseCase);
+        try {
+            String operationString = reader.readLine();
+            while (!isEndOfInput(operationString)) {
+                stockTransaction = taxCalculationViewCLIAdapter.calculateTaxes(operationString, output, stockTransaction);
+                output.flush();
+                stockOperationJournalSnapshotter.snapshotIfDue(stockTransaction);
+                operationString = reader.readLine();
+            }
+            stockOperationJournalSnapshotter.snapshot(stockTransaction);
+        } finally {
+            output.flush();
+        }
+    }
 
-        response = stringScanner.nextLine();
-        while (!response.equals(" ")){
-            operationStringList.add(response);
-            response = stringScanner.nextLine();
+    /**
+     * Parses the lines on the calling thread while two other threads calculate and write the taxes, in input order
+     */
+    static void processPipeline(BufferedReader reader, ApplicationConfiguration applicationConfiguration, int bufferSize, OutputStream output) throws IOException {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            applicationConfiguration.configureFlowAdapter(executorService, bufferSize)
+                    .calculateTaxes(reader.lines().takeWhile(line -> !END_OF_INPUT.equals(line)).iterator(), output);
+        } finally {
+            executorService.shutdownNow();
         }
+    }
 
-        TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter = ApplicationConfiguration.builder().build().configureDependencies();
+    /**
+     * Spreads the lines over a work-stealing pool and writes the results in input order
+     */
+    static void processParallel(BufferedReader reader, TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter, int parallelism, OutputStream output) throws IOException {
+        ExecutorService executorService = Executors.newWorkStealingPool(parallelism);
+        try {
+            ParallelTaxCalculationCLIAdapter parallelTaxCalculationCLIAdapter = ParallelTaxCalculationCLIAdapter.builder()
+                    .taxCalculationViewCLIAdapter(taxCalculationViewCLIAdapter)
+                    .executorService(executorService)
+                    .maxPendingLines(parallelism * 4)
+                    .build();
+            parallelTaxCalculationCLIAdapter.calculateTaxes(reader.lines().takeWhile(line -> !END_OF_INPUT.equals(line)).iterator(), output);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static Double getDouble(String property) {
+        String value = System.getProperty(property);
+        return value == null ? null : Double.valueOf(value);
+    }
 
-        operationStringList.forEach(operationString -> System.out.println(taxCalculationViewCLIAdapter.calculateTaxes(operationString)));
+    private static boolean isEndOfInput(String operationString) {
+        return operationString == null || END_OF_INPUT.equals(operationString);
     }
 }
@@ -0,0 +1,122 @@
+package com.bank.application.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values, usually nanoseconds, in the style of HdrHistogram.
+ * <p>
+ * Values below {@value #SUB_BUCKET_COUNT} are counted exactly. Above that, every power of two is split in
+ * {@value #HALF_SUB_BUCKET_COUNT} linear buckets, so a value is reported with a relative error below 1/64 (~1.6%)
+ * whatever its magnitude, using a fixed array of counters. Recording is wait-free apart from the maximum, which is
+ * updated with a compare-and-set loop only while it grows.
+ * <p>
+ * Reads are not atomic with respect to concurrent recordings, a summary taken while recording may be off by the
+ * values recorded during the read.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT >> 1;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * HALF_SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalValue = new LongAdder();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Count one occurrence of the value, negative values are counted as 0
+     *
+     * @param value the value to count
+     */
+    public void record(long value) {
+        long positiveValue = Math.max(0L, value);
+        counts.incrementAndGet(bucketIndex(positiveValue));
+        totalCount.increment();
+        totalValue.add(positiveValue);
+        long currentMax = maxValue.get();
+        while (positiveValue > currentMax && !maxValue.compareAndSet(currentMax, positiveValue)) {
+            currentMax = maxValue.get();
+        }
+    }
+
+    /**
+     * Count several occurrences of the value at once, negative values are counted as 0
+     *
+     * @param value the value to count
+     * @param count the number of occurrences, nothing is counted when not positive
+     */
+    public void record(long value, long count) {
+        if (count <= 0L) {
+            return;
+        }
+        long positiveValue = Math.max(0L, value);
+        counts.addAndGet(bucketIndex(positiveValue), count);
+        totalCount.add(count);
+        totalValue.add(positiveValue * count);
+        long currentMax = maxValue.get();
+        while (positiveValue > currentMax && !maxValue.compareAndSet(currentMax, positiveValue)) {
+            currentMax = maxValue.get();
+        }
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public long getMaxValue() {
+        return maxValue.get();
+    }
+
+    public double getMean() {
+        long count = totalCount.sum();
+        return count == 0 ? 0d : (double) totalValue.sum() / count;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the highest value equivalent to the one below which the given percentage of the values fall,
+     * 0 when nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0L;
+        }
+        long countAtPercentile = Math.max(1L, (long) Math.ceil(Math.min(100d, Math.max(0d, percentile)) / 100d * count));
+        long accumulated = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            accumulated += snapshot[i];
+            if (accumulated >= countAtPercentile) {
+                return Math.min(highestEquivalentValue(i), getMaxValue());
+            }
+        }
+        return getMaxValue();
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift);
+        return (shift + 1) * HALF_SUB_BUCKET_COUNT + subBucket - HALF_SUB_BUCKET_COUNT;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / HALF_SUB_BUCKET_COUNT - 1;
+        long subBucket = index % HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
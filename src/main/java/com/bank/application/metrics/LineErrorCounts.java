@@ -0,0 +1,63 @@
+package com.bank.application.metrics;
+
+import com.bank.domain.valueobject.ErrorCode;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number of lines rejected for each {@link ErrorCode}, shared by every thread calculating lines.
+ * Unlike the {@link TaxCalculationMetrics} they are always counted, as they are part of the result of a run.
+ */
+public final class LineErrorCounts {
+
+    private final LongAdder[] counts = new LongAdder[ErrorCode.values().length];
+
+    public LineErrorCounts() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record one more rejected line
+     *
+     * @param errorCode the reason the line was rejected
+     */
+    public void record(ErrorCode errorCode) {
+        counts[errorCode.ordinal()].increment();
+    }
+
+    /**
+     * @param errorCode a reason to reject a line
+     * @return the lines rejected for the reason
+     */
+    public long getCount(ErrorCode errorCode) {
+        return counts[errorCode.ordinal()].sum();
+    }
+
+    /**
+     * @return the lines rejected for any reason
+     */
+    public long getTotalCount() {
+        long total = 0L;
+        for (LongAdder count : counts) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    /**
+     * @return a human readable line with the total and the count of every code that rejected a line
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder(String.format(Locale.ROOT, "rejectedLines=%d", getTotalCount()));
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            long count = getCount(errorCode);
+            if (count > 0L) {
+                summary.append(' ').append(errorCode.getCode()).append('=').append(count);
+            }
+        }
+        return summary.append(System.lineSeparator()).toString();
+    }
+}
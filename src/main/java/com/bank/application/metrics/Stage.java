@@ -0,0 +1,27 @@
+package com.bank.application.metrics;
+
+/**
+ * Steps a line goes through, each one timed per operation
+ */
+public enum Stage {
+
+    /**
+     * Reading an operation from the Json input
+     */
+    PARSE,
+
+    /**
+     * Turning the operation DTO into the domain operation
+     */
+    TRANSFORMATION,
+
+    /**
+     * Calculating the tax of the operation
+     */
+    CALCULATION,
+
+    /**
+     * Writing the tax into the Json output
+     */
+    SERIALIZATION
+}
@@ -0,0 +1,209 @@
+package com.bank.application.metrics;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-stage latency histograms and counters of the tax calculation, shared by every thread calculating lines.
+ * <p>
+ * The stages are timed per operation, the lines as a whole. The disabled instance never reads the clock, so
+ * instrumented code costs one predictable branch per call when metrics are off:
+ * <pre>
+ * long start = metrics.startTime();
+ * ...
+ * start = metrics.record(Stage.CALCULATION, start);
+ * </pre>
+ */
+public final class TaxCalculationMetrics {
+
+    private static final TaxCalculationMetrics DISABLED = new TaxCalculationMetrics(false);
+
+    private final boolean enabled;
+    private final Map<Stage, LatencyHistogram> stageHistograms = new EnumMap<>(Stage.class);
+    private final LatencyHistogram lineHistogram = new LatencyHistogram();
+    private final LongAdder operationCount = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private final LongAdder cacheHitCount = new LongAdder();
+    private final LongAdder cacheMissCount = new LongAdder();
+
+    private TaxCalculationMetrics(boolean enabled) {
+        this.enabled = enabled;
+        for (Stage stage : Stage.values()) {
+            stageHistograms.put(stage, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * @return new metrics that record everything
+     */
+    public static TaxCalculationMetrics enabled() {
+        return new TaxCalculationMetrics(true);
+    }
+
+    /**
+     * @return metrics that record nothing and never read the clock
+     */
+    public static TaxCalculationMetrics disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the current time in nanoseconds, 0 when disabled
+     */
+    public long startTime() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Record the time elapsed in a stage
+     *
+     * @param stage     the finished stage
+     * @param startTime the time the stage started, as returned by {@link #startTime()} or by a previous record
+     * @return the time the stage finished, to be used as the start of the next stage
+     */
+    public long record(Stage stage, long startTime) {
+        if (!enabled) {
+            return 0L;
+        }
+        long endTime = System.nanoTime();
+        stageHistograms.get(stage).record(endTime - startTime);
+        return endTime;
+    }
+
+    /**
+     * Record the time a stage took for a whole list, as that many operations taking the mean time each, so the lists
+     * calculated at once fill the same per-operation histograms as the streamed ones
+     *
+     * @param stage      the finished stage
+     * @param startTime  the time the stage started, as returned by {@link #startTime()} or by a previous record
+     * @param operations the operations of the list
+     * @return the time the stage finished, to be used as the start of the next stage
+     */
+    public long record(Stage stage, long startTime, int operations) {
+        if (!enabled) {
+            return 0L;
+        }
+        long endTime = System.nanoTime();
+        if (operations > 0) {
+            stageHistograms.get(stage).record((endTime - startTime) / operations, operations);
+        }
+        return endTime;
+    }
+
+    /**
+     * Record more calculated operations
+     *
+     * @param operations the number of operations
+     */
+    public void recordOperations(int operations) {
+        if (enabled) {
+            operationCount.add(operations);
+        }
+    }
+
+    /**
+     * Record one more calculated operation
+     */
+    public void recordOperation() {
+        if (enabled) {
+            operationCount.increment();
+        }
+    }
+
+    /**
+     * Record a finished line
+     *
+     * @param startTime the time the line started, as returned by {@link #startTime()}
+     */
+    public void recordLine(long startTime) {
+        if (enabled) {
+            lineHistogram.record(System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Record a line that could not be calculated
+     */
+    public void recordError() {
+        if (enabled) {
+            errorCount.increment();
+        }
+    }
+
+    /**
+     * Record a line answered from the result cache
+     */
+    public void recordCacheHit() {
+        if (enabled) {
+            cacheHitCount.increment();
+        }
+    }
+
+    /**
+     * Record a line looked up in the result cache and calculated
+     */
+    public void recordCacheMiss() {
+        if (enabled) {
+            cacheMissCount.increment();
+        }
+    }
+
+    public LatencyHistogram getStageHistogram(Stage stage) {
+        return stageHistograms.get(stage);
+    }
+
+    public LatencyHistogram getLineHistogram() {
+        return lineHistogram;
+    }
+
+    public long getOperationCount() {
+        return operationCount.sum();
+    }
+
+    public long getLineCount() {
+        return lineHistogram.getCount();
+    }
+
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    public long getCacheHitCount() {
+        return cacheHitCount.sum();
+    }
+
+    public long getCacheMissCount() {
+        return cacheMissCount.sum();
+    }
+
+    /**
+     * @return a human readable summary of the counters and the latencies in microseconds
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder(String.format(Locale.ROOT, "lines=%d operations=%d errors=%d cacheHits=%d cacheMisses=%d%n",
+                getLineCount(), getOperationCount(), getErrorCount(), getCacheHitCount(), getCacheMissCount()));
+        for (Stage stage : Stage.values()) {
+            appendHistogram(summary, stage.name().toLowerCase(Locale.ROOT), stageHistograms.get(stage));
+        }
+        appendHistogram(summary, "line", lineHistogram);
+        return summary.toString();
+    }
+
+    private static void appendHistogram(StringBuilder summary, String name, LatencyHistogram histogram) {
+        summary.append(String.format(Locale.ROOT, "  %-14s count=%d mean=%.2fus p50=%.2fus p99=%.2fus p99.9=%.2fus max=%.2fus%n",
+                name, histogram.getCount(), histogram.getMean() / TimeUnit.MICROSECONDS.toNanos(1),
+                micros(histogram.getValueAtPercentile(50d)), micros(histogram.getValueAtPercentile(99d)),
+                micros(histogram.getValueAtPercentile(99.9d)), micros(histogram.getMaxValue())));
+    }
+
+    private static double micros(long nanos) {
+        return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,204 @@
+package com.bank.application.ports.input;
+
+import com.bank.application.metrics.Stage;
+import com.bank.application.metrics.TaxCalculationMetrics;
+import com.bank.application.usecases.TaxCalculationSession;
+import com.bank.application.usecases.TaxCalculationUseCase;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.service.OperationTaxEngine;
+import com.bank.domain.service.PortfolioStockOperationEngine;
+import com.bank.domain.service.PrimitiveStockOperationEngine;
+import com.bank.domain.valueobject.OperationType;
+import com.bank.framework.adapter.output.domain.StockOperationDTO;
+import com.bank.framework.adapter.output.domain.TaxDTO;
+import lombok.Builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Entry point of the application for operations of several stocks, where every ticker keeps its own position.
+ * Operations without a ticker share one position, so a list without tickers is calculated like the other engines do.
+ * <p>
+ * A list is split in shards of whole symbols, balanced by number of operations, and every shard is calculated in the
+ * executor with its own {@link PortfolioStockOperationEngine}. Each symbol is calculated in input order by a single
+ * shard, so the taxes do not depend on the number of shards.
+ * <p>
+ * A session receives its operations one by one and calculates each one as it arrives, in the calling thread, so only
+ * whole lists given to {@link #calculateTaxes(List)} are split, which the CLI does in the {@code buffered} mode.
+ */
+@Builder
+public class PortfolioTaxCalculationInputPort implements TaxCalculationUseCase {
+
+    /**
+     * Id of the position shared by the operations without a ticker
+     */
+    private static final int NO_TICKER_SYMBOL_ID = 0;
+
+    /**
+     * Creates the engine keeping the position of each symbol
+     */
+    @Builder.Default
+    private final Supplier<OperationTaxEngine> operationTaxEngineSupplier = PrimitiveStockOperationEngine::new;
+
+    /**
+     * Runs the shards of a list
+     */
+    @Builder.Default
+    private final Executor executor = ForkJoinPool.commonPool();
+
+    /**
+     * Maximum number of shards a list is split in
+     */
+    @Builder.Default
+    private final int shards = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Lists are only split when every shard gets at least this number of operations
+     */
+    @Builder.Default
+    private final int minOperationsPerShard = 1024;
+
+    /**
+     * Times the transformation and the calculation of the operations of a session
+     */
+    @Builder.Default
+    private final TaxCalculationMetrics taxCalculationMetrics = TaxCalculationMetrics.disabled();
+
+    /**
+     * Calculates how much tax you should pay for every operation, keeping one position per ticker
+     *
+     * @param stockOperationDTOList A list of Operation DTO
+     * @return the list of TaxDTO
+     */
+    @Override
+    public List<TaxDTO> calculateTaxes(List<StockOperationDTO> stockOperationDTOList) {
+        long startTime = taxCalculationMetrics.startTime();
+        int length = stockOperationDTOList.size();
+        int[] symbolIds = new int[length];
+        OperationType[] operationTypes = new OperationType[length];
+        double[] unitCosts = new double[length];
+        long[] quantities = new long[length];
+        TickerSymbolIds tickerSymbolIds = new TickerSymbolIds();
+        for (int i = 0; i < length; i++) {
+            StockOperationDTO stockOperationDTO = stockOperationDTOList.get(i);
+            symbolIds[i] = getSymbolId(tickerSymbolIds, stockOperationDTO.getTicker());
+            operationTypes[i] = OperationType.getOperationTypeByName(stockOperationDTO.getOperation());
+            unitCosts[i] = stockOperationDTO.getUnitCost();
+            quantities[i] = stockOperationDTO.getQuantity();
+        }
+
+        startTime = taxCalculationMetrics.record(Stage.TRANSFORMATION, startTime, length);
+
+        double[] taxes = new double[length];
+        boolean[] rejected = new boolean[length];
+        int symbolCount = tickerSymbolIds.size() + 1;
+        int shardCount = Math.min(Math.min(shards, symbolCount), Math.max(1, length / Math.max(1, minOperationsPerShard)));
+        if (shardCount <= 1) {
+            new PortfolioStockOperationEngine(operationTaxEngineSupplier).calculateTaxes(symbolIds, operationTypes, unitCosts, quantities,
+                    IntStream.range(0, length).toArray(), length, taxes, rejected);
+        } else {
+            calculateShards(symbolIds, operationTypes, unitCosts, quantities, symbolCount, shardCount, taxes, rejected);
+        }
+
+        List<TaxDTO> taxList = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            taxList.add(TaxDTO.builder().tax(taxes[i]).build());
+        }
+        taxCalculationMetrics.record(Stage.CALCULATION, startTime, length);
+        taxCalculationMetrics.recordOperations(length);
+        return taxList;
+    }
+
+    /**
+     * Starts a simulation of a portfolio, calculated in the calling thread without splitting it by ticker
+     *
+     * @param initialStockTransaction the state of the operations without a ticker
+     * @return a new session
+     */
+    @Override
+    public TaxCalculationSession openSession(StockTransaction initialStockTransaction) {
+        PortfolioStockOperationEngine engine = new PortfolioStockOperationEngine(operationTaxEngineSupplier);
+        engine.getEngine(NO_TICKER_SYMBOL_ID).restore(initialStockTransaction);
+        TickerSymbolIds tickerSymbolIds = new TickerSymbolIds();
+        return new TaxCalculationSession() {
+            @Override
+            public TaxDTO calculateTax(StockOperationDTO stockOperationDTO) {
+                long startTime = taxCalculationMetrics.startTime();
+                int symbolId = getSymbolId(tickerSymbolIds, stockOperationDTO.getTicker());
+                OperationType operationType = OperationType.getOperationTypeByName(stockOperationDTO.getOperation());
+                startTime = taxCalculationMetrics.record(Stage.TRANSFORMATION, startTime);
+                TaxDTO taxDTO = TaxDTO.builder().tax(engine.calculateTax(symbolId, operationType, stockOperationDTO.getUnitCost(), stockOperationDTO.getQuantity())).build();
+                taxCalculationMetrics.record(Stage.CALCULATION, startTime);
+                taxCalculationMetrics.recordOperation();
+                return taxDTO;
+            }
+
+            @Override
+            public StockTransaction getStockTransaction() {
+                return engine.getEngine(NO_TICKER_SYMBOL_ID).toStockTransaction();
+            }
+        };
+    }
+
+    private void calculateShards(int[] symbolIds, OperationType[] operationTypes, double[] unitCosts, long[] quantities,
+                                 int symbolCount, int shardCount, double[] taxes, boolean[] rejected) {
+        int[] operationsPerSymbol = new int[symbolCount];
+        for (int symbolId : symbolIds) {
+            operationsPerSymbol[symbolId]++;
+        }
+
+        // Biggest symbols first, each one to the shard with fewer operations so far
+        int[] shardOfSymbol = new int[symbolCount];
+        int[] shardSizes = new int[shardCount];
+        Integer[] symbolsBySize = IntStream.range(0, symbolCount).boxed().toArray(Integer[]::new);
+        Arrays.sort(symbolsBySize, Comparator.comparingInt((Integer symbolId) -> operationsPerSymbol[symbolId]).reversed());
+        for (int symbolId : symbolsBySize) {
+            int smallestShard = 0;
+            for (int shard = 1; shard < shardCount; shard++) {
+                if (shardSizes[shard] < shardSizes[smallestShard]) {
+                    smallestShard = shard;
+                }
+            }
+            shardOfSymbol[symbolId] = smallestShard;
+            shardSizes[smallestShard] += operationsPerSymbol[symbolId];
+        }
+
+        int[][] shardIndexes = new int[shardCount][];
+        for (int shard = 0; shard < shardCount; shard++) {
+            shardIndexes[shard] = new int[shardSizes[shard]];
+        }
+        int[] shardFill = new int[shardCount];
+        for (int i = 0; i < symbolIds.length; i++) {
+            int shard = shardOfSymbol[symbolIds[i]];
+            shardIndexes[shard][shardFill[shard]++] = i;
+        }
+
+        CompletableFuture<?>[] shardFutures = new CompletableFuture<?>[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            int[] indexes = shardIndexes[shard];
+            shardFutures[shard] = CompletableFuture.runAsync(() -> new PortfolioStockOperationEngine(operationTaxEngineSupplier)
+                    .calculateTaxes(symbolIds, operationTypes, unitCosts, quantities, indexes, indexes.length, taxes, rejected), executor);
+        }
+        try {
+            CompletableFuture.allOf(shardFutures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static int getSymbolId(TickerSymbolIds tickerSymbolIds, String ticker) {
+        return ticker == null ? NO_TICKER_SYMBOL_ID : tickerSymbolIds.getOrAdd(ticker);
+    }
+}
@@ -0,0 +1,102 @@
+package com.bank.application.ports.input;
+
+import com.bank.application.metrics.Stage;
+import com.bank.application.metrics.TaxCalculationMetrics;
+import com.bank.application.usecases.TaxCalculationSession;
+import com.bank.application.usecases.TaxCalculationUseCase;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.service.OperationTaxEngine;
+import com.bank.domain.service.PrimitiveStockOperationEngine;
+import com.bank.domain.valueobject.OperationType;
+import com.bank.framework.adapter.output.domain.StockOperationDTO;
+import com.bank.framework.adapter.output.domain.TaxDTO;
+import lombok.Builder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Entry point of the application backed by an {@link OperationTaxEngine} working on primitive values,
+ * the {@link PrimitiveStockOperationEngine} by default
+ */
+@Builder
+public class PrimitiveTaxCalculationInputPort implements TaxCalculationUseCase {
+
+    /**
+     * Creates a new engine for every simulation
+     */
+    @Builder.Default
+    private final Supplier<OperationTaxEngine> operationTaxEngineSupplier = PrimitiveStockOperationEngine::new;
+
+    /**
+     * Times the transformation and the calculation of the operations of a session
+     */
+    @Builder.Default
+    private final TaxCalculationMetrics taxCalculationMetrics = TaxCalculationMetrics.disabled();
+
+    /**
+     * Calculates how much tax you should pay based on the profit or losses of a stock market investment.
+     * The operations are copied to columns once and the engine does not allocate per operation.
+     *
+     * @param stockOperationDTOList A list of Operation DTO
+     * @return the list of TaxDTO
+     */
+    @Override
+    public List<TaxDTO> calculateTaxes(List<StockOperationDTO> stockOperationDTOList) {
+        long startTime = taxCalculationMetrics.startTime();
+        int length = stockOperationDTOList.size();
+        OperationType[] operationTypes = new OperationType[length];
+        double[] unitCosts = new double[length];
+        long[] quantities = new long[length];
+        for (int i = 0; i < length; i++) {
+            StockOperationDTO stockOperationDTO = stockOperationDTOList.get(i);
+            operationTypes[i] = OperationType.getOperationTypeByName(stockOperationDTO.getOperation());
+            unitCosts[i] = stockOperationDTO.getUnitCost();
+            quantities[i] = stockOperationDTO.getQuantity();
+        }
+
+        startTime = taxCalculationMetrics.record(Stage.TRANSFORMATION, startTime, length);
+
+        double[] taxes = new double[length];
+        boolean[] rejected = new boolean[length];
+        operationTaxEngineSupplier.get().calculateTaxes(operationTypes, unitCosts, quantities, length, taxes, rejected);
+
+        List<TaxDTO> taxList = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            taxList.add(TaxDTO.builder().tax(taxes[i]).build());
+        }
+        taxCalculationMetrics.record(Stage.CALCULATION, startTime, length);
+        taxCalculationMetrics.recordOperations(length);
+        return taxList;
+    }
+
+    /**
+     * Starts a simulation backed by its own engine
+     *
+     * @param initialStockTransaction the state the simulation starts from
+     * @return a new session
+     */
+    @Override
+    public TaxCalculationSession openSession(StockTransaction initialStockTransaction) {
+        OperationTaxEngine engine = operationTaxEngineSupplier.get();
+        engine.restore(initialStockTransaction);
+        return new TaxCalculationSession() {
+            @Override
+            public TaxDTO calculateTax(StockOperationDTO stockOperationDTO) {
+                long startTime = taxCalculationMetrics.startTime();
+                OperationType operationType = OperationType.getOperationTypeByName(stockOperationDTO.getOperation());
+                startTime = taxCalculationMetrics.record(Stage.TRANSFORMATION, startTime);
+                TaxDTO taxDTO = TaxDTO.builder().tax(engine.calculateTax(operationType, stockOperationDTO.getUnitCost(), stockOperationDTO.getQuantity())).build();
+                taxCalculationMetrics.record(Stage.CALCULATION, startTime);
+                taxCalculationMetrics.recordOperation();
+                return taxDTO;
+            }
+
+            @Override
+            public StockTransaction getStockTransaction() {
+                return engine.toStockTransaction();
+            }
+        };
+    }
+}
@@ -1,12 +1,17 @@
 package com.bank.application.ports.input;
 
+import com.bank.application.metrics.Stage;
+import com.bank.application.metrics.TaxCalculationMetrics;
 import com.bank.application.ports.transformer.StockOperationTransformer;
 import com.bank.application.ports.transformer.TaxTransformer;
 import com.bank.domain.entity.StockOperation;
+import com.bank.domain.service.ParallelScanStockOperationEngine;
 import com.bank.domain.service.StockOperationService;
-import com.bank.domain.valueobject.OperationStatus;
+import com.bank.domain.service.StockTransactionPrefixTrie;
+import com.bank.domain.valueobject.AbstractEntityStatus;
 import com.bank.framework.adapter.output.domain.StockOperationDTO;
 import com.bank.framework.adapter.output.domain.TaxDTO;
+import com.bank.application.usecases.TaxCalculationSession;
 import com.bank.application.usecases.TaxCalculationUseCase;
 import com.bank.domain.entity.StockTransaction;
 import lombok.Builder;
@@ -22,6 +27,26 @@ public class TaxCalculationInputPort implements TaxCalculationUseCase {
 
     private StockOperationService stockOperationService;
 
+    /**
+     * Times the transformation and the calculation of the operations of a session
+     */
+    @Builder.Default
+    private TaxCalculationMetrics taxCalculationMetrics = TaxCalculationMetrics.disabled();
+
+    /**
+     * Reuses the transactions of the operation prefixes already calculated, every operation is calculated when null
+     */
+    private StockTransactionPrefixTrie stockTransactionPrefixTrie;
+
+    /**
+     * Calculates the lists of at least {@link #parallelScanMinOperations} operations on every core, every list is
+     * calculated sequentially when null
+     */
+    private ParallelScanStockOperationEngine parallelScanStockOperationEngine;
+
+    @Builder.Default
+    private int parallelScanMinOperations = 1 << 20;
+
     /**
      * Calculates how much tax you should pay based on the profit or losses of a stock market investment
      *
@@ -30,8 +55,83 @@ public class TaxCalculationInputPort implements TaxCalculationUseCase {
      */
     @Override
     public List<TaxDTO> calculateTaxes(List<StockOperationDTO> stockOperationDTOList) {
+        long startTime = taxCalculationMetrics.startTime();
         List<StockOperation> stockOperationList = stockOperationDTOList.stream().map(StockOperationTransformer::transform).collect(Collectors.toList());
-        StockTransaction stockTransaction = stockOperationService.processOperation(stockOperationList);
-        return stockTransaction.getOperationList().stream().map(OperationStatus::getTax).map(TaxTransformer::transform).collect(Collectors.toList());
+        startTime = taxCalculationMetrics.record(Stage.TRANSFORMATION, startTime, stockOperationList.size());
+        StockTransaction stockTransaction;
+        if (parallelScanStockOperationEngine != null && stockOperationList.size() >= parallelScanMinOperations) {
+            stockTransaction = parallelScanStockOperationEngine.processOperation(stockOperationList);
+        } else if (stockTransactionPrefixTrie != null) {
+            stockTransaction = stockTransactionPrefixTrie.processOperation(stockOperationList);
+        } else {
+            stockTransaction = stockOperationService.processOperation(stockOperationList);
+        }
+        List<TaxDTO> taxList = stockTransaction.getOperationList().stream().map(AbstractEntityStatus::getTax).map(TaxTransformer::transform).collect(Collectors.toList());
+        taxCalculationMetrics.record(Stage.CALCULATION, startTime, taxList.size());
+        taxCalculationMetrics.recordOperations(taxList.size());
+        return taxList;
+    }
+
+    /**
+     * Starts a simulation that only keeps the aggregated state of the transaction between operations
+     *
+     * @param initialStockTransaction the state the simulation starts from
+     * @return a new session
+     */
+    @Override
+    public TaxCalculationSession openSession(StockTransaction initialStockTransaction) {
+        if (stockTransactionPrefixTrie != null && initialStockTransaction.getOperationList().isEmpty() && initialStockTransaction.getCurrentStockQuantity() == 0L
+                && initialStockTransaction.getWeightedAveragePrice() == 0d && initialStockTransaction.getTotalLoss() == 0d) {
+            return openPrefixSharingSession();
+        }
+        return new TaxCalculationSession() {
+
+            private StockTransaction stockTransaction = initialStockTransaction.withoutOperations();
+
+            @Override
+            public TaxDTO calculateTax(StockOperationDTO stockOperationDTO) {
+                long startTime = taxCalculationMetrics.startTime();
+                StockOperation stockOperation = StockOperationTransformer.transform(stockOperationDTO);
+                startTime = taxCalculationMetrics.record(Stage.TRANSFORMATION, startTime);
+                StockTransaction newStockTransaction = stockOperationService.processOperation(stockOperation, stockTransaction);
+                stockTransaction = newStockTransaction.withoutOperations();
+                TaxDTO taxDTO = TaxTransformer.transform(newStockTransaction.getLastOperation().getTax());
+                taxCalculationMetrics.record(Stage.CALCULATION, startTime);
+                taxCalculationMetrics.recordOperation();
+                return taxDTO;
+            }
+
+            @Override
+            public StockTransaction getStockTransaction() {
+                return stockTransaction;
+            }
+        };
+    }
+
+    /**
+     * Starts a simulation that follows the trie from its root, so the operations of a cached prefix are not calculated
+     */
+    private TaxCalculationSession openPrefixSharingSession() {
+        return new TaxCalculationSession() {
+
+            private StockTransactionPrefixTrie.Node node = stockTransactionPrefixTrie.getRoot();
+
+            @Override
+            public TaxDTO calculateTax(StockOperationDTO stockOperationDTO) {
+                long startTime = taxCalculationMetrics.startTime();
+                StockOperation stockOperation = StockOperationTransformer.transform(stockOperationDTO);
+                startTime = taxCalculationMetrics.record(Stage.TRANSFORMATION, startTime);
+                node = stockTransactionPrefixTrie.next(node, stockOperation);
+                TaxDTO taxDTO = TaxTransformer.transform(node.getStockTransaction().getLastOperation().getTax());
+                taxCalculationMetrics.record(Stage.CALCULATION, startTime);
+                taxCalculationMetrics.recordOperation();
+                return taxDTO;
+            }
+
+            @Override
+            public StockTransaction getStockTransaction() {
+                return node.getStockTransaction().withoutOperations();
+            }
+        };
     }
 }
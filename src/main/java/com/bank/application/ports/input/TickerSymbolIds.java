@@ -0,0 +1,62 @@
+package com.bank.application.ports.input;
+
+/**
+ * Gives every ticker of a portfolio a dense id, starting at 1, without boxing the ids. Open addressing with linear
+ * probing, the table doubles when it is half full. Not thread safe.
+ */
+final class TickerSymbolIds {
+
+    private String[] tickers = new String[16];
+    private int[] ids = new int[16];
+    private int size;
+
+    /**
+     * @param ticker the symbol of the stock
+     * @return the id of the ticker, a new one the first time it is seen
+     */
+    int getOrAdd(String ticker) {
+        int mask = tickers.length - 1;
+        int slot = mix(ticker.hashCode()) & mask;
+        while (tickers[slot] != null) {
+            if (tickers[slot].equals(ticker)) {
+                return ids[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        tickers[slot] = ticker;
+        ids[slot] = ++size;
+        if (size * 2 > tickers.length) {
+            grow();
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of tickers seen
+     */
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        String[] oldTickers = tickers;
+        int[] oldIds = ids;
+        tickers = new String[oldTickers.length * 2];
+        ids = new int[oldTickers.length * 2];
+        int mask = tickers.length - 1;
+        for (int i = 0; i < oldTickers.length; i++) {
+            if (oldTickers[i] != null) {
+                int slot = mix(oldTickers[i].hashCode()) & mask;
+                while (tickers[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                tickers[slot] = oldTickers[i];
+                ids[slot] = oldIds[i];
+            }
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
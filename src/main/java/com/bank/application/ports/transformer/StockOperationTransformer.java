@@ -1,6 +1,7 @@
 package com.bank.application.ports.transformer;
 
 import com.bank.domain.entity.StockOperation;
+import com.bank.domain.valueobject.ErrorCode;
 import com.bank.domain.valueobject.OperationType;
 import com.bank.framework.adapter.output.domain.StockOperationDTO;
 
@@ -13,4 +14,26 @@ public class StockOperationTransformer {
                 .build();
     }
 
+    /**
+     * Checks that the operation can be calculated, so a rejected one never reaches an engine
+     *
+     * @param stockOperationDTO the operation to check
+     * @return the reason the operation is rejected, null when it can be calculated
+     */
+    public static ErrorCode validate(StockOperationDTO stockOperationDTO) {
+        if (OperationType.findOperationTypeByName(stockOperationDTO.getOperation()) == null) {
+            return ErrorCode.UNKNOWN_OPERATION;
+        }
+        if (stockOperationDTO.getUnitCost() == null || stockOperationDTO.getQuantity() == null) {
+            return ErrorCode.MISSING_FIELD;
+        }
+        if (stockOperationDTO.getQuantity() <= 0L) {
+            return ErrorCode.INVALID_QUANTITY;
+        }
+        if (!(stockOperationDTO.getUnitCost() >= 0d)) {
+            return ErrorCode.INVALID_UNIT_COST;
+        }
+        return null;
+    }
+
 }
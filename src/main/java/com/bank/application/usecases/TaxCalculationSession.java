@@ -0,0 +1,25 @@
+package com.bank.application.usecases;
+
+import com.bank.domain.entity.StockTransaction;
+import com.bank.framework.adapter.output.domain.StockOperationDTO;
+import com.bank.framework.adapter.output.domain.TaxDTO;
+
+/**
+ * A simulation that receives its operations one by one, only the state of the transaction is kept between operations.
+ * A session is not thread safe.
+ */
+public interface TaxCalculationSession {
+
+    /**
+     * Calculates how much tax you should pay for the next operation of the simulation
+     *
+     * @param stockOperationDTO the next operation, it is not retained so the caller can reuse it
+     * @return the tax to pay for the operation
+     */
+    TaxDTO calculateTax(StockOperationDTO stockOperationDTO);
+
+    /**
+     * @return the state of the transaction after the operations calculated so far, without the operations
+     */
+    StockTransaction getStockTransaction();
+}
@@ -1,5 +1,6 @@
 package com.bank.application.usecases;
 
+import com.bank.domain.entity.StockTransaction;
 import com.bank.framework.adapter.output.domain.StockOperationDTO;
 import com.bank.framework.adapter.output.domain.TaxDTO;
 
@@ -13,4 +14,19 @@ public interface TaxCalculationUseCase {
      * @return
      */
     List<TaxDTO> calculateTaxes(List<StockOperationDTO> stockOperationList);
+
+    /**
+     * Starts a simulation whose operations are calculated as they arrive
+     * @return a new session with no operations
+     */
+    default TaxCalculationSession openSession() {
+        return openSession(new StockTransaction());
+    }
+
+    /**
+     * Starts a simulation that continues a previously calculated transaction
+     * @param initialStockTransaction the state the simulation starts from
+     * @return a new session
+     */
+    TaxCalculationSession openSession(StockTransaction initialStockTransaction);
 }
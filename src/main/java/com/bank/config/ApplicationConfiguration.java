@@ -1,53 +1,258 @@
 package com.bank.config;
 
+import com.bank.application.metrics.LineErrorCounts;
+import com.bank.application.metrics.TaxCalculationMetrics;
+import com.bank.application.ports.input.PortfolioTaxCalculationInputPort;
+import com.bank.application.ports.input.PrimitiveTaxCalculationInputPort;
 import com.bank.application.ports.input.TaxCalculationInputPort;
 import com.bank.application.usecases.TaxCalculationUseCase;
+import com.bank.domain.policy.CompiledTaxRules;
 import com.bank.domain.policy.StockOperationCalculator;
 import com.bank.domain.policy.TaxesCalculator;
+import com.bank.domain.service.ColumnarStockOperationEngine;
+import com.bank.domain.service.FixedPointStockOperationEngine;
+import com.bank.domain.service.OperationTaxEngine;
+import com.bank.domain.service.ParallelScanStockOperationEngine;
+import com.bank.domain.service.PrimitiveStockOperationEngine;
 import com.bank.domain.service.StockOperationService;
+import com.bank.domain.service.StockTransactionPrefixTrie;
+import com.bank.domain.specification.EnoughStockQuantitySpecification;
 import com.bank.domain.specification.OperationShouldPayTaxesSpecification;
 import com.bank.domain.specification.PerformanceShouldPayTaxSpecification;
 import com.bank.domain.specification.StockQuantitySpecification;
+import com.bank.domain.valueobject.TaxRules;
+import com.bank.framework.adapter.input.BinaryOperationLogReplayCLIAdapter;
+import com.bank.framework.adapter.input.FlowTaxCalculationCLIAdapter;
+import com.bank.framework.adapter.input.TaxCalculationHttpAdapter;
+import com.bank.framework.adapter.input.TaxCalculationResultCache;
 import com.bank.framework.adapter.input.TaxCalculationViewCLIAdapter;
+import com.bank.framework.adapter.output.MappedBinaryOperationLogReader;
+import com.bank.framework.adapter.output.StockOperationJournalOutputPort;
 import com.bank.framework.adapter.output.StringToStockOperationParserAdapter;
 import com.bank.framework.adapter.output.StringToTaxListParserAdapter;
 import com.bank.domain.specification.OperationShouldRecalculateWeightedAverage;
 import lombok.Builder;
 
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Class to configure the application and its dependencies
  */
 @Builder
 public class ApplicationConfiguration {
 
+    /**
+     * Engine used to calculate the taxes
+     */
+    @Builder.Default
+    private final CalculationEngine calculationEngine = CalculationEngine.POLICY;
+
+    /**
+     * Metrics shared by the adapters and the use case, disabled by default
+     */
+    @Builder.Default
+    private final TaxCalculationMetrics taxCalculationMetrics = TaxCalculationMetrics.disabled();
+
+    /**
+     * Maximum number of lines kept in the result cache of the CLI, 0 disables the cache
+     */
+    @Builder.Default
+    private final long resultCacheMaxEntries = 0L;
+
+    /**
+     * Maximum estimated memory of the result cache of the CLI
+     */
+    @Builder.Default
+    private final long resultCacheMaxBytes = 64L << 20;
+
+    /**
+     * Maximum number of operation prefixes whose transaction is reused by the policy engine, 0 disables the reuse
+     */
+    @Builder.Default
+    private final long prefixTrieMaxNodes = 0L;
+
+    /**
+     * Size from which the lists calculated as a whole by the policy engine are scanned in parallel, 0 disables the scan
+     */
+    @Builder.Default
+    private final int parallelScanMinOperations = 0;
+
+    /**
+     * Thresholds of the tax applied by every engine
+     */
+    @Builder.Default
+    private final TaxRules taxRules = TaxRules.DEFAULT;
+
+    /**
+     * Journal of the operations calculated by the CLI, none by default
+     */
+    private final StockOperationJournalOutputPort stockOperationJournal;
+
+    /**
+     * Counts the lines the CLI writes as an error instead of failing, the CLI fails on the first such line when null
+     */
+    private final LineErrorCounts lineErrorCounts;
+
     public TaxCalculationViewCLIAdapter configureDependencies(){
+        if (stockOperationJournal != null && calculationEngine == CalculationEngine.PORTFOLIO) {
+            throw new IllegalStateException("The journal only persists a single position, the portfolio engine keeps one per ticker");
+        }
+        StringToStockOperationParserAdapter stringToStockOperationParserAdapter = StringToStockOperationParserAdapter.builder().build();
+        StringToTaxListParserAdapter stringToTaxListParserAdapter = StringToTaxListParserAdapter.builder().build();
+        TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter = TaxCalculationViewCLIAdapter.builder()
+                .taxCalculationUseCase(configureTaxCalculationUseCase())
+                .stringToStockOperationParserAdapter(stringToStockOperationParserAdapter)
+                .stringToTaxListParserAdapter(stringToTaxListParserAdapter)
+                .taxCalculationMetrics(taxCalculationMetrics)
+                .taxCalculationResultCache(resultCacheMaxEntries > 0
+                        ? TaxCalculationResultCache.builder().maxEntries(resultCacheMaxEntries).maxBytes(resultCacheMaxBytes).build() : null)
+                .stockOperationJournal(stockOperationJournal)
+                .lineErrorCounts(lineErrorCounts)
+                .build();
+        return taxCalculationViewCLIAdapter;
+
+    }
+
+    /**
+     * Creates the HTTP adapter, sharing one use case between all the requests
+     *
+     * @return the adapter, not started
+     */
+    public TaxCalculationHttpAdapter configureHttpAdapter() {
+        return TaxCalculationHttpAdapter.builder()
+                .taxCalculationUseCase(configureTaxCalculationUseCase())
+                .stringToStockOperationParserAdapter(StringToStockOperationParserAdapter.builder().build())
+                .stringToTaxListParserAdapter(StringToTaxListParserAdapter.builder().build())
+                .build();
+    }
+
+    /**
+     * Creates the adapter calculating the CLI lines through a Flow pipeline. The pipeline calculates the operations one
+     * by one and stops on the first line that can not be calculated, so it has neither a result cache nor reported lines.
+     *
+     * @param executor   runs the calculation and the serialization stages, with at least two threads
+     * @param bufferSize maximum items waiting between two stages
+     * @return the adapter of the pipeline
+     * @throws IllegalStateException when the configuration has a result cache or counts the reported lines
+     */
+    public FlowTaxCalculationCLIAdapter configureFlowAdapter(Executor executor, int bufferSize) {
+        if (resultCacheMaxEntries > 0 || lineErrorCounts != null) {
+            throw new IllegalStateException("The pipeline supports neither the result cache nor the reported lines");
+        }
+        return FlowTaxCalculationCLIAdapter.builder()
+                .taxCalculationUseCase(configureTaxCalculationUseCase())
+                .stringToStockOperationParserAdapter(StringToStockOperationParserAdapter.builder().build())
+                .stringToTaxListParserAdapter(StringToTaxListParserAdapter.builder().build())
+                .executor(executor)
+                .bufferSize(bufferSize)
+                .taxCalculationMetrics(taxCalculationMetrics)
+                .build();
+    }
+
+    /**
+     * Creates the executor handling the HTTP requests: a virtual thread per request when the runtime supports them,
+     * otherwise a fixed pool of platform threads
+     *
+     * @param threads size of the pool of platform threads
+     * @return the executor of the requests
+     */
+    public static ExecutorService configureHttpExecutor(int threads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    /**
+     * Creates the use case calculating the taxes with the engine of the configuration
+     *
+     * @return the use case of the engine
+     */
+    public TaxCalculationUseCase configureTaxCalculationUseCase() {
+        switch (calculationEngine) {
+            case PRIMITIVE:
+                return PrimitiveTaxCalculationInputPort.builder().operationTaxEngineSupplier(() -> new PrimitiveStockOperationEngine(taxRules))
+                        .taxCalculationMetrics(taxCalculationMetrics).build();
+            case FIXED_POINT:
+                return PrimitiveTaxCalculationInputPort.builder().operationTaxEngineSupplier(() -> new FixedPointStockOperationEngine(taxRules))
+                        .taxCalculationMetrics(taxCalculationMetrics).build();
+            case COLUMNAR:
+                return PrimitiveTaxCalculationInputPort.builder().operationTaxEngineSupplier(() -> new ColumnarStockOperationEngine(taxRules))
+                        .taxCalculationMetrics(taxCalculationMetrics).build();
+            case PORTFOLIO:
+                return PortfolioTaxCalculationInputPort.builder().operationTaxEngineSupplier(() -> new PrimitiveStockOperationEngine(taxRules))
+                        .taxCalculationMetrics(taxCalculationMetrics).build();
+            default:
+                StockOperationService stockOperationService = configureStockOperationService();
+                return TaxCalculationInputPort.builder().stockOperationService(stockOperationService)
+                        .taxCalculationMetrics(taxCalculationMetrics)
+                        .stockTransactionPrefixTrie(prefixTrieMaxNodes > 0
+                                ? StockTransactionPrefixTrie.builder().stockOperationService(stockOperationService).maxNodes(prefixTrieMaxNodes).build() : null)
+                        .parallelScanStockOperationEngine(parallelScanMinOperations > 0 ? ParallelScanStockOperationEngine.builder().taxRules(taxRules).build() : null)
+                        .parallelScanMinOperations(parallelScanMinOperations)
+                        .build();
+        }
+    }
+
+    /**
+     * Creates the adapter replaying a binary operation log with the engine of the configuration. The policy and the
+     * portfolio engines are replayed with the primitive engine, which calculates the same taxes for a single position.
+     *
+     * @param binaryFile the operation log to replay
+     * @return the adapter writing the taxes of the log
+     */
+    public BinaryOperationLogReplayCLIAdapter configureBinaryReplay(Path binaryFile) {
+        return BinaryOperationLogReplayCLIAdapter.builder()
+                .mappedBinaryOperationLogReader(MappedBinaryOperationLogReader.builder().binaryFile(binaryFile).build())
+                .operationTaxEngine(configureReplayEngine())
+                .stringToTaxListParserAdapter(StringToTaxListParserAdapter.builder().build())
+                .taxCalculationMetrics(taxCalculationMetrics)
+                .build();
+    }
+
+    private OperationTaxEngine configureReplayEngine() {
+        switch (calculationEngine) {
+            case FIXED_POINT:
+                return new FixedPointStockOperationEngine(taxRules);
+            case COLUMNAR:
+                return new ColumnarStockOperationEngine(taxRules);
+            default:
+                return new PrimitiveStockOperationEngine(taxRules);
+        }
+    }
+
+    /**
+     * Creates the domain service with its policies and specifications, evaluated through their compiled rules. The
+     * policies themselves are only evaluated by a service built without the compiled rules.
+     *
+     * @return the service to calculate the taxes of a list of operations
+     */
+    public StockOperationService configureStockOperationService(){
         PerformanceShouldPayTaxSpecification performanceShouldPayTaxSpecification = PerformanceShouldPayTaxSpecification.builder().build();
-        OperationShouldPayTaxesSpecification operationShouldPayTaxesSpecification = OperationShouldPayTaxesSpecification.builder().build();
+        OperationShouldPayTaxesSpecification operationShouldPayTaxesSpecification = OperationShouldPayTaxesSpecification.builder().taxRules(taxRules).build();
         OperationShouldRecalculateWeightedAverage operationShouldRecalculateWeightedAverage = OperationShouldRecalculateWeightedAverage.builder().build();
         StockQuantitySpecification stockQuantitySpecification = StockQuantitySpecification.builder().build();
+        EnoughStockQuantitySpecification enoughStockQuantitySpecification = EnoughStockQuantitySpecification.builder().build();
 
         TaxesCalculator taxesCalculator = TaxesCalculator.builder()
                 .operationShouldPayTaxesSpecification(operationShouldPayTaxesSpecification)
                 .performanceShouldPayTaxSpecification(performanceShouldPayTaxSpecification)
+                .taxRules(taxRules)
                 .build();
 
         StockOperationCalculator stockOperationCalculator = StockOperationCalculator.builder()
                 .stockQuantitySpecification(stockQuantitySpecification).operationShouldPayTaxesSpecification(operationShouldPayTaxesSpecification).build();
 
-        StockOperationService stockOperationService = StockOperationService.builder()
+        return StockOperationService.builder()
                 .stockOperationCalculator(stockOperationCalculator)
                 .taxesCalculator(taxesCalculator)
                 .operationShouldRecalculateWeightedAverage(operationShouldRecalculateWeightedAverage)
+                .enoughStockQuantitySpecification(enoughStockQuantitySpecification)
+                .compiledTaxRules(CompiledTaxRules.compile(taxRules))
                 .build();
-        StringToStockOperationParserAdapter stringToStockOperationParserAdapter = StringToStockOperationParserAdapter.builder().build();
-        StringToTaxListParserAdapter stringToTaxListParserAdapter = StringToTaxListParserAdapter.builder().build();
-        TaxCalculationUseCase taxCalculationUseCase = TaxCalculationInputPort.builder().stockOperationService(stockOperationService).build();
-        TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter = TaxCalculationViewCLIAdapter.builder()
-                .taxCalculationUseCase(taxCalculationUseCase)
-                .stringToStockOperationParserAdapter(stringToStockOperationParserAdapter)
-                .stringToTaxListParserAdapter(stringToTaxListParserAdapter)
-                .build();
-        return taxCalculationViewCLIAdapter;
-
     }
 }
@@ -0,0 +1,32 @@
+package com.bank.config;
+
+/**
+ * Engines available to calculate the taxes
+ */
+public enum CalculationEngine {
+
+    /**
+     * Domain service built from the policies and specifications
+     */
+    POLICY,
+
+    /**
+     * Allocation-free engine working on primitive values
+     */
+    PRIMITIVE,
+
+    /**
+     * Allocation-free engine keeping money as whole cents, with explicit rounding
+     */
+    FIXED_POINT,
+
+    /**
+     * One position per ticker, lists split across the cores by ticker
+     */
+    PORTFOLIO,
+
+    /**
+     * Allocation-free engine walking whole batches of operations stored in columns, for bulk replays
+     */
+    COLUMNAR
+}
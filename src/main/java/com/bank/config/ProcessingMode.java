@@ -0,0 +1,27 @@
+package com.bank.config;
+
+/**
+ * Ways the CLI reads the input lines and writes their results
+ */
+public enum ProcessingMode {
+
+    /**
+     * Read every line until the end of the input, then calculate and print all the results
+     */
+    BUFFERED,
+
+    /**
+     * Calculate and print the result of each line as soon as it is read
+     */
+    STREAMING,
+
+    /**
+     * Calculate the lines on all the cores and print the results in input order
+     */
+    PARALLEL,
+
+    /**
+     * Parse, calculate and print on different threads connected by bounded buffers, printing the results in input order
+     */
+    PIPELINE
+}
@@ -0,0 +1,155 @@
+package com.bank.domain.entity;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Persistent, append-only list of the operations aggregated in a {@link StockTransaction}.
+ * <p>
+ * Every version is immutable: {@link #append(Object)} returns a new log and leaves the receiver untouched. Versions
+ * share a chunked store, so appending to the newest version is amortized O(1) and does not copy previous elements.
+ * Appending to an older version (a branch) copies only the chunk directory and the last partial chunk; full chunks
+ * are never written again and are shared between both branches.
+ * <p>
+ * Like any other object, a version handed to another thread has to be safely published.
+ *
+ * @param <E> Type of the aggregated elements
+ */
+public final class OperationLog<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int CHUNK_SHIFT = 5;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final OperationLog<?> EMPTY = new OperationLog<>(new Store(), 0);
+
+    /**
+     * Chunked storage shared by all the versions created by appending to the newest one
+     */
+    private final Store store;
+
+    /**
+     * Number of elements visible by this version
+     */
+    private final int size;
+
+    private OperationLog(Store store, int size) {
+        this.store = store;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> OperationLog<E> empty() {
+        return (OperationLog<E>) EMPTY;
+    }
+
+    /**
+     * Create a log holding the given elements, copied in bulk instead of appended one by one
+     *
+     * @param elements the elements of the log, in order
+     * @param <E>      Type of the aggregated elements
+     * @return a log that can be appended to like any other
+     */
+    public static <E> OperationLog<E> of(List<? extends E> elements) {
+        if (elements.isEmpty()) {
+            return empty();
+        }
+        Store store = new Store();
+        int chunkCount = ((elements.size() - 1) >>> CHUNK_SHIFT) + 1;
+        Object[][] directory = new Object[Math.max(4, Integer.highestOneBit(chunkCount) << 1)][];
+        for (int chunkIndex = 0; chunkIndex < chunkCount; chunkIndex++) {
+            directory[chunkIndex] = new Object[CHUNK_SIZE];
+        }
+        int index = 0;
+        for (E element : elements) {
+            if (Objects.isNull(element)) {
+                throw new IllegalArgumentException("A non-null element is needed to append");
+            }
+            directory[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = element;
+            index++;
+        }
+        store.chunks = directory;
+        store.size = index;
+        return new OperationLog<>(store, index);
+    }
+
+    /**
+     * Create a new version of the log with one more element at the end
+     *
+     * @param element the element to append
+     * @return the new version of the log, this version remains unchanged
+     */
+    public OperationLog<E> append(E element) {
+        if (Objects.isNull(element)) {
+            throw new IllegalArgumentException("A non-null element is needed to append");
+        }
+        if (this != EMPTY && store.appendIfTip(size, element)) {
+            return new OperationLog<>(store, size + 1);
+        }
+        Store branch = store.copyPrefix(size);
+        branch.appendIfTip(size, element);
+        return new OperationLog<>(branch, size + 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return (E) store.get(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private static final class Store {
+
+        private volatile Object[][] chunks = new Object[4][];
+        private int size;
+
+        /**
+         * Appends the element only when nobody has appended after the given version yet
+         */
+        synchronized boolean appendIfTip(int versionSize, Object element) {
+            if (versionSize != size) {
+                return false;
+            }
+            int chunkIndex = size >>> CHUNK_SHIFT;
+            Object[][] directory = chunks;
+            if (chunkIndex == directory.length) {
+                Object[][] grown = new Object[directory.length << 1][];
+                System.arraycopy(directory, 0, grown, 0, directory.length);
+                directory = grown;
+            }
+            if (directory[chunkIndex] == null) {
+                directory[chunkIndex] = new Object[CHUNK_SIZE];
+            }
+            directory[chunkIndex][size & CHUNK_MASK] = element;
+            chunks = directory;
+            size++;
+            return true;
+        }
+
+        Object get(int index) {
+            return chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+        }
+
+        synchronized Store copyPrefix(int prefixSize) {
+            Store copy = new Store();
+            int fullChunks = prefixSize >>> CHUNK_SHIFT;
+            Object[][] directory = new Object[Math.max(4, Integer.highestOneBit(fullChunks + 1) << 1)][];
+            System.arraycopy(chunks, 0, directory, 0, fullChunks);
+            int remainder = prefixSize & CHUNK_MASK;
+            if (remainder > 0) {
+                directory[fullChunks] = new Object[CHUNK_SIZE];
+                System.arraycopy(chunks[fullChunks], 0, directory[fullChunks], 0, remainder);
+            }
+            copy.chunks = directory;
+            copy.size = prefixSize;
+            return copy;
+        }
+    }
+}
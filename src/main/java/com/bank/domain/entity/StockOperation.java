@@ -28,12 +28,15 @@ public class StockOperation {
      */
     private Long quantity;
 
+    private static final Predicate<StockOperation> IS_SELL = p -> p.getOperationType() == OperationType.SELL;
+    private static final Predicate<StockOperation> IS_BUY = p -> p.getOperationType() == OperationType.BUY;
+
     public static Predicate <StockOperation> isSell(){
-        return p -> p.getOperationType() == OperationType.SELL;
+        return IS_SELL;
     }
 
     public static Predicate <StockOperation> isBuy(){
-        return p -> p.getOperationType() == OperationType.BUY;
+        return IS_BUY;
     }
 
 }
@@ -3,7 +3,6 @@ package com.bank.domain.entity;
 import com.bank.domain.valueobject.AbstractEntityStatus;
 import lombok.*;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -21,26 +20,31 @@ public class StockTransaction {
      * The current stock quantity
      */
 
+    @Builder.Default
     private Long currentStockQuantity = 0l;
 
     /**
      * Double that represent the weighted-average price, in a transaction with no operations, the value is 0
      */
+    @Builder.Default
     private Double weightedAveragePrice = 0d;
 
     /**
      * The total loss of this transaction
      */
+    @Builder.Default
     private Double totalLoss = 0d;
 
     /**
-     * The list of aggregated operations
+     * The list of aggregated operations, shared with the transactions this one was created from
      */
-    private List<AbstractEntityStatus> operationList;
+    @Builder.Default
+    private OperationLog<AbstractEntityStatus> operationList = OperationLog.empty();
 
 
     /**
      * Create a new reference of a transaction based on a pre-existing transaction.
+     * The operation list is not copied, the new transaction appends to it in amortized constant time.
      *
      * @param operationStatus       Is a representation of an operation made in the market to be added to a transaction
      * @param newWeightedAveragePrice is the new weighted-average price for this transaction
@@ -52,13 +56,54 @@ public class StockTransaction {
             throw new IllegalArgumentException("A non-null Stock operation is needed to add");
         }
 
-        ArrayList<AbstractEntityStatus> newOperationList = new ArrayList<>();
-        if(!Objects.isNull(operationList)){
-            newOperationList.addAll(operationList);
-        }
-        newOperationList.add(operationStatus);
+        return StockTransaction.builder().operationList(operationList.append(operationStatus)).weightedAveragePrice(newWeightedAveragePrice)
+                .totalLoss(totalLoss).currentStockQuantity(currentStockQuantity).build();
+    }
 
-        return StockTransaction.builder().operationList(newOperationList).weightedAveragePrice(newWeightedAveragePrice)
+    /**
+     * Create a transaction with no operations that starts from a previously calculated state
+     *
+     * @param currentStockQuantity the current stock quantity
+     * @param weightedAveragePrice the weighted-average price
+     * @param totalLoss            the total loss to deduct from future profits
+     * @return a transaction with the given state and no operations
+     */
+    public static StockTransaction fromState(Long currentStockQuantity, Double weightedAveragePrice, Double totalLoss) {
+        return StockTransaction.builder().operationList(OperationLog.empty()).weightedAveragePrice(weightedAveragePrice)
+                .totalLoss(totalLoss).currentStockQuantity(currentStockQuantity).build();
+    }
+
+    /**
+     * Create a transaction that aggregates the given operations and ends with a previously calculated state
+     *
+     * @param operationList        the aggregated operations, in order
+     * @param currentStockQuantity the current stock quantity
+     * @param weightedAveragePrice the weighted-average price
+     * @param totalLoss            the total loss to deduct from future profits
+     * @return a transaction with the given operations and state
+     */
+    public static StockTransaction fromOperations(List<? extends AbstractEntityStatus> operationList, Long currentStockQuantity,
+                                                  Double weightedAveragePrice, Double totalLoss) {
+        return StockTransaction.builder().operationList(OperationLog.of(operationList)).weightedAveragePrice(weightedAveragePrice)
                 .totalLoss(totalLoss).currentStockQuantity(currentStockQuantity).build();
     }
+
+    /**
+     * Create a transaction with the same state but without the aggregated operations, so they can be garbage collected
+     *
+     * @return a transaction with no operations
+     */
+    public StockTransaction withoutOperations() {
+        return fromState(currentStockQuantity, weightedAveragePrice, totalLoss);
+    }
+
+    /**
+     * @return the last aggregated operation
+     */
+    public AbstractEntityStatus getLastOperation() {
+        if (operationList.isEmpty()) {
+            throw new IllegalStateException("The transaction has no operations");
+        }
+        return operationList.get(operationList.size() - 1);
+    }
 }
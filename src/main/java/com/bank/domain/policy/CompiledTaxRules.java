@@ -0,0 +1,135 @@
+package com.bank.domain.policy;
+
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.valueobject.ErrorCode;
+import com.bank.domain.valueobject.ErrorStatus;
+import com.bank.domain.valueobject.OperationStatus;
+import com.bank.domain.valueobject.OperationType;
+import com.bank.domain.valueobject.Tax;
+import com.bank.domain.valueobject.TaxRules;
+
+/**
+ * The rules of {@link StockOperationCalculator} and {@link TaxesCalculator} compiled into one evaluator per
+ * {@link OperationType}.
+ * <p>
+ * The policies evaluate every specification for every operation, {@code OperationShouldPayTaxesSpecification} twice,
+ * and box every intermediate amount. Once the type of the operation is known most of those specifications are
+ * constant, so each evaluator only keeps what is left of them:
+ * <ul>
+ *     <li>a buy never pays taxes, it only updates the stock quantity and the weighted-average price</li>
+ *     <li>a sell pays taxes when there is enough stock, it makes a profit and its amount is above the exemption, and
+ *     its profit is deducted from the total loss only when the sell pays taxes</li>
+ * </ul>
+ * The evaluators are final classes with the thresholds of the {@link TaxRules} in final fields, so the call sites are
+ * monomorphic and the state is kept in primitives until the new transaction is created. The arithmetic follows the same
+ * steps and the same evaluation order as the policies, which makes the transactions identical.
+ * <p>
+ * This class is immutable and thread safe.
+ */
+public final class CompiledTaxRules {
+
+    private static final Tax NO_TAX = Tax.builder().tax(0d).build();
+
+    private final BuyRule buyRule;
+    private final SellRule sellRule;
+
+    private CompiledTaxRules(TaxRules taxRules) {
+        this.buyRule = new BuyRule();
+        this.sellRule = new SellRule(taxRules.getPercentageTaxToBeApplied() / 100, taxRules.getAmountExemptToPayTax());
+    }
+
+    /**
+     * @param taxRules the thresholds of the tax
+     * @return the evaluators of the rules with the given thresholds
+     */
+    public static CompiledTaxRules compile(TaxRules taxRules) {
+        return new CompiledTaxRules(taxRules);
+    }
+
+    /**
+     * Calculate the taxes of one operation given the transaction it belongs to
+     *
+     * @param stockOperation   the operation to process
+     * @param stockTransaction the transaction before the operation
+     * @return the transaction including the operation
+     */
+    public StockTransaction apply(StockOperation stockOperation, StockTransaction stockTransaction) {
+        OperationType operationType = stockOperation.getOperationType();
+        if (operationType == OperationType.SELL) {
+            return sellRule.apply(stockOperation, stockTransaction);
+        }
+        if (operationType == OperationType.BUY) {
+            return buyRule.apply(stockOperation, stockTransaction);
+        }
+        // Without a type the policies keep the quantity and the price and record a zero performance as a loss
+        return addOperation(stockTransaction, stockOperation, NO_TAX, stockTransaction.getWeightedAveragePrice(),
+                stockTransaction.getTotalLoss() + 0d, stockTransaction.getCurrentStockQuantity());
+    }
+
+    private static StockTransaction reject(StockTransaction stockTransaction) {
+        return stockTransaction.addOperation(ErrorStatus.of(ErrorCode.NOT_ENOUGH_STOCK),
+                stockTransaction.getWeightedAveragePrice(), stockTransaction.getTotalLoss(), stockTransaction.getCurrentStockQuantity());
+    }
+
+    private static StockTransaction addOperation(StockTransaction stockTransaction, StockOperation stockOperation, Tax tax,
+                                                 double weightedAveragePrice, double totalLoss, long currentStockQuantity) {
+        OperationStatus operationStatus = OperationStatus.builder().tax(tax).stockOperation(stockOperation).build();
+        return stockTransaction.addOperation(operationStatus, weightedAveragePrice, totalLoss, currentStockQuantity);
+    }
+
+    private static final class BuyRule {
+
+        StockTransaction apply(StockOperation stockOperation, StockTransaction stockTransaction) {
+            long currentStockQuantity = stockTransaction.getCurrentStockQuantity();
+            long quantity = stockOperation.getQuantity();
+            long newStockQuantity = currentStockQuantity + quantity;
+            if (newStockQuantity < 0) {
+                return reject(stockTransaction);
+            }
+            if (currentStockQuantity <= 0 && quantity <= 0) {
+                throw new IllegalArgumentException("Current stock quantity plus new stock quantity should be grater than zero");
+            }
+            double weightedAveragePrice = stockTransaction.getWeightedAveragePrice();
+            double newWeightedAveragePrice = ((currentStockQuantity * weightedAveragePrice) + (quantity * stockOperation.getUnitCost()))
+                    / (currentStockQuantity + quantity);
+            return addOperation(stockTransaction, stockOperation, NO_TAX, newWeightedAveragePrice, stockTransaction.getTotalLoss() + 0d, newStockQuantity);
+        }
+    }
+
+    private static final class SellRule {
+
+        private final double taxRate;
+        private final double amountExemptToPayTax;
+
+        private SellRule(double taxRate, double amountExemptToPayTax) {
+            this.taxRate = taxRate;
+            this.amountExemptToPayTax = amountExemptToPayTax;
+        }
+
+        StockTransaction apply(StockOperation stockOperation, StockTransaction stockTransaction) {
+            long quantity = stockOperation.getQuantity();
+            long newStockQuantity = stockTransaction.getCurrentStockQuantity() - quantity;
+            if (newStockQuantity < 0) {
+                return reject(stockTransaction);
+            }
+            double unitCost = stockOperation.getUnitCost();
+            double weightedAveragePrice = stockTransaction.getWeightedAveragePrice();
+            double totalLoss = stockTransaction.getTotalLoss();
+
+            double performance = quantity * (unitCost - weightedAveragePrice);
+            boolean shouldPayTaxes = quantity * unitCost > amountExemptToPayTax;
+
+            double newTotalLoss = totalLoss;
+            if (performance <= 0) {
+                newTotalLoss = totalLoss + performance;
+            } else if (totalLoss < 0 && shouldPayTaxes) {
+                newTotalLoss = totalLoss + performance < 0 ? totalLoss + performance : 0;
+                performance = performance + totalLoss > 0 ? performance + totalLoss : 0;
+            }
+
+            Tax tax = performance > 0 && shouldPayTaxes ? Tax.builder().tax(performance * taxRate).build() : NO_TAX;
+            return addOperation(stockTransaction, stockOperation, tax, weightedAveragePrice, newTotalLoss, newStockQuantity);
+        }
+    }
+}
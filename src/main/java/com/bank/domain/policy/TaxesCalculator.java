@@ -5,6 +5,7 @@ import com.bank.domain.specification.OperationShouldPayTaxesSpecification;
 import com.bank.domain.specification.PerformanceShouldPayTaxSpecification;
 import com.bank.domain.valueobject.OperationPerformance;
 import com.bank.domain.valueobject.Tax;
+import com.bank.domain.valueobject.TaxRules;
 import lombok.Builder;
 
 import java.util.Objects;
@@ -12,12 +13,26 @@ import java.util.Objects;
 /**
  * Policy clas to calculate all related to Taxes
  */
-@Builder
 public class TaxesCalculator {
 
-    private static final Double PERCENTAGE_TAX_TO_BE_APPLIED = 20d;
     private PerformanceShouldPayTaxSpecification performanceShouldPayTaxSpecification;
     private OperationShouldPayTaxesSpecification operationShouldPayTaxesSpecification;
+    private TaxRules taxRules;
+
+    TaxesCalculator(PerformanceShouldPayTaxSpecification performanceShouldPayTaxSpecification, OperationShouldPayTaxesSpecification operationShouldPayTaxesSpecification) {
+        this(performanceShouldPayTaxSpecification, operationShouldPayTaxesSpecification, null);
+    }
+
+    /**
+     * @param taxRules the thresholds of the tax, {@link TaxRules#DEFAULT} when null
+     */
+    @Builder
+    private TaxesCalculator(PerformanceShouldPayTaxSpecification performanceShouldPayTaxSpecification, OperationShouldPayTaxesSpecification operationShouldPayTaxesSpecification,
+                            TaxRules taxRules) {
+        this.performanceShouldPayTaxSpecification = performanceShouldPayTaxSpecification;
+        this.operationShouldPayTaxesSpecification = operationShouldPayTaxesSpecification;
+        this.taxRules = taxRules == null ? TaxRules.DEFAULT : taxRules;
+    }
 
     /**
      * Calculate tax given a performance
@@ -29,7 +44,7 @@ public class TaxesCalculator {
         Double taxToPay = !Objects.isNull(performance) && !Objects.isNull(stockOperation)
                 && performanceShouldPayTaxSpecification.isSatisfiedBy(performance)
                 && operationShouldPayTaxesSpecification.isSatisfiedBy(stockOperation)
-                ? performance.getAmount() * (PERCENTAGE_TAX_TO_BE_APPLIED / 100) : 0d;
+                ? performance.getAmount() * (taxRules.getPercentageTaxToBeApplied() / 100) : 0d;
         return Tax.builder().tax(taxToPay).build();
     }
 
@@ -0,0 +1,162 @@
+package com.bank.domain.service;
+
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.valueobject.OperationType;
+import com.bank.domain.valueobject.TaxRules;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Variant of the {@link PrimitiveStockOperationEngine} for bulk batches of operations stored in columns.
+ * <p>
+ * The primitive engine calculates a batch one call per operation, storing the state in its fields every time. This
+ * engine walks the whole batch in one loop keeping the state in local variables, stored back once per batch. The
+ * checks that do not depend on the state, the type of the operation and its notional {@code quantity * unitCost},
+ * which is both the buy-side product of the weighted average and the amount compared with the exemption, are
+ * screened at the start of each step, before the chain of the weighted average and the total loss, so the processor
+ * overlaps them with the previous operations. A separate screening pass writing them to columns was slower: the walk is
+ * bound by that chain, not by the screened values.
+ * <p>
+ * The weighted average and the deduction of the loss, through {@link LossDeduction}, follow the same steps as the
+ * primitive engine, which makes the taxes identical.
+ * This class is not thread safe, every simulation needs its own instance or a {@link #reset()} between uses.
+ */
+@Getter
+public class ColumnarStockOperationEngine implements OperationTaxEngine {
+
+    /**
+     * Fraction of the profit to be paid
+     */
+    private final double taxRate;
+
+    /**
+     * Amount up to which a sell does not pay taxes
+     */
+    private final double amountExemptToPayTax;
+
+    /**
+     * The current stock quantity
+     */
+    private long currentStockQuantity;
+
+    /**
+     * The weighted-average price, in a transaction with no operations, the value is 0
+     */
+    private double weightedAveragePrice;
+
+    /**
+     * The total loss of this transaction
+     */
+    private double totalLoss;
+
+    /**
+     * If the last processed operation was rejected because there was not enough stock
+     */
+    private boolean lastOperationRejected;
+
+    /**
+     * Columns of a single operation, so single operations are calculated by the same walk without allocating
+     */
+    @Getter(AccessLevel.NONE)
+    private final OperationType[] singleOperationType = new OperationType[1];
+    @Getter(AccessLevel.NONE)
+    private final double[] singleUnitCost = new double[1];
+    @Getter(AccessLevel.NONE)
+    private final long[] singleQuantity = new long[1];
+    @Getter(AccessLevel.NONE)
+    private final double[] singleTax = new double[1];
+    @Getter(AccessLevel.NONE)
+    private final boolean[] singleRejected = new boolean[1];
+
+    public ColumnarStockOperationEngine() {
+        this(TaxRules.DEFAULT);
+    }
+
+    /**
+     * @param taxRules the thresholds of the tax
+     */
+    public ColumnarStockOperationEngine(TaxRules taxRules) {
+        this.taxRate = taxRules.getPercentageTaxToBeApplied() / 100;
+        this.amountExemptToPayTax = taxRules.getAmountExemptToPayTax();
+    }
+
+    @Override
+    public void reset() {
+        currentStockQuantity = 0L;
+        weightedAveragePrice = 0d;
+        totalLoss = 0d;
+        lastOperationRejected = false;
+    }
+
+    @Override
+    public void restore(StockTransaction stockTransaction) {
+        currentStockQuantity = stockTransaction.getCurrentStockQuantity();
+        weightedAveragePrice = stockTransaction.getWeightedAveragePrice();
+        totalLoss = stockTransaction.getTotalLoss();
+        lastOperationRejected = false;
+    }
+
+    @Override
+    public StockTransaction toStockTransaction() {
+        return StockTransaction.fromState(currentStockQuantity, weightedAveragePrice, totalLoss);
+    }
+
+    @Override
+    public double calculateTax(OperationType operationType, double unitCost, long quantity) {
+        singleOperationType[0] = operationType;
+        singleUnitCost[0] = unitCost;
+        singleQuantity[0] = quantity;
+        calculateTaxes(singleOperationType, singleUnitCost, singleQuantity, 1, singleTax, singleRejected);
+        return singleTax[0];
+    }
+
+    @Override
+    public void calculateTaxes(OperationType[] operationTypes, double[] unitCosts, long[] quantities, int length, double[] taxes, boolean[] rejected) {
+        long currentStockQuantity = this.currentStockQuantity;
+        double weightedAveragePrice = this.weightedAveragePrice;
+        double totalLoss = this.totalLoss;
+        boolean lastOperationRejected = this.lastOperationRejected;
+        for (int i = 0; i < length; i++) {
+            OperationType operationType = operationTypes[i];
+            boolean isSell = operationType == OperationType.SELL;
+            boolean isBuy = operationType == OperationType.BUY;
+            long quantity = quantities[i];
+            double unitCost = unitCosts[i];
+            double notional = quantity * unitCost;
+
+            long newStockQuantity = isSell ? currentStockQuantity - quantity : isBuy ? currentStockQuantity + quantity : currentStockQuantity;
+            lastOperationRejected = newStockQuantity < 0;
+            rejected[i] = lastOperationRejected;
+            if (lastOperationRejected) {
+                taxes[i] = 0d;
+                continue;
+            }
+
+            if (isSell) {
+                double performance = quantity * (unitCost - weightedAveragePrice);
+                boolean shouldPayTaxes = notional > amountExemptToPayTax;
+                taxes[i] = LossDeduction.tax(totalLoss, performance, shouldPayTaxes, taxRate);
+                totalLoss = LossDeduction.totalLoss(totalLoss, performance, shouldPayTaxes);
+            } else {
+                if (isBuy) {
+                    if (currentStockQuantity <= 0 && quantity <= 0) {
+                        store(currentStockQuantity, weightedAveragePrice, totalLoss, false);
+                        throw new IllegalArgumentException("Current stock quantity plus new stock quantity should be grater than zero");
+                    }
+                    weightedAveragePrice = ((currentStockQuantity * weightedAveragePrice) + notional) / (currentStockQuantity + quantity);
+                }
+                totalLoss = LossDeduction.totalLoss(totalLoss, 0d, false);
+                taxes[i] = 0d;
+            }
+            currentStockQuantity = newStockQuantity;
+        }
+        store(currentStockQuantity, weightedAveragePrice, totalLoss, lastOperationRejected);
+    }
+
+    private void store(long currentStockQuantity, double weightedAveragePrice, double totalLoss, boolean lastOperationRejected) {
+        this.currentStockQuantity = currentStockQuantity;
+        this.weightedAveragePrice = weightedAveragePrice;
+        this.totalLoss = totalLoss;
+        this.lastOperationRejected = lastOperationRejected;
+    }
+}
@@ -0,0 +1,171 @@
+package com.bank.domain.service;
+
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.valueobject.OperationType;
+import com.bank.domain.valueobject.TaxRules;
+import lombok.Getter;
+
+/**
+ * Engine that keeps every amount of money as a whole number of cents in a {@code long}.
+ * <p>
+ * Unit costs have two decimal places, so they are converted to cents without loss and the sums, products and
+ * comparisons are exact. Only two divisions lose precision and both are rounded half up to the cent:
+ * <ul>
+ *     <li>the weighted-average price after a buy</li>
+ *     <li>the tax of a profit</li>
+ * </ul>
+ * Long sequences therefore do not accumulate floating point drift. Amounts that do not fit in a {@code long} of cents
+ * throw an {@link ArithmeticException} instead of overflowing.
+ * <p>
+ * This class is not thread safe, every simulation needs its own instance or a {@link #reset()} between uses.
+ */
+@Getter
+public class FixedPointStockOperationEngine implements OperationTaxEngine {
+
+    public static final long CENTS_PER_UNIT = 100L;
+
+    private static final long BASIS_POINTS_PER_UNIT = 10_000L;
+
+    /**
+     * Fraction of the profit to be paid in basis points, the percentage is rounded to two decimal places
+     */
+    private final long taxRateInBasisPoints;
+
+    /**
+     * Amount up to which a sell does not pay taxes, in cents
+     */
+    private final long amountExemptToPayTaxInCents;
+
+    /**
+     * The current stock quantity
+     */
+    private long currentStockQuantity;
+
+    /**
+     * The weighted-average price in cents, in a transaction with no operations, the value is 0
+     */
+    private long weightedAveragePriceInCents;
+
+    /**
+     * The total loss of this transaction in cents
+     */
+    private long totalLossInCents;
+
+    /**
+     * If the last processed operation was rejected because there was not enough stock
+     */
+    private boolean lastOperationRejected;
+
+    public FixedPointStockOperationEngine() {
+        this(TaxRules.DEFAULT);
+    }
+
+    /**
+     * @param taxRules the thresholds of the tax
+     */
+    public FixedPointStockOperationEngine(TaxRules taxRules) {
+        this.taxRateInBasisPoints = Math.round(taxRules.getPercentageTaxToBeApplied() * 100);
+        this.amountExemptToPayTaxInCents = toCents(taxRules.getAmountExemptToPayTax());
+    }
+
+    @Override
+    public void reset() {
+        currentStockQuantity = 0L;
+        weightedAveragePriceInCents = 0L;
+        totalLossInCents = 0L;
+        lastOperationRejected = false;
+    }
+
+    @Override
+    public void restore(StockTransaction stockTransaction) {
+        currentStockQuantity = stockTransaction.getCurrentStockQuantity();
+        weightedAveragePriceInCents = toCents(stockTransaction.getWeightedAveragePrice());
+        totalLossInCents = toCents(stockTransaction.getTotalLoss());
+        lastOperationRejected = false;
+    }
+
+    @Override
+    public StockTransaction toStockTransaction() {
+        return StockTransaction.fromState(currentStockQuantity, toUnits(weightedAveragePriceInCents), toUnits(totalLossInCents));
+    }
+
+    @Override
+    public double calculateTax(OperationType operationType, double unitCost, long quantity) {
+        return toUnits(calculateTaxInCents(operationType, toCents(unitCost), quantity));
+    }
+
+    /**
+     * Process one operation and update the transaction state
+     *
+     * @param operationType   type of the operation
+     * @param unitCostInCents the stock's unit cost in cents
+     * @param quantity        the quantity of stocks negotiated
+     * @return the tax to pay for the operation in cents
+     */
+    public long calculateTaxInCents(OperationType operationType, long unitCostInCents, long quantity) {
+        boolean isSell = operationType == OperationType.SELL;
+        boolean isBuy = operationType == OperationType.BUY;
+
+        long newStockQuantity = isSell ? currentStockQuantity - quantity : isBuy ? Math.addExact(currentStockQuantity, quantity) : currentStockQuantity;
+        if (newStockQuantity < 0) {
+            lastOperationRejected = true;
+            return 0L;
+        }
+        lastOperationRejected = false;
+
+        long newWeightedAveragePriceInCents = weightedAveragePriceInCents;
+        if (isBuy) {
+            if (currentStockQuantity <= 0 && quantity <= 0) {
+                throw new IllegalArgumentException("Current stock quantity plus new stock quantity should be grater than zero");
+            }
+            long totalCost = Math.addExact(Math.multiplyExact(currentStockQuantity, weightedAveragePriceInCents), Math.multiplyExact(quantity, unitCostInCents));
+            newWeightedAveragePriceInCents = divideRoundingHalfUp(totalCost, newStockQuantity);
+        }
+
+        long performance = isSell ? Math.multiplyExact(quantity, unitCostInCents - weightedAveragePriceInCents) : 0L;
+        boolean shouldPayTaxes = isSell && Math.multiplyExact(quantity, unitCostInCents) > amountExemptToPayTaxInCents;
+
+        long newTotalLoss = totalLossInCents;
+        if (performance <= 0) {
+            newTotalLoss = Math.addExact(totalLossInCents, performance);
+        } else if (totalLossInCents < 0 && shouldPayTaxes) {
+            newTotalLoss = Math.min(totalLossInCents + performance, 0L);
+            performance = Math.max(performance + totalLossInCents, 0L);
+        }
+
+        long tax = performance > 0 && shouldPayTaxes ? divideRoundingHalfUp(Math.multiplyExact(performance, taxRateInBasisPoints), BASIS_POINTS_PER_UNIT) : 0L;
+
+        currentStockQuantity = newStockQuantity;
+        weightedAveragePriceInCents = newWeightedAveragePriceInCents;
+        totalLossInCents = newTotalLoss;
+        return tax;
+    }
+
+    /**
+     * @param amount an amount with at most two decimal places
+     * @return the amount in cents
+     */
+    public static long toCents(double amount) {
+        return Math.round(amount * CENTS_PER_UNIT);
+    }
+
+    /**
+     * @param amountInCents an amount in cents
+     * @return the amount in currency units
+     */
+    public static double toUnits(long amountInCents) {
+        return (double) amountInCents / CENTS_PER_UNIT;
+    }
+
+    /**
+     * Divides rounding to the nearest integer, and away from zero when it is exactly halfway
+     */
+    static long divideRoundingHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) >= divisor - Math.abs(remainder)) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,47 @@
+package com.bank.domain.service;
+
+/**
+ * The deduction of the accumulated loss from the performance of an operation, shared by the engines working in doubles
+ * so a change of the rule applies to all of them.
+ * <p>
+ * A loss, or a zero performance, is added to the total loss. A profit is deducted from the total loss only when the
+ * operation pays taxes, and only the rest of the profit is taxed. The policies also deduct the new total loss from the
+ * performance afterwards, but only for operations that do not pay taxes, so it never changes a tax and is left out.
+ * <p>
+ * The engines first compute the tax from the total loss before the operation, then the new total loss.
+ */
+final class LossDeduction {
+
+    private LossDeduction() {
+    }
+
+    /**
+     * @param totalLoss      the total loss before the operation
+     * @param performance    the performance of the operation, 0 for operations other than sells
+     * @param shouldPayTaxes if the operation is a sell above the exemption
+     * @param taxRate        fraction of the profit to be paid
+     * @return the tax of the operation
+     */
+    static double tax(double totalLoss, double performance, boolean shouldPayTaxes, double taxRate) {
+        if (performance > 0 && totalLoss < 0 && shouldPayTaxes) {
+            performance = performance + totalLoss > 0 ? performance + totalLoss : 0;
+        }
+        return performance > 0 && shouldPayTaxes ? performance * taxRate : 0d;
+    }
+
+    /**
+     * @param totalLoss      the total loss before the operation
+     * @param performance    the performance of the operation, 0 for operations other than sells
+     * @param shouldPayTaxes if the operation is a sell above the exemption
+     * @return the total loss after the operation
+     */
+    static double totalLoss(double totalLoss, double performance, boolean shouldPayTaxes) {
+        if (performance <= 0) {
+            return totalLoss + performance;
+        }
+        if (totalLoss < 0 && shouldPayTaxes) {
+            return totalLoss + performance < 0 ? totalLoss + performance : 0;
+        }
+        return totalLoss;
+    }
+}
@@ -0,0 +1,60 @@
+package com.bank.domain.service;
+
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.valueobject.OperationType;
+
+/**
+ * Engine that calculates the taxes of a simulation one operation at a time, keeping the transaction state itself.
+ * Implementations are not thread safe.
+ */
+public interface OperationTaxEngine {
+
+    /**
+     * Process one operation and update the transaction state
+     *
+     * @param operationType type of the operation
+     * @param unitCost      the stock's unit cost
+     * @param quantity      the quantity of stocks negotiated
+     * @return the tax to pay for the operation
+     */
+    double calculateTax(OperationType operationType, double unitCost, long quantity);
+
+    /**
+     * @return if the last processed operation was rejected because there was not enough stock
+     */
+    boolean isLastOperationRejected();
+
+    /**
+     * Go back to the state of a transaction with no operations
+     */
+    void reset();
+
+    /**
+     * Continue from the state of a previously calculated transaction
+     *
+     * @param stockTransaction the transaction whose state is restored, its operations are ignored
+     */
+    void restore(StockTransaction stockTransaction);
+
+    /**
+     * @return the current state of the engine as a transaction with no operations
+     */
+    StockTransaction toStockTransaction();
+
+    /**
+     * Calculate the taxes of a sequence of operations stored in columns
+     *
+     * @param operationTypes type of each operation
+     * @param unitCosts      unit cost of each operation
+     * @param quantities     quantity of each operation
+     * @param length         number of operations to process
+     * @param taxes          receives the tax to pay for each operation
+     * @param rejected       receives if each operation was rejected because there was not enough stock
+     */
+    default void calculateTaxes(OperationType[] operationTypes, double[] unitCosts, long[] quantities, int length, double[] taxes, boolean[] rejected) {
+        for (int i = 0; i < length; i++) {
+            taxes[i] = calculateTax(operationTypes[i], unitCosts[i], quantities[i]);
+            rejected[i] = isLastOperationRejected();
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.bank.domain.service;
+
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.valueobject.AbstractEntityStatus;
+import com.bank.domain.valueobject.ErrorCode;
+import com.bank.domain.valueobject.ErrorStatus;
+import com.bank.domain.valueobject.OperationStatus;
+import com.bank.domain.valueobject.OperationType;
+import com.bank.domain.valueobject.Tax;
+import com.bank.domain.valueobject.TaxRules;
+import lombok.Builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Calculates one very long list of operations on every core of a {@link ForkJoinPool}, with the same transaction as
+ * {@link StockOperationService}.
+ * <p>
+ * The list is split in chunks and scanned in phases, the parallel ones running one task per chunk:
+ * <ol>
+ *     <li>parallel: the net quantity of every chunk and the lowest quantity reached inside it</li>
+ *     <li>sequential, per chunk: the starting quantity of every chunk. A chunk that could sell more stocks than
+ *     available is scanned again to find its rejected operations</li>
+ *     <li>parallel: the rejected operations and the weighted-average price. A buy with no stocks left sets the price
+ *     from the buy alone, so the price after the first one of each chunk is calculated without knowing the chunk
+ *     start</li>
+ *     <li>sequential: the price before that first buy, carried from the previous chunk</li>
+ *     <li>sequential: the total loss carried forward and the taxes, a few arithmetic operations per operation over
+ *     arrays of primitives</li>
+ *     <li>parallel: the status of every operation</li>
+ * </ol>
+ * The weighted-average price and the total loss are floating point recurrences, whose composition is not associative,
+ * so they are never combined across chunks: every amount is calculated with the same operations, in the same order,
+ * as the sequential engine, which makes the taxes and the final state identical.
+ * <p>
+ * This class is immutable and thread safe.
+ */
+public class ParallelScanStockOperationEngine {
+
+    private static final Tax NO_TAX = Tax.builder().tax(0d).build();
+
+    private static final byte REJECTED = 0;
+    private static final byte NO_PERFORMANCE = 1;
+    private static final byte SELL = 2;
+    private static final byte TAXABLE_SELL = 3;
+
+    private final ForkJoinPool forkJoinPool;
+    private final int chunkSize;
+    private final double taxRate;
+    private final double amountExemptToPayTax;
+
+    /**
+     * @param forkJoinPool pool calculating the chunks, the common pool by default
+     * @param chunkSize    operations per chunk, 65536 by default
+     * @param taxRules     thresholds of the tax, {@link TaxRules#DEFAULT} by default
+     */
+    @Builder
+    private ParallelScanStockOperationEngine(ForkJoinPool forkJoinPool, Integer chunkSize, TaxRules taxRules) {
+        this.forkJoinPool = forkJoinPool == null ? ForkJoinPool.commonPool() : forkJoinPool;
+        this.chunkSize = chunkSize == null ? 1 << 16 : chunkSize;
+        if (this.chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunks need a positive number of operations");
+        }
+        TaxRules rules = taxRules == null ? TaxRules.DEFAULT : taxRules;
+        this.taxRate = rules.getPercentageTaxToBeApplied() / 100;
+        this.amountExemptToPayTax = rules.getAmountExemptToPayTax();
+    }
+
+    /**
+     * Calculate all taxes for each transaction given a list of transaction
+     *
+     * @param stockOperationList the list of transactions
+     * @return the same transaction as {@link StockOperationService#processOperation(List)}
+     */
+    public StockTransaction processOperation(List<StockOperation> stockOperationList) {
+        return processOperation(stockOperationList, new StockTransaction());
+    }
+
+    /**
+     * Calculate all taxes for each transaction given a list of transaction and the transaction they continue
+     *
+     * @param stockOperationList      the list of new transactions
+     * @param initialStockTransaction the transaction before the new operations
+     * @return the same transaction as {@link StockOperationService#processOperation(List, StockTransaction)}
+     */
+    public StockTransaction processOperation(List<StockOperation> stockOperationList, StockTransaction initialStockTransaction) {
+        Scan scan = new Scan(stockOperationList.toArray(new StockOperation[0]), initialStockTransaction);
+
+        forEachChunk(scan.chunkCount, scan::sumQuantities);
+        scan.fixStartQuantities();
+        forEachChunk(scan.chunkCount, scan::scanWeightedAveragePrice);
+        scan.checkBuys();
+        scan.fixWeightedAveragePrices();
+        scan.calculateTaxes();
+        forEachChunk(scan.chunkCount, scan::createStatuses);
+
+        List<AbstractEntityStatus> operationList = new ArrayList<>(initialStockTransaction.getOperationList().size() + scan.operations.length);
+        operationList.addAll(initialStockTransaction.getOperationList());
+        operationList.addAll(Arrays.asList(scan.statuses));
+        return StockTransaction.fromOperations(operationList, scan.currentStockQuantity, scan.weightedAveragePrice, scan.totalLoss);
+    }
+
+    private void forEachChunk(int chunkCount, IntConsumer chunkAction) {
+        if (chunkCount == 1) {
+            chunkAction.accept(0);
+        } else if (chunkCount > 1) {
+            forkJoinPool.invoke(new ChunkAction(0, chunkCount, chunkAction));
+        }
+    }
+
+    /**
+     * State of the calculation of one list
+     */
+    private final class Scan {
+
+        private final StockOperation[] operations;
+        private final int chunkCount;
+
+        private final long[] netQuantities;
+        private final long[] lowestQuantities;
+        private final long[] startQuantities;
+        private final int[] firstBuysWithoutStock;
+        private final double[] endWeightedAveragePrices;
+        private final int[] invalidBuys;
+
+        /**
+         * Kind of every operation, see the constants
+         */
+        private final byte[] kinds;
+
+        /**
+         * Performance of every sell, replaced by the tax of every operation
+         */
+        private final double[] amounts;
+        private final AbstractEntityStatus[] statuses;
+
+        private long currentStockQuantity;
+        private double weightedAveragePrice;
+        private double totalLoss;
+
+        private Scan(StockOperation[] operations, StockTransaction initialStockTransaction) {
+            this.operations = operations;
+            this.chunkCount = (int) ((operations.length + (long) chunkSize - 1) / chunkSize);
+            this.netQuantities = new long[chunkCount];
+            this.lowestQuantities = new long[chunkCount];
+            this.startQuantities = new long[chunkCount];
+            this.firstBuysWithoutStock = new int[chunkCount];
+            this.endWeightedAveragePrices = new double[chunkCount];
+            this.invalidBuys = new int[chunkCount];
+            this.kinds = new byte[operations.length];
+            this.amounts = new double[operations.length];
+            this.statuses = new AbstractEntityStatus[operations.length];
+            this.currentStockQuantity = initialStockTransaction.getCurrentStockQuantity();
+            this.weightedAveragePrice = initialStockTransaction.getWeightedAveragePrice();
+            this.totalLoss = initialStockTransaction.getTotalLoss();
+        }
+
+        private int chunkStart(int chunk) {
+            return chunk * chunkSize;
+        }
+
+        private int chunkEnd(int chunk) {
+            return (int) Math.min(operations.length, (long) chunkStart(chunk) + chunkSize);
+        }
+
+        void sumQuantities(int chunk) {
+            long netQuantity = 0L;
+            long lowestQuantity = 0L;
+            for (int i = chunkStart(chunk); i < chunkEnd(chunk); i++) {
+                netQuantity += quantityChange(operations[i]);
+                lowestQuantity = Math.min(lowestQuantity, netQuantity);
+            }
+            netQuantities[chunk] = netQuantity;
+            lowestQuantities[chunk] = lowestQuantity;
+        }
+
+        void fixStartQuantities() {
+            long stockQuantity = currentStockQuantity;
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                startQuantities[chunk] = stockQuantity;
+                if (stockQuantity + lowestQuantities[chunk] >= 0) {
+                    stockQuantity += netQuantities[chunk];
+                } else {
+                    for (int i = chunkStart(chunk); i < chunkEnd(chunk); i++) {
+                        long newStockQuantity = stockQuantity + quantityChange(operations[i]);
+                        if (newStockQuantity >= 0) {
+                            stockQuantity = newStockQuantity;
+                        }
+                    }
+                }
+            }
+            currentStockQuantity = stockQuantity;
+        }
+
+        /**
+         * Classifies the operations of a chunk and calculates the weighted-average price from its first buy without
+         * stocks, assuming the price before it multiplied by no stocks is zero, which {@link #fixWeightedAveragePrices()}
+         * checks
+         */
+        void scanWeightedAveragePrice(int chunk) {
+            long stockQuantity = startQuantities[chunk];
+            double price = 0d;
+            boolean priceKnown = false;
+            firstBuysWithoutStock[chunk] = chunkEnd(chunk);
+            invalidBuys[chunk] = -1;
+            for (int i = chunkStart(chunk); i < chunkEnd(chunk); i++) {
+                StockOperation stockOperation = operations[i];
+                long quantity = stockOperation.getQuantity();
+                long newStockQuantity = stockQuantity + quantityChange(stockOperation);
+                if (newStockQuantity < 0) {
+                    kinds[i] = REJECTED;
+                    continue;
+                }
+                OperationType operationType = stockOperation.getOperationType();
+                if (operationType == OperationType.SELL) {
+                    kinds[i] = quantity * stockOperation.getUnitCost() > amountExemptToPayTax ? TAXABLE_SELL : SELL;
+                    if (priceKnown) {
+                        amounts[i] = quantity * (stockOperation.getUnitCost() - price);
+                    }
+                } else {
+                    kinds[i] = NO_PERFORMANCE;
+                    if (operationType == OperationType.BUY) {
+                        if (stockQuantity <= 0 && quantity <= 0) {
+                            invalidBuys[chunk] = i;
+                            return;
+                        }
+                        if (!priceKnown && stockQuantity == 0L) {
+                            firstBuysWithoutStock[chunk] = i;
+                            priceKnown = true;
+                        }
+                        if (priceKnown) {
+                            price = ((stockQuantity * price) + (quantity * stockOperation.getUnitCost())) / (stockQuantity + quantity);
+                        }
+                    }
+                }
+                stockQuantity = newStockQuantity;
+            }
+            endWeightedAveragePrices[chunk] = price;
+        }
+
+        void checkBuys() {
+            for (int invalidBuy : invalidBuys) {
+                if (invalidBuy >= 0) {
+                    throw new IllegalArgumentException("Current stock quantity plus new stock quantity should be grater than zero");
+                }
+            }
+        }
+
+        void fixWeightedAveragePrices() {
+            double price = weightedAveragePrice;
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                int firstBuyWithoutStock = firstBuysWithoutStock[chunk];
+                price = scanWeightedAveragePrice(chunkStart(chunk), firstBuyWithoutStock, startQuantities[chunk], price);
+                if (firstBuyWithoutStock < chunkEnd(chunk)) {
+                    if (Double.doubleToRawLongBits(0L * price) == 0L) {
+                        price = endWeightedAveragePrices[chunk];
+                    } else {
+                        price = scanWeightedAveragePrice(firstBuyWithoutStock, chunkEnd(chunk), 0L, price);
+                    }
+                }
+            }
+            weightedAveragePrice = price;
+        }
+
+        private double scanWeightedAveragePrice(int from, int to, long stockQuantity, double price) {
+            for (int i = from; i < to; i++) {
+                if (kinds[i] == REJECTED) {
+                    continue;
+                }
+                StockOperation stockOperation = operations[i];
+                long quantity = stockOperation.getQuantity();
+                if (stockOperation.getOperationType() == OperationType.SELL) {
+                    amounts[i] = quantity * (stockOperation.getUnitCost() - price);
+                } else if (stockOperation.getOperationType() == OperationType.BUY) {
+                    price = ((stockQuantity * price) + (quantity * stockOperation.getUnitCost())) / (stockQuantity + quantity);
+                }
+                stockQuantity += quantityChange(stockOperation);
+            }
+            return price;
+        }
+
+        void calculateTaxes() {
+            double loss = totalLoss;
+            for (int i = 0; i < operations.length; i++) {
+                byte kind = kinds[i];
+                if (kind == REJECTED) {
+                    continue;
+                }
+                if (kind == NO_PERFORMANCE) {
+                    loss = LossDeduction.totalLoss(loss, 0d, false);
+                    amounts[i] = 0d;
+                    continue;
+                }
+                double performance = amounts[i];
+                boolean shouldPayTaxes = kind == TAXABLE_SELL;
+                amounts[i] = LossDeduction.tax(loss, performance, shouldPayTaxes, taxRate);
+                loss = LossDeduction.totalLoss(loss, performance, shouldPayTaxes);
+            }
+            totalLoss = loss;
+        }
+
+        void createStatuses(int chunk) {
+            for (int i = chunkStart(chunk); i < chunkEnd(chunk); i++) {
+                if (kinds[i] == REJECTED) {
+                    statuses[i] = ErrorStatus.of(ErrorCode.NOT_ENOUGH_STOCK);
+                } else {
+                    Tax tax = amounts[i] == 0d ? NO_TAX : Tax.builder().tax(amounts[i]).build();
+                    statuses[i] = OperationStatus.builder().tax(tax).stockOperation(operations[i]).build();
+                }
+            }
+        }
+    }
+
+    private static long quantityChange(StockOperation stockOperation) {
+        OperationType operationType = stockOperation.getOperationType();
+        if (operationType == OperationType.SELL) {
+            return -stockOperation.getQuantity();
+        }
+        return operationType == OperationType.BUY ? stockOperation.getQuantity() : 0L;
+    }
+
+    /**
+     * Runs the action of a range of chunks, splitting the range in halves until there is one chunk per task
+     */
+    private static final class ChunkAction extends RecursiveAction {
+
+        private final int fromChunk;
+        private final int toChunk;
+        private final IntConsumer chunkAction;
+
+        private ChunkAction(int fromChunk, int toChunk, IntConsumer chunkAction) {
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+            this.chunkAction = chunkAction;
+        }
+
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk == 1) {
+                chunkAction.accept(fromChunk);
+                return;
+            }
+            int middleChunk = (fromChunk + toChunk) >>> 1;
+            invokeAll(new ChunkAction(fromChunk, middleChunk, chunkAction), new ChunkAction(middleChunk, toChunk, chunkAction));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.bank.domain.service;
+
+import com.bank.domain.valueobject.OperationType;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Calculates the taxes of a portfolio where every symbol has its own stock quantity, weighted-average price and
+ * loss pool.
+ * <p>
+ * Symbols are identified by dense int ids assigned by the caller, and the state of each symbol is an
+ * {@link OperationTaxEngine} stored in an array indexed by that id, so looking up a symbol costs one array access.
+ * Operations of different symbols are independent, a caller can split the symbols between several instances and
+ * process them concurrently as long as every symbol keeps its order.
+ * <p>
+ * This class is not thread safe.
+ */
+public class PortfolioStockOperationEngine {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Supplier<OperationTaxEngine> operationTaxEngineSupplier;
+
+    private OperationTaxEngine[] engines = new OperationTaxEngine[INITIAL_CAPACITY];
+
+    private boolean lastOperationRejected;
+
+    public PortfolioStockOperationEngine(Supplier<OperationTaxEngine> operationTaxEngineSupplier) {
+        this.operationTaxEngineSupplier = operationTaxEngineSupplier;
+    }
+
+    /**
+     * @param symbolId the id of the symbol, non-negative
+     * @return the engine keeping the state of the symbol, created on first use
+     */
+    public OperationTaxEngine getEngine(int symbolId) {
+        if (symbolId >= engines.length) {
+            engines = Arrays.copyOf(engines, Math.max(engines.length << 1, symbolId + 1));
+        }
+        OperationTaxEngine engine = engines[symbolId];
+        if (engine == null) {
+            engine = operationTaxEngineSupplier.get();
+            engines[symbolId] = engine;
+        }
+        return engine;
+    }
+
+    /**
+     * Calculates the tax of one operation with the state of its symbol
+     *
+     * @return the tax to pay, 0 when the operation is rejected
+     */
+    public double calculateTax(int symbolId, OperationType operationType, double unitCost, long quantity) {
+        OperationTaxEngine engine = getEngine(symbolId);
+        double tax = engine.calculateTax(operationType, unitCost, quantity);
+        lastOperationRejected = engine.isLastOperationRejected();
+        return tax;
+    }
+
+    /**
+     * @return if the last operation was rejected because its symbol had not enough stock
+     */
+    public boolean isLastOperationRejected() {
+        return lastOperationRejected;
+    }
+
+    /**
+     * Calculates the taxes of the selected operations of the columns, in the order of the selection
+     *
+     * @param symbolIds      the symbol of each operation
+     * @param operationTypes the type of each operation
+     * @param unitCosts      the unit cost of each operation
+     * @param quantities     the quantity of each operation
+     * @param indexes        positions of the operations to calculate
+     * @param indexCount     number of valid positions in {@code indexes}
+     * @param taxes          receives the tax of each calculated operation at its position
+     * @param rejected       receives if each calculated operation was rejected at its position
+     */
+    public void calculateTaxes(int[] symbolIds, OperationType[] operationTypes, double[] unitCosts, long[] quantities,
+                               int[] indexes, int indexCount, double[] taxes, boolean[] rejected) {
+        for (int i = 0; i < indexCount; i++) {
+            int index = indexes[i];
+            taxes[index] = calculateTax(symbolIds[index], operationTypes[index], unitCosts[index], quantities[index]);
+            rejected[index] = lastOperationRejected;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.bank.domain.service;
+
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.valueobject.OperationType;
+import com.bank.domain.valueobject.TaxRules;
+import lombok.Getter;
+
+/**
+ * Allocation-free alternative to {@link StockOperationService}.
+ * <p>
+ * The transaction state is kept in primitive fields and the taxes are written into arrays provided by the caller, so
+ * no object is created per operation. The arithmetic follows the same steps and the same evaluation order as
+ * {@link com.bank.domain.policy.StockOperationCalculator} and {@link com.bank.domain.policy.TaxesCalculator}, which
+ * makes the taxes identical to the ones calculated by {@link StockOperationService}.
+ * <p>
+ * This class is not thread safe, every simulation needs its own instance or a {@link #reset()} between uses.
+ */
+@Getter
+public class PrimitiveStockOperationEngine implements OperationTaxEngine {
+
+    /**
+     * Fraction of the profit to be paid
+     */
+    private final double taxRate;
+
+    /**
+     * Amount up to which a sell does not pay taxes
+     */
+    private final double amountExemptToPayTax;
+
+    /**
+     * The current stock quantity
+     */
+    private long currentStockQuantity;
+
+    /**
+     * The weighted-average price, in a transaction with no operations, the value is 0
+     */
+    private double weightedAveragePrice;
+
+    /**
+     * The total loss of this transaction
+     */
+    private double totalLoss;
+
+    /**
+     * If the last processed operation was rejected because there was not enough stock
+     */
+    private boolean lastOperationRejected;
+
+    public PrimitiveStockOperationEngine() {
+        this(TaxRules.DEFAULT);
+    }
+
+    /**
+     * @param taxRules the thresholds of the tax
+     */
+    public PrimitiveStockOperationEngine(TaxRules taxRules) {
+        this.taxRate = taxRules.getPercentageTaxToBeApplied() / 100;
+        this.amountExemptToPayTax = taxRules.getAmountExemptToPayTax();
+    }
+
+    @Override
+    public void reset() {
+        currentStockQuantity = 0L;
+        weightedAveragePrice = 0d;
+        totalLoss = 0d;
+        lastOperationRejected = false;
+    }
+
+    @Override
+    public void restore(StockTransaction stockTransaction) {
+        currentStockQuantity = stockTransaction.getCurrentStockQuantity();
+        weightedAveragePrice = stockTransaction.getWeightedAveragePrice();
+        totalLoss = stockTransaction.getTotalLoss();
+        lastOperationRejected = false;
+    }
+
+    @Override
+    public StockTransaction toStockTransaction() {
+        return StockTransaction.fromState(currentStockQuantity, weightedAveragePrice, totalLoss);
+    }
+
+    @Override
+    public double calculateTax(OperationType operationType, double unitCost, long quantity) {
+        boolean isSell = operationType == OperationType.SELL;
+        boolean isBuy = operationType == OperationType.BUY;
+
+        long newStockQuantity = isSell ? currentStockQuantity - quantity : isBuy ? currentStockQuantity + quantity : currentStockQuantity;
+        if (newStockQuantity < 0) {
+            lastOperationRejected = true;
+            return 0d;
+        }
+        lastOperationRejected = false;
+
+        double newWeightedAveragePrice = weightedAveragePrice;
+        if (isBuy) {
+            if (currentStockQuantity <= 0 && quantity <= 0) {
+                throw new IllegalArgumentException("Current stock quantity plus new stock quantity should be grater than zero");
+            }
+            newWeightedAveragePrice = ((currentStockQuantity * weightedAveragePrice) + (quantity * unitCost)) / (currentStockQuantity + quantity);
+        }
+
+        double performance = isSell ? quantity * (unitCost - weightedAveragePrice) : 0d;
+        boolean shouldPayTaxes = isSell && quantity * unitCost > amountExemptToPayTax;
+
+        double tax = LossDeduction.tax(totalLoss, performance, shouldPayTaxes, taxRate);
+        double newTotalLoss = LossDeduction.totalLoss(totalLoss, performance, shouldPayTaxes);
+
+        currentStockQuantity = newStockQuantity;
+        weightedAveragePrice = newWeightedAveragePrice;
+        totalLoss = newTotalLoss;
+        return tax;
+    }
+}
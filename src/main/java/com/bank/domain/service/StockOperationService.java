@@ -2,6 +2,7 @@ package com.bank.domain.service;
 
 import com.bank.domain.entity.StockOperation;
 import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.policy.CompiledTaxRules;
 import com.bank.domain.policy.StockOperationCalculator;
 import com.bank.domain.policy.TaxesCalculator;
 import com.bank.domain.specification.EnoughStockQuantitySpecification;
@@ -12,7 +13,9 @@ import lombok.Builder;
 import java.util.List;
 
 /**
- * Main service to calculate the taxes given one operation
+ * Main service to calculate the taxes given one operation.
+ * When compiled tax rules are given they replace the evaluation of the policies and specifications, calculating the
+ * same transactions.
  */
 @Builder
 public class StockOperationService {
@@ -21,6 +24,7 @@ public class StockOperationService {
     private final StockOperationCalculator stockOperationCalculator;
     private final OperationShouldRecalculateWeightedAverage operationShouldRecalculateWeightedAverage;
     private final EnoughStockQuantitySpecification enoughStockQuantitySpecification;
+    private final CompiledTaxRules compiledTaxRules;
 
     /**
      * Calculate all taxes for each transaction given a list of transaction
@@ -29,7 +33,19 @@ public class StockOperationService {
      * @return the list of taxes to pay
      */
     public StockTransaction processOperation(List<StockOperation> stockOperationList) {
-        StockTransaction stockTransaction = new StockTransaction();
+        return processOperation(stockOperationList, new StockTransaction());
+    }
+
+    /**
+     * Calculate all taxes for each transaction given a list of transaction and the transaction they continue,
+     * so only the new operations are processed
+     *
+     * @param stockOperationList      the list of new transactions
+     * @param initialStockTransaction the transaction before the new operations, e.g. restored from a checkpoint
+     * @return the transaction including the new operations
+     */
+    public StockTransaction processOperation(List<StockOperation> stockOperationList, StockTransaction initialStockTransaction) {
+        StockTransaction stockTransaction = initialStockTransaction;
         for (StockOperation stockOperation :
                 stockOperationList) {
             stockTransaction = calculateTaxesForAOperation(stockOperation, stockTransaction);
@@ -38,12 +54,26 @@ public class StockOperationService {
         return stockTransaction;
     }
 
+    /**
+     * Calculate the taxes of one operation given the transaction it belongs to
+     *
+     * @param stockOperation   the operation to process
+     * @param stockTransaction the transaction before the operation
+     * @return the transaction including the operation
+     */
+    public StockTransaction processOperation(StockOperation stockOperation, StockTransaction stockTransaction) {
+        return calculateTaxesForAOperation(stockOperation, stockTransaction);
+    }
+
     private StockTransaction calculateTaxesForAOperation(StockOperation stockOperation, StockTransaction stockTransaction) {
+        if (compiledTaxRules != null) {
+            return compiledTaxRules.apply(stockOperation, stockTransaction);
+        }
         Long newStockQuantity = stockOperationCalculator.calculateNewStockQuantity(stockOperation, stockTransaction.getCurrentStockQuantity());
 
         if(!enoughStockQuantitySpecification.isSatisfiedBy(newStockQuantity)){
-            AbstractEntityStatus operationStatus = ErrorStatus.builder().error("This operation can not be performance, not enough Stock").build();
-            stockTransaction.addOperation(operationStatus, stockTransaction.getWeightedAveragePrice(), stockTransaction.getTotalLoss(), stockTransaction.getCurrentStockQuantity());
+            AbstractEntityStatus operationStatus = ErrorStatus.of(ErrorCode.NOT_ENOUGH_STOCK);
+            stockTransaction = stockTransaction.addOperation(operationStatus, stockTransaction.getWeightedAveragePrice(), stockTransaction.getTotalLoss(), stockTransaction.getCurrentStockQuantity());
         }else {
             Double newWeightedAveragePrice = stockTransaction.getWeightedAveragePrice();
             if (operationShouldRecalculateWeightedAverage.isSatisfiedBy(stockOperation)) {
@@ -0,0 +1,257 @@
+package com.bank.domain.service;
+
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.valueobject.OperationType;
+import lombok.Builder;
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Trie of operation sequences that keeps the {@link StockTransaction} reached after every cached prefix.
+ * <p>
+ * Transactions are immutable, so the transaction of a node can be shared by every simulation starting with the same
+ * operations, and only the operations after the longest cached prefix are calculated. The operation lists of the
+ * transactions of a branch share their storage, see {@link com.bank.domain.entity.OperationLog}.
+ * <p>
+ * The trie holds at most {@code maxNodes} nodes besides the root. Over that limit the least recently used leaves are
+ * evicted, a parent left without children becoming a leaf itself. A simulation positioned on an evicted node keeps
+ * working, its following operations are calculated without being cached.
+ * <p>
+ * This class is thread safe. Lookups and insertions hold the lock of the trie, calculations run outside of it.
+ */
+public class StockTransactionPrefixTrie {
+
+    private final StockOperationService stockOperationService;
+    private final long maxNodes;
+
+    private final Node root = new Node(null, null, new StockTransaction());
+    private final LinkedHashMap<Node, Node> leaves = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+    private long evictions;
+
+    @Builder
+    private StockTransactionPrefixTrie(@NonNull StockOperationService stockOperationService, long maxNodes) {
+        if (maxNodes <= 0) {
+            throw new IllegalArgumentException("The trie needs a positive number of nodes");
+        }
+        this.stockOperationService = stockOperationService;
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * @return the node of the empty sequence, holding a transaction without operations
+     */
+    public Node getRoot() {
+        return root;
+    }
+
+    /**
+     * Moves one operation down the trie, calculating and caching the transaction if the sequence is not cached yet
+     *
+     * @param node           the node of the operations processed so far
+     * @param stockOperation the next operation
+     * @return the node of the sequence followed by the operation
+     */
+    public Node next(Node node, StockOperation stockOperation) {
+        synchronized (this) {
+            Node child = node.findChild(stockOperation);
+            if (child != null) {
+                leaves.get(child);
+                return child;
+            }
+        }
+        StockTransaction stockTransaction = stockOperationService.processOperation(stockOperation, node.stockTransaction);
+        synchronized (this) {
+            if (node.evicted) {
+                Node detached = new Node(null, stockOperation, stockTransaction);
+                detached.evicted = true;
+                return detached;
+            }
+            Node child = node.findChild(stockOperation);
+            if (child == null) {
+                child = new Node(node, stockOperation, stockTransaction);
+                node.addChild(child);
+                leaves.remove(node);
+                leaves.put(child, child);
+                size++;
+                evictLeastRecentlyUsedLeaves();
+            }
+            return child;
+        }
+    }
+
+    /**
+     * Calculates the taxes of every operation reusing the longest cached prefix, which is matched holding the lock
+     * only once
+     *
+     * @param stockOperationList the operations of a simulation
+     * @return the transaction with every operation
+     */
+    public StockTransaction processOperation(List<StockOperation> stockOperationList) {
+        Node node = root;
+        int matched = 0;
+        synchronized (this) {
+            Node child;
+            while (matched < stockOperationList.size() && (child = node.findChild(stockOperationList.get(matched))) != null) {
+                node = child;
+                matched++;
+            }
+            leaves.get(node);
+        }
+        for (int i = matched; i < stockOperationList.size(); i++) {
+            node = next(node, stockOperationList.get(i));
+        }
+        return node.stockTransaction;
+    }
+
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    private void evictLeastRecentlyUsedLeaves() {
+        while (size > maxNodes) {
+            Node leaf = leaves.keySet().iterator().next();
+            leaves.remove(leaf);
+            leaf.evicted = true;
+            leaf.parent.removeChild(leaf);
+            size--;
+            evictions++;
+            if (leaf.parent != root && !leaf.parent.hasChildren()) {
+                leaves.put(leaf.parent, leaf.parent);
+            }
+        }
+    }
+
+    /**
+     * Position in the trie after a sequence of operations.
+     * The first children are kept in a small array scanned linearly, wider nodes switch to a hash map.
+     */
+    public static final class Node {
+
+        private static final int MAX_INLINE_CHILDREN = 8;
+
+        private final Node parent;
+        private final OperationType operationType;
+        private final Double unitCost;
+        private final Long quantity;
+        private final StockTransaction stockTransaction;
+        private Node[] inlineChildren;
+        private int inlineChildCount;
+        private Map<OperationKey, Node> wideChildren;
+        private boolean evicted;
+
+        private Node(Node parent, StockOperation stockOperation, StockTransaction stockTransaction) {
+            this.parent = parent;
+            this.operationType = stockOperation == null ? null : stockOperation.getOperationType();
+            this.unitCost = stockOperation == null ? null : stockOperation.getUnitCost();
+            this.quantity = stockOperation == null ? null : stockOperation.getQuantity();
+            this.stockTransaction = stockTransaction;
+        }
+
+        /**
+         * @return the transaction after the operations of this node, including them
+         */
+        public StockTransaction getStockTransaction() {
+            return stockTransaction;
+        }
+
+        private Node findChild(StockOperation stockOperation) {
+            if (wideChildren != null) {
+                return wideChildren.get(new OperationKey(stockOperation.getOperationType(), stockOperation.getUnitCost(), stockOperation.getQuantity()));
+            }
+            for (int i = 0; i < inlineChildCount; i++) {
+                Node child = inlineChildren[i];
+                if (child.operationType == stockOperation.getOperationType() && Objects.equals(child.unitCost, stockOperation.getUnitCost())
+                        && Objects.equals(child.quantity, stockOperation.getQuantity())) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        private void addChild(Node child) {
+            if (wideChildren == null && inlineChildCount < MAX_INLINE_CHILDREN) {
+                if (inlineChildren == null) {
+                    inlineChildren = new Node[2];
+                } else if (inlineChildCount == inlineChildren.length) {
+                    inlineChildren = Arrays.copyOf(inlineChildren, inlineChildCount << 1);
+                }
+                inlineChildren[inlineChildCount++] = child;
+                return;
+            }
+            if (wideChildren == null) {
+                wideChildren = new HashMap<>();
+                for (int i = 0; i < inlineChildCount; i++) {
+                    wideChildren.put(inlineChildren[i].operationKey(), inlineChildren[i]);
+                }
+                inlineChildren = null;
+                inlineChildCount = 0;
+            }
+            wideChildren.put(child.operationKey(), child);
+        }
+
+        private void removeChild(Node child) {
+            if (wideChildren != null) {
+                wideChildren.remove(child.operationKey());
+                return;
+            }
+            for (int i = 0; i < inlineChildCount; i++) {
+                if (inlineChildren[i] == child) {
+                    inlineChildren[i] = inlineChildren[--inlineChildCount];
+                    inlineChildren[inlineChildCount] = null;
+                    return;
+                }
+            }
+        }
+
+        private boolean hasChildren() {
+            return inlineChildCount > 0 || (wideChildren != null && !wideChildren.isEmpty());
+        }
+
+        private OperationKey operationKey() {
+            return new OperationKey(operationType, unitCost, quantity);
+        }
+    }
+
+    /**
+     * Value of an operation used to match the children of a wide node
+     */
+    private static final class OperationKey {
+
+        private final OperationType operationType;
+        private final Double unitCost;
+        private final Long quantity;
+
+        private OperationKey(OperationType operationType, Double unitCost, Long quantity) {
+            this.operationType = operationType;
+            this.unitCost = unitCost;
+            this.quantity = quantity;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof OperationKey)) {
+                return false;
+            }
+            OperationKey operationKey = (OperationKey) other;
+            return operationType == operationKey.operationType && Objects.equals(unitCost, operationKey.unitCost)
+                    && Objects.equals(quantity, operationKey.quantity);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * Objects.hashCode(operationType) + Objects.hashCode(unitCost)) * 31 + Objects.hashCode(quantity);
+        }
+    }
+}
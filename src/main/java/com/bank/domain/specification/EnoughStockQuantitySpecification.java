@@ -1,7 +1,12 @@
 package com.bank.domain.specification;
 
 import com.bank.domain.specification.common.AbstractSpecification;
+import lombok.Builder;
 
+/**
+ * Specification to validate that an operation does not leave a negative stock quantity
+ */
+@Builder
 public class EnoughStockQuantitySpecification extends AbstractSpecification<Long> {
     /**
      * @param newSockQuantity
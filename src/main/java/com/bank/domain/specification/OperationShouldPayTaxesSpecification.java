@@ -2,6 +2,7 @@ package com.bank.domain.specification;
 
 import com.bank.domain.entity.StockOperation;
 import com.bank.domain.specification.common.AbstractSpecification;
+import com.bank.domain.valueobject.TaxRules;
 import lombok.Builder;
 
 /**
@@ -9,12 +10,14 @@ import lombok.Builder;
  */
 @Builder
 public class OperationShouldPayTaxesSpecification extends AbstractSpecification<StockOperation> {
-    private static final Double AMOUNT_EXEMPT_TO_PAY_TAX = 20000d;
+
+    @Builder.Default
+    private final TaxRules taxRules = TaxRules.DEFAULT;
 
     @Override
     public boolean isSatisfiedBy(StockOperation stockOperation) {
 
         return StockOperation.isSell().test(stockOperation) &&
-                stockOperation.getQuantity() * stockOperation.getUnitCost() > AMOUNT_EXEMPT_TO_PAY_TAX;
+                stockOperation.getQuantity() * stockOperation.getUnitCost() > taxRules.getAmountExemptToPayTax();
     }
 }
@@ -8,4 +8,9 @@ public abstract class AbstractEntityStatus implements EntityStatus {
         return status;
     }
 
+    /**
+     * @return the tax to be paid for the operation this status belongs to
+     */
+    public abstract Tax getTax();
+
 }
@@ -0,0 +1,30 @@
+package com.bank.domain.valueobject;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Reasons why an operation, or the line holding it, can not be calculated.
+ * The codes are fixed, so reporting an error never builds a message.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+public enum ErrorCode {
+    MALFORMED_LINE("malformed-line", "The line is not a Json array of operations"),
+    UNKNOWN_OPERATION("unknown-operation", "The operation is neither a buy nor a sell"),
+    MISSING_FIELD("missing-field", "The operation has no unit cost or no quantity"),
+    INVALID_QUANTITY("invalid-quantity", "The quantity of the operation should be greater than zero"),
+    INVALID_UNIT_COST("invalid-unit-cost", "The unit cost of the operation should not be negative"),
+    NOT_ENOUGH_STOCK("not-enough-stock", "This operation can not be performance, not enough Stock");
+
+    /**
+     * Code written in the output
+     */
+    private final String code;
+
+    /**
+     * Description of the error
+     */
+    private final String message;
+}
@@ -1,12 +1,60 @@
 package com.bank.domain.valueobject;
 
 import lombok.Builder;
+import lombok.Getter;
 
-@Builder
+/**
+ * Status of an operation that could not be performed
+ */
+@Getter
 public class ErrorStatus extends AbstractEntityStatus{
 
-    private String error;
-    private ErrorStatus() {
+    private static final Tax NO_TAX = Tax.builder().tax(0d).build();
+
+    /**
+     * One shared status per code, indexed by ordinal
+     */
+    private static final ErrorStatus[] BY_CODE = new ErrorStatus[ErrorCode.values().length];
+
+    static {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            BY_CODE[errorCode.ordinal()] = new ErrorStatus(errorCode.getMessage(), errorCode);
+        }
+    }
+
+    private final String error;
+
+    /**
+     * Code of the error, null when only the message was given
+     */
+    private final ErrorCode errorCode;
+
+    @Builder
+    private ErrorStatus(String error) {
+        this(error, null);
+    }
+
+    private ErrorStatus(String error, ErrorCode errorCode) {
+        this.error = error;
+        this.errorCode = errorCode;
         status = StatusType.ERROR;
     }
+
+    /**
+     * @param errorCode the reason of the error
+     * @return the status of the code, created once and shared
+     */
+    public static ErrorStatus of(ErrorCode errorCode) {
+        return BY_CODE[errorCode.ordinal()];
+    }
+
+    /**
+     * An operation that was not performed does not pay taxes
+     *
+     * @return a zero tax
+     */
+    @Override
+    public Tax getTax() {
+        return NO_TAX;
+    }
 }
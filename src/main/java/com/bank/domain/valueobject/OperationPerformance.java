@@ -18,11 +18,14 @@ public class OperationPerformance {
     private Double amount;
 
 
+    private static final Predicate<OperationPerformance> IS_PROFIT = p -> p.getPerformanceType() == OperationPerformanceType.PROFIT;
+    private static final Predicate<OperationPerformance> IS_LOSS = p -> p.getPerformanceType() == OperationPerformanceType.LOSS;
+
     public static Predicate <OperationPerformance> isProfit(){
-        return p -> p.getPerformanceType() == OperationPerformanceType.PROFIT;
+        return IS_PROFIT;
     }
 
     public static Predicate <OperationPerformance> isLoss(){
-        return p -> p.getPerformanceType() == OperationPerformanceType.LOSS;
+        return IS_LOSS;
     }
 }
@@ -18,12 +18,25 @@ public enum OperationType {
     private final String operationName;
 
     public static OperationType getOperationTypeByName(String name) {
+        OperationType operationType = findOperationTypeByName(name);
+        if (operationType == null) {
+            throw new IllegalArgumentException("There is not a Operation Type with the name " + name);
+        }
+        return operationType;
+    }
+
+    /**
+     * Same as {@link #getOperationTypeByName(String)} without throwing
+     *
+     * @param name the name of the operation, may be null
+     * @return the type with the name, null when there is none
+     */
+    public static OperationType findOperationTypeByName(String name) {
         if (BUY.getOperationName().equals(name)) {
             return BUY;
         } else if (SELL.getOperationName().equals(name)) {
             return SELL;
-        } else {
-            throw new IllegalArgumentException("There is not a Operation Type with the name " + name);
         }
+        return null;
     }
 }
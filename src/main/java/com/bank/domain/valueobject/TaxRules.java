@@ -0,0 +1,42 @@
+package com.bank.domain.valueobject;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Thresholds of the tax applied to the profits of the sells
+ */
+@Getter
+public class TaxRules {
+
+    /**
+     * The rules of the tax authority: 20% of the profits of sells above $ 20000.00
+     */
+    public static final TaxRules DEFAULT = TaxRules.builder().build();
+
+    /**
+     * Percentage of the profit to be paid
+     */
+    private final double percentageTaxToBeApplied;
+
+    /**
+     * Total amount of a sell, unit cost times quantity, up to which the sell does not pay taxes
+     */
+    private final double amountExemptToPayTax;
+
+    /**
+     * @param percentageTaxToBeApplied percentage of the profit to be paid, 20 by default
+     * @param amountExemptToPayTax     amount up to which a sell does not pay taxes, 20000 by default
+     */
+    @Builder
+    private TaxRules(Double percentageTaxToBeApplied, Double amountExemptToPayTax) {
+        this.percentageTaxToBeApplied = percentageTaxToBeApplied == null ? 20d : percentageTaxToBeApplied;
+        this.amountExemptToPayTax = amountExemptToPayTax == null ? 20000d : amountExemptToPayTax;
+        if (!(this.percentageTaxToBeApplied >= 0 && this.percentageTaxToBeApplied <= 100)) {
+            throw new IllegalArgumentException("The percentage of the tax should be between 0 and 100");
+        }
+        if (!(this.amountExemptToPayTax >= 0)) {
+            throw new IllegalArgumentException("The amount exempt to pay tax should not be negative");
+        }
+    }
+}
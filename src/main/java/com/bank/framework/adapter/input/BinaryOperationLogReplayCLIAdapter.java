@@ -0,0 +1,87 @@
+package com.bank.framework.adapter.input;
+
+import com.bank.application.metrics.Stage;
+import com.bank.application.metrics.TaxCalculationMetrics;
+import com.bank.domain.service.OperationTaxEngine;
+import com.bank.framework.adapter.output.MappedBinaryOperationLogReader;
+import com.bank.framework.adapter.output.OperationLogTaxConsumer;
+import com.bank.framework.adapter.output.StringToTaxListParserAdapter;
+import com.bank.framework.adapter.output.TaxListStreamWriter;
+import lombok.Builder;
+
+import java.io.OutputStream;
+
+/**
+ * Replays a binary operation log and writes one Json array of taxes per list, like the Json input would produce
+ */
+@Builder
+public class BinaryOperationLogReplayCLIAdapter {
+
+    private MappedBinaryOperationLogReader mappedBinaryOperationLogReader;
+    private OperationTaxEngine operationTaxEngine;
+    private StringToTaxListParserAdapter stringToTaxListParserAdapter;
+
+    /**
+     * Times each replayed operation, its reading and calculation together, and the lists as a whole
+     */
+    @Builder.Default
+    private TaxCalculationMetrics taxCalculationMetrics = TaxCalculationMetrics.disabled();
+
+    /**
+     * @param outputStream receives the Json arrays of taxes, it is not flushed. A last list not closed by an end of list
+     *                     record, as left by an interrupted conversion, is written too.
+     * @return the number of replayed operations
+     */
+    public long replay(OutputStream outputStream) {
+        operationTaxEngine.reset();
+        ReplayTaxConsumer replayTaxConsumer = new ReplayTaxConsumer(outputStream);
+        long operationCount = mappedBinaryOperationLogReader.replay(operationTaxEngine, replayTaxConsumer);
+        replayTaxConsumer.finishPendingList();
+        return operationCount;
+    }
+
+    /**
+     * Writes the taxes of each list, the writer of a list is only opened with its first tax or its end
+     */
+    private final class ReplayTaxConsumer implements OperationLogTaxConsumer {
+
+        private final OutputStream outputStream;
+        private TaxListStreamWriter taxListStreamWriter;
+        private long lineStartTime = taxCalculationMetrics.startTime();
+        private long calculationStartTime = lineStartTime;
+
+        private ReplayTaxConsumer(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public void accept(double tax, boolean rejected) {
+            long serializationStartTime = taxCalculationMetrics.record(Stage.CALCULATION, calculationStartTime);
+            openedStreamWriter().write(tax);
+            calculationStartTime = taxCalculationMetrics.record(Stage.SERIALIZATION, serializationStartTime);
+            taxCalculationMetrics.recordOperation();
+        }
+
+        @Override
+        public void endOfList() {
+            openedStreamWriter().finish();
+            taxListStreamWriter = null;
+            taxCalculationMetrics.recordLine(lineStartTime);
+            lineStartTime = taxCalculationMetrics.startTime();
+            calculationStartTime = lineStartTime;
+        }
+
+        private void finishPendingList() {
+            if (taxListStreamWriter != null) {
+                endOfList();
+            }
+        }
+
+        private TaxListStreamWriter openedStreamWriter() {
+            if (taxListStreamWriter == null) {
+                taxListStreamWriter = stringToTaxListParserAdapter.openStreamWriter(outputStream);
+            }
+            return taxListStreamWriter;
+        }
+    }
+}
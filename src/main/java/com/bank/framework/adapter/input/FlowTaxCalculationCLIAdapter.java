@@ -0,0 +1,78 @@
+package com.bank.framework.adapter.input;
+
+import com.bank.application.metrics.TaxCalculationMetrics;
+import com.bank.application.usecases.TaxCalculationUseCase;
+import com.bank.framework.adapter.output.StringToStockOperationParserAdapter;
+import com.bank.framework.adapter.output.StringToTaxListParserAdapter;
+import lombok.Builder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+/**
+ * Calculates the input lines through a {@link java.util.concurrent.Flow} pipeline, so parsing, calculation and
+ * serialization run at the same time on different threads: a {@link StockOperationPublisher} parsing on the calling
+ * thread, a {@link TaxCalculationProcessor} and a {@link TaxListSubscriber}.
+ * <p>
+ * Each stage requests items by demand and buffers at most {@code bufferSize} of them, so a fast stage waits for the
+ * slower ones and the memory of the pipeline is bounded whatever the size of the input. The executor runs the
+ * calculation and the serialization, it needs at least two threads.
+ * <p>
+ * A failure stops the pipeline once the taxes before it are written, like the streaming CLI the list of the failure
+ * is left unfinished.
+ */
+@Builder
+public class FlowTaxCalculationCLIAdapter {
+
+    private final TaxCalculationUseCase taxCalculationUseCase;
+    private final StringToStockOperationParserAdapter stringToStockOperationParserAdapter;
+    private final StringToTaxListParserAdapter stringToTaxListParserAdapter;
+    private final Executor executor;
+
+    /**
+     * Maximum items waiting between two stages
+     */
+    @Builder.Default
+    private final int bufferSize = Flow.defaultBufferSize();
+
+    /**
+     * Times the parsing and the serialization of the operations and the lists, the use case times the calculation
+     */
+    @Builder.Default
+    private final TaxCalculationMetrics taxCalculationMetrics = TaxCalculationMetrics.disabled();
+
+    /**
+     * @param operationStrings Json arrays of operations, one simulation each
+     * @param outputStream     receives the Json array of taxes of each line, in the order of the lines
+     */
+    public void calculateTaxes(Iterator<String> operationStrings, OutputStream outputStream) throws IOException {
+        StockOperationPublisher stockOperationPublisher = new StockOperationPublisher(stringToStockOperationParserAdapter, executor, bufferSize, taxCalculationMetrics);
+        TaxCalculationProcessor taxCalculationProcessor = new TaxCalculationProcessor(taxCalculationUseCase, executor, bufferSize);
+        TaxListSubscriber taxListSubscriber = new TaxListSubscriber(stringToTaxListParserAdapter, outputStream, bufferSize, taxCalculationMetrics);
+        taxCalculationProcessor.subscribe(taxListSubscriber);
+        stockOperationPublisher.subscribe(taxCalculationProcessor);
+        RuntimeException publisherFailure = null;
+        try {
+            stockOperationPublisher.publish(operationStrings);
+        } catch (RuntimeException e) {
+            publisherFailure = e;
+        }
+        try {
+            taxListSubscriber.awaitCompletion();
+        } finally {
+            outputStream.flush();
+        }
+        // The calculation runs behind the parsing, so its failure comes from an earlier line
+        if (taxCalculationProcessor.getFailure() != null) {
+            taxCalculationMetrics.recordError();
+            throw taxCalculationProcessor.getFailure();
+        }
+        if (publisherFailure != null) {
+            taxCalculationMetrics.recordError();
+            throw publisherFailure;
+        }
+    }
+}
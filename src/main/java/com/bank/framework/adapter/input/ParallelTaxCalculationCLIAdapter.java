@@ -0,0 +1,72 @@
+package com.bank.framework.adapter.input;
+
+import lombok.Builder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Calculates independent input lines in parallel and writes their results in input order.
+ * <p>
+ * Lines are submitted to the executor as they are read, their results wait in a reorder buffer until every previous
+ * line has been written. The buffer holds at most {@code maxPendingLines} lines, so a slow line bounds the memory
+ * instead of letting the following results pile up.
+ */
+@Builder
+public class ParallelTaxCalculationCLIAdapter {
+
+    private final TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter;
+    private final ExecutorService executorService;
+    private final int maxPendingLines;
+
+    /**
+     * @param operationStrings Json arrays of operations, one simulation each
+     * @param outputStream     receives the Json array of taxes of each line, in the order of the lines
+     */
+    public void calculateTaxes(Iterator<String> operationStrings, OutputStream outputStream) throws IOException {
+        ArrayDeque<CompletableFuture<byte[]>> reorderBuffer = new ArrayDeque<>(maxPendingLines);
+        try {
+            while (operationStrings.hasNext()) {
+                if (reorderBuffer.size() == maxPendingLines) {
+                    writeNext(reorderBuffer, outputStream);
+                }
+                String operationString = operationStrings.next();
+                reorderBuffer.addLast(CompletableFuture.supplyAsync(() -> calculateTaxes(operationString), executorService));
+            }
+            while (!reorderBuffer.isEmpty()) {
+                writeNext(reorderBuffer, outputStream);
+            }
+        } finally {
+            reorderBuffer.forEach(result -> result.cancel(false));
+            outputStream.flush();
+        }
+    }
+
+    private byte[] calculateTaxes(String operationString) {
+        ByteArrayOutputStream lineOutput = new ByteArrayOutputStream();
+        taxCalculationViewCLIAdapter.calculateTaxes(operationString, lineOutput);
+        return lineOutput.toByteArray();
+    }
+
+    private void writeNext(ArrayDeque<CompletableFuture<byte[]>> reorderBuffer, OutputStream outputStream) throws IOException {
+        CompletableFuture<byte[]> next = reorderBuffer.peekFirst();
+        if (!next.isDone()) {
+            outputStream.flush();
+        }
+        try {
+            outputStream.write(next.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a result", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new IllegalStateException(e.getCause());
+        }
+        reorderBuffer.removeFirst();
+    }
+}
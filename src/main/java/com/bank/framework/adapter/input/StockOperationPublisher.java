@@ -0,0 +1,68 @@
+package com.bank.framework.adapter.input;
+
+import com.bank.application.metrics.Stage;
+import com.bank.application.metrics.TaxCalculationMetrics;
+import com.bank.framework.adapter.output.StringToStockOperationParserAdapter;
+import com.bank.framework.adapter.output.domain.StockOperationDTO;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * First stage of the Flow pipeline: publishes the operations of the input lines as they are parsed, each line followed
+ * by {@link #END_OF_LIST}.
+ * <p>
+ * Every subscriber gets a buffer of at most the given number of operations. When a subscriber does not request more
+ * and its buffer is full, publishing blocks the parsing thread until it does, so a slow calculation holds the input
+ * back instead of letting the operations pile up.
+ */
+public class StockOperationPublisher extends SubmissionPublisher<StockOperationDTO> {
+
+    /**
+     * Published after the last operation of every line, compared by identity and never modified
+     */
+    public static final StockOperationDTO END_OF_LIST = new StockOperationDTO();
+
+    private final StringToStockOperationParserAdapter stringToStockOperationParserAdapter;
+    private final TaxCalculationMetrics taxCalculationMetrics;
+
+    /**
+     * @param stringToStockOperationParserAdapter parses each line
+     * @param executor                            delivers the operations to the subscribers
+     * @param bufferSize                          maximum operations buffered per subscriber, rounded up to a power of two
+     * @param taxCalculationMetrics               times the parsing of each operation, without the wait to publish it
+     */
+    public StockOperationPublisher(StringToStockOperationParserAdapter stringToStockOperationParserAdapter, Executor executor, int bufferSize,
+                                   TaxCalculationMetrics taxCalculationMetrics) {
+        super(executor, bufferSize);
+        this.stringToStockOperationParserAdapter = stringToStockOperationParserAdapter;
+        this.taxCalculationMetrics = taxCalculationMetrics;
+    }
+
+    /**
+     * Publishes the operations of every line and closes the publisher. Stops early when every subscriber has cancelled.
+     * When a line cannot be parsed, the operations before the failure are still delivered, then the publisher is
+     * closed and the failure is thrown.
+     *
+     * @param operationStrings Json arrays of operations, one simulation each
+     */
+    public void publish(Iterator<String> operationStrings) {
+        try {
+            while (operationStrings.hasNext() && hasSubscribers()) {
+                long[] parseStartTime = {taxCalculationMetrics.startTime()};
+                // The parser reuses its DTO, the published one is read later on another thread
+                stringToStockOperationParserAdapter.parseString(operationStrings.next(), stockOperationDTO -> {
+                    taxCalculationMetrics.record(Stage.PARSE, parseStartTime[0]);
+                    submit(new StockOperationDTO(stockOperationDTO.getOperation(), stockOperationDTO.getUnitCost(), stockOperationDTO.getQuantity(),
+                            stockOperationDTO.getTicker()));
+                    parseStartTime[0] = taxCalculationMetrics.startTime();
+                });
+                submit(END_OF_LIST);
+            }
+        } finally {
+            // A normal close delivers the buffered operations first, closing exceptionally would drop them
+            close();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.bank.framework.adapter.input;
+
+import com.bank.application.usecases.TaxCalculationSession;
+import com.bank.application.usecases.TaxCalculationUseCase;
+import com.bank.framework.adapter.output.StringToStockOperationParserAdapter;
+import com.bank.framework.adapter.output.StringToTaxListParserAdapter;
+import com.bank.framework.adapter.output.TaxListStreamWriter;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Builder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+
+/**
+ * HTTP input adapter on the JDK built-in server, sharing one {@link TaxCalculationUseCase} between all the requests.
+ * <ul>
+ *     <li>{@code POST /taxes} calculates one Json array of operations and answers its Json array of taxes</li>
+ *     <li>{@code POST /taxes/batch} calculates one Json array per line, like the CLI does, and answers one Json array
+ *     of taxes per line as soon as each line is calculated</li>
+ * </ul>
+ * Request bodies are parsed while they are received and fully consumed, so connections are kept alive.
+ */
+@Builder
+public class TaxCalculationHttpAdapter {
+
+    static final String SIMULATION_PATH = "/taxes";
+    static final String BATCH_PATH = "/taxes/batch";
+
+    private static final int LINE_BUFFER_SIZE = 256;
+
+    private TaxCalculationUseCase taxCalculationUseCase;
+    private StringToStockOperationParserAdapter stringToStockOperationParserAdapter;
+    private StringToTaxListParserAdapter stringToTaxListParserAdapter;
+
+    /**
+     * Starts a server with the endpoints of this adapter
+     *
+     * @param address  address to listen to, port 0 picks a free one
+     * @param executor runs the requests
+     * @return the started server
+     * @throws IOException if the server cannot listen to the address
+     */
+    public HttpServer start(InetSocketAddress address, Executor executor) throws IOException {
+        HttpServer httpServer = HttpServer.create(address, 0);
+        httpServer.createContext(SIMULATION_PATH, this::handleSimulation);
+        httpServer.createContext(BATCH_PATH, this::handleBatch);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        return httpServer;
+    }
+
+    void handleSimulation(HttpExchange exchange) throws IOException {
+        try {
+            if (!isPost(exchange, SIMULATION_PATH)) {
+                return;
+            }
+            ByteArrayOutputStream responseBody = new ByteArrayOutputStream();
+            InputStream requestBody = exchange.getRequestBody();
+            try {
+                calculateTaxes(requestBody, responseBody);
+            } catch (RuntimeException e) {
+                requestBody.transferTo(OutputStream.nullOutputStream());
+                sendError(exchange, 400, e);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, responseBody.size());
+            responseBody.writeTo(exchange.getResponseBody());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * The status is sent with the first line, so a failure in the first line is answered with a 400. A failure in a
+     * later line ends the response with a Json object holding the error instead of the taxes of that line.
+     */
+    void handleBatch(HttpExchange exchange) throws IOException {
+        try {
+            if (!isPost(exchange, BATCH_PATH)) {
+                return;
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8));
+            OutputStream responseBody = null;
+            ByteArrayOutputStream lineOutput = new ByteArrayOutputStream(LINE_BUFFER_SIZE);
+            try {
+                String operationString;
+                while ((operationString = reader.readLine()) != null) {
+                    if (operationString.isBlank()) {
+                        continue;
+                    }
+                    lineOutput.reset();
+                    calculateTaxes(operationString, lineOutput);
+                    if (responseBody == null) {
+                        responseBody = startBatchResponse(exchange);
+                    }
+                    lineOutput.writeTo(responseBody);
+                }
+            } catch (RuntimeException e) {
+                reader.transferTo(Writer.nullWriter());
+                if (responseBody == null) {
+                    sendError(exchange, 400, e);
+                    return;
+                }
+                responseBody.write(("{\"error\":\"" + new String(JsonStringEncoder.getInstance().quoteAsString(errorMessage(e))) + "\"}\n")
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            if (responseBody == null) {
+                startBatchResponse(exchange);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void calculateTaxes(InputStream requestBody, OutputStream outputStream) {
+        TaxCalculationSession taxCalculationSession = taxCalculationUseCase.openSession();
+        TaxListStreamWriter taxListStreamWriter = stringToTaxListParserAdapter.openStreamWriter(outputStream);
+        stringToStockOperationParserAdapter.parseStream(requestBody, stockOperationDTO -> taxListStreamWriter.write(taxCalculationSession.calculateTax(stockOperationDTO)));
+        taxListStreamWriter.finish();
+    }
+
+    private void calculateTaxes(String operationString, OutputStream outputStream) {
+        TaxCalculationSession taxCalculationSession = taxCalculationUseCase.openSession();
+        TaxListStreamWriter taxListStreamWriter = stringToTaxListParserAdapter.openStreamWriter(outputStream);
+        stringToStockOperationParserAdapter.parseString(operationString, stockOperationDTO -> taxListStreamWriter.write(taxCalculationSession.calculateTax(stockOperationDTO)));
+        taxListStreamWriter.finish();
+    }
+
+    private static OutputStream startBatchResponse(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+        exchange.sendResponseHeaders(200, 0);
+        return exchange.getResponseBody();
+    }
+
+    private static boolean isPost(HttpExchange exchange, String path) throws IOException {
+        if (!path.equals(exchange.getRequestURI().getPath())) {
+            exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            exchange.sendResponseHeaders(404, -1);
+            return false;
+        }
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            exchange.getResponseHeaders().set("Allow", "POST");
+            exchange.sendResponseHeaders(405, -1);
+            return false;
+        }
+        return true;
+    }
+
+    private static void sendError(HttpExchange exchange, int status, RuntimeException e) throws IOException {
+        byte[] message = errorMessage(e).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, message.length);
+        exchange.getResponseBody().write(message);
+    }
+
+    private static String errorMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return String.valueOf(cause.getMessage());
+    }
+}
@@ -0,0 +1,102 @@
+package com.bank.framework.adapter.input;
+
+import com.bank.application.usecases.TaxCalculationSession;
+import com.bank.application.usecases.TaxCalculationUseCase;
+import com.bank.framework.adapter.output.domain.StockOperationDTO;
+import com.bank.framework.adapter.output.domain.TaxDTO;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * Middle stage of the Flow pipeline: calculates the tax of each operation through a session of the use case, a new one
+ * for every list, and publishes it, each list followed by {@link #END_OF_LIST}.
+ * <p>
+ * Operations are requested in batches of half the buffer size, so at most one buffer of operations waits for the
+ * calculation. Publishing a tax blocks when the buffer of the subscriber is full, which stops the requests upstream.
+ * A failed calculation cancels the upstream subscription and closes the processor once the taxes before it are
+ * delivered, keeping the failure.
+ */
+public class TaxCalculationProcessor extends SubmissionPublisher<TaxDTO> implements Flow.Processor<StockOperationDTO, TaxDTO> {
+
+    /**
+     * Published after the last tax of every list, compared by identity
+     */
+    public static final TaxDTO END_OF_LIST = TaxDTO.builder().build();
+
+    private final TaxCalculationUseCase taxCalculationUseCase;
+    private final int bufferSize;
+
+    private Flow.Subscription subscription;
+    private TaxCalculationSession taxCalculationSession;
+    private int requestedOperations;
+    private volatile RuntimeException failure;
+
+    /**
+     * @param taxCalculationUseCase calculates the taxes
+     * @param executor              delivers the taxes to the subscribers
+     * @param bufferSize            maximum operations requested and taxes buffered per subscriber
+     */
+    public TaxCalculationProcessor(TaxCalculationUseCase taxCalculationUseCase, Executor executor, int bufferSize) {
+        super(executor, bufferSize);
+        this.taxCalculationUseCase = taxCalculationUseCase;
+        this.bufferSize = Math.max(2, bufferSize);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        requestedOperations = bufferSize;
+        subscription.request(bufferSize);
+    }
+
+    @Override
+    public void onNext(StockOperationDTO stockOperationDTO) {
+        if (isClosed()) {
+            return;
+        }
+        if (!hasSubscribers()) {
+            subscription.cancel();
+            close();
+            return;
+        }
+        try {
+            if (stockOperationDTO == StockOperationPublisher.END_OF_LIST) {
+                taxCalculationSession = null;
+                submit(END_OF_LIST);
+            } else {
+                if (taxCalculationSession == null) {
+                    taxCalculationSession = taxCalculationUseCase.openSession();
+                }
+                submit(taxCalculationSession.calculateTax(stockOperationDTO));
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+            subscription.cancel();
+            close();
+            return;
+        }
+        if (--requestedOperations <= bufferSize / 2) {
+            subscription.request(bufferSize - requestedOperations);
+            requestedOperations = bufferSize;
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        closeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        close();
+    }
+
+    /**
+     * @return the failure of the calculation that closed the processor, null if there was none
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+}
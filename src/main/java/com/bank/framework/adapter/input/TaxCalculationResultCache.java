@@ -0,0 +1,276 @@
+package com.bank.framework.adapter.input;
+
+import com.bank.domain.entity.StockTransaction;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of serialized taxes keyed by the content of the input line.
+ * <p>
+ * Lines are normalized by removing the Json whitespace outside strings, so the same simulation written with different
+ * spacing shares one entry. The key keeps a 64-bit hash of the normalized line, which picks the segment and the hash
+ * bucket, and the normalized line itself, which is compared on every hit so a collision never returns the taxes of
+ * another simulation.
+ * <p>
+ * Entries are split in segments with their own lock, each one evicting its least recently used entries when it goes
+ * over its share of the entry and byte limits. The shares add up to the limits, the segments being reduced when a limit
+ * is too small to give each of them at least one entry. The bytes of an entry are estimated from the key and the taxes.
+ */
+public final class TaxCalculationResultCache {
+
+    /**
+     * Estimated bytes of the objects of an entry besides the key characters and the taxes
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries maximum number of cached lines
+     * @param maxBytes   maximum estimated memory of the cached lines
+     * @param segments   number of independently locked segments, rounded up to a power of two, 16 by default, and
+     *                   reduced to the largest power of two not above either limit
+     */
+    @Builder
+    private TaxCalculationResultCache(long maxEntries, long maxBytes, Integer segments) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("The cache needs a positive number of entries and bytes");
+        }
+        int segmentCount = Integer.highestOneBit(Math.max(1, segments == null ? 16 : segments) * 2 - 1);
+        segmentCount = (int) Math.min(segmentCount, Long.highestOneBit(Math.min(maxEntries, maxBytes)));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            this.segments[i] = new Segment(share(maxEntries, segmentCount, i), share(maxBytes, segmentCount, i));
+        }
+    }
+
+    /**
+     * @return the part of the limit given to the segment, the remainder of the division going to the first segments
+     */
+    private static long share(long limit, int segmentCount, int segment) {
+        return limit / segmentCount + (segment < limit % segmentCount ? 1L : 0L);
+    }
+
+    /**
+     * @param operationString the Json line of operations
+     * @return the key of the normalized line
+     */
+    public Key key(String operationString) {
+        return new Key(normalize(operationString));
+    }
+
+    /**
+     * @return the cached result of the line, null when it is not cached
+     */
+    public Result get(Key key) {
+        Result result = segmentOf(key).get(key);
+        if (result == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Caches the result of a line, evicting the least recently used lines of its segment if needed
+     *
+     * @param key              the key of the line
+     * @param taxes            the serialized taxes of the line, including the line break, not copied
+     * @param stockTransaction the state after the operations of the line, without operations
+     */
+    public void put(Key key, byte[] taxes, StockTransaction stockTransaction) {
+        segmentOf(key).put(key, new Result(taxes, stockTransaction));
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getSize() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long getBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.bytes();
+        }
+        return bytes;
+    }
+
+    private Segment segmentOf(Key key) {
+        return segments[(int) (key.hash >>> 32) & (segments.length - 1)];
+    }
+
+    /**
+     * Removes the Json whitespace outside strings that is next to a structural character or at an end of the line. The
+     * whitespace between two values, or inside a number, is kept, so a malformed line never shares the key of a valid one.
+     */
+    static String normalize(String operationString) {
+        StringBuilder normalized = null;
+        boolean inString = false;
+        for (int i = 0; i < operationString.length(); i++) {
+            char character = operationString.charAt(i);
+            if (inString) {
+                if (character == '\\' && i + 1 < operationString.length()) {
+                    if (normalized != null) {
+                        normalized.append(character);
+                    }
+                    character = operationString.charAt(++i);
+                } else if (character == '"') {
+                    inString = false;
+                }
+            } else if (character == '"') {
+                inString = true;
+            } else if (isWhitespace(character)) {
+                int end = i + 1;
+                while (end < operationString.length() && isWhitespace(operationString.charAt(end))) {
+                    end++;
+                }
+                if (i > 0 && !isStructural(operationString.charAt(i - 1))
+                        && end < operationString.length() && !isStructural(operationString.charAt(end))) {
+                    if (normalized != null) {
+                        normalized.append(operationString, i, end);
+                    }
+                } else if (normalized == null) {
+                    normalized = new StringBuilder(operationString.length()).append(operationString, 0, i);
+                }
+                i = end - 1;
+                continue;
+            }
+            if (normalized != null) {
+                normalized.append(character);
+            }
+        }
+        return normalized == null ? operationString : normalized.toString();
+    }
+
+    private static boolean isWhitespace(char character) {
+        return character == ' ' || character == '\t' || character == '\n' || character == '\r';
+    }
+
+    private static boolean isStructural(char character) {
+        return character == '[' || character == ']' || character == '{' || character == '}' || character == ':' || character == ',';
+    }
+
+    /**
+     * 64-bit FNV-1a of the characters, finished with a mixing step so every bit of the hash depends on every character
+     */
+    static long hash(String normalized) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            hash = (hash ^ normalized.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Normalized line with its precomputed hash
+     */
+    public static final class Key {
+
+        private final String normalized;
+        private final long hash;
+
+        private Key(String normalized) {
+            this.normalized = normalized;
+            this.hash = hash(normalized);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && ((Key) other).hash == hash && ((Key) other).normalized.equals(normalized);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) hash;
+        }
+    }
+
+    /**
+     * Serialized taxes of a line and the state its operations end with
+     */
+    @Getter
+    public static final class Result {
+
+        private final byte[] taxes;
+        private final StockTransaction stockTransaction;
+
+        private Result(byte[] taxes, StockTransaction stockTransaction) {
+            this.taxes = taxes;
+            this.stockTransaction = stockTransaction;
+        }
+
+        private long estimatedBytes(Key key) {
+            return ENTRY_OVERHEAD + 2L * key.normalized.length() + taxes.length;
+        }
+    }
+
+    private final class Segment {
+
+        private final long maxEntries;
+        private final long maxBytes;
+        private final LinkedHashMap<Key, Result> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long bytes;
+
+        private Segment(long maxEntries, long maxBytes) {
+            this.maxEntries = maxEntries;
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized Result get(Key key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(Key key, Result result) {
+            long entryBytes = result.estimatedBytes(key);
+            if (entryBytes > maxBytes) {
+                return;
+            }
+            Result previous = entries.put(key, result);
+            if (previous != null) {
+                bytes -= previous.estimatedBytes(key);
+            }
+            bytes += entryBytes;
+            Iterator<Map.Entry<Key, Result>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxEntries || bytes > maxBytes) {
+                Map.Entry<Key, Result> entry = eldest.next();
+                bytes -= entry.getValue().estimatedBytes(entry.getKey());
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized long bytes() {
+            return bytes;
+        }
+    }
+}
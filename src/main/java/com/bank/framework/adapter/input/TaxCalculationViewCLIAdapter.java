@@ -1,26 +1,268 @@
 package com.bank.framework.adapter.input;
 
+import com.bank.application.metrics.LineErrorCounts;
+import com.bank.application.metrics.Stage;
+import com.bank.application.metrics.TaxCalculationMetrics;
+import com.bank.application.ports.transformer.StockOperationTransformer;
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.valueobject.ErrorCode;
+import com.bank.framework.adapter.output.StockOperationJournalOutputPort;
 import com.bank.framework.adapter.output.StringToStockOperationParserAdapter;
 import com.bank.framework.adapter.output.StringToTaxListParserAdapter;
+import com.bank.framework.adapter.output.TaxListStreamWriter;
 import com.bank.framework.adapter.output.domain.StockOperationDTO;
 import com.bank.framework.adapter.output.domain.TaxDTO;
+import com.bank.application.usecases.TaxCalculationSession;
 import com.bank.application.usecases.TaxCalculationUseCase;
 import lombok.Builder;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 
 @Builder
 public class TaxCalculationViewCLIAdapter {
 
+    private static final int LINE_BUFFER_SIZE = 256;
+
     private TaxCalculationUseCase taxCalculationUseCase;
     private StringToStockOperationParserAdapter stringToStockOperationParserAdapter;
     private StringToTaxListParserAdapter stringToTaxListParserAdapter;
 
+    /**
+     * Times the parsing and the serialization of the operations and the streamed lines as a whole
+     */
+    @Builder.Default
+    private TaxCalculationMetrics taxCalculationMetrics = TaxCalculationMetrics.disabled();
+
+    /**
+     * Answers the lines already calculated from a new transaction, no cache when null
+     */
+    private TaxCalculationResultCache taxCalculationResultCache;
+
+    /**
+     * Journals every calculated operation, committed before the taxes of its line are returned, no journal when null
+     */
+    private StockOperationJournalOutputPort stockOperationJournal;
+
+    /**
+     * Counts the lines written as an error instead of failing, a line that can not be calculated fails when null
+     */
+    private LineErrorCounts lineErrorCounts;
+
+    /**
+     * Calculates the taxes of a Json array of operations. Each operation goes to the calculation as soon as it is
+     * parsed, so neither the DTO list nor the domain operation list are built.
+     *
+     * @param operationStringList Json array of operations
+     * @return Json array of taxes
+     */
     public String calculateTaxes(String operationStringList) {
-        List<StockOperationDTO> operationList = stringToStockOperationParserAdapter.parseString(operationStringList);
-        List<TaxDTO> taxList = taxCalculationUseCase.calculateTaxes(operationList);
+        TaxCalculationSession taxCalculationSession = taxCalculationUseCase.openSession();
+        List<TaxDTO> taxList = new ArrayList<>();
+        stringToStockOperationParserAdapter.parseString(operationStringList, stockOperationDTO -> taxList.add(taxCalculationSession.calculateTax(stockOperationDTO)));
         return stringToTaxListParserAdapter.parseObject(taxList);
     }
 
+    /**
+     * Calculates the taxes of a Json array of operations and writes each tax into the output stream as soon as it is
+     * calculated, followed by a line break. Nothing is written after a failure, so the last list is left unfinished.
+     * With error counts, a line that can not be calculated is written as a Json object with its {@link ErrorCode}
+     * instead, see {@link StringToTaxListParserAdapter#errorLine(ErrorCode)}.
+     *
+     * @param operationStringList Json array of operations
+     * @param outputStream        receives the Json array of taxes, it is not flushed
+     */
+    public void calculateTaxes(String operationStringList, OutputStream outputStream) {
+        calculateTaxes(operationStringList, outputStream, new StockTransaction());
+    }
+
+    /**
+     * Same as {@link #calculateTaxes(String, OutputStream)} but continuing a previously calculated transaction.
+     * With a journal, the taxes of the line are only written once the whole line is calculated and its operations are
+     * durable, a line that fails journals nothing.
+     * A line written as an error leaves the state and the journal untouched.
+     *
+     * @param operationStringList     Json array of the new operations
+     * @param outputStream            receives the Json array of taxes, it is not flushed
+     * @param initialStockTransaction the state the operations continue
+     * @return the state after the new operations, without the operations
+     */
+    public StockTransaction calculateTaxes(String operationStringList, OutputStream outputStream, StockTransaction initialStockTransaction) {
+        if (taxCalculationResultCache == null || stockOperationJournal != null || !isNewTransaction(initialStockTransaction)) {
+            StockTransaction stockTransaction = calculateAndWriteTaxes(operationStringList, outputStream, initialStockTransaction);
+            return stockTransaction == null ? initialStockTransaction : stockTransaction;
+        }
+        long lineStartTime = taxCalculationMetrics.startTime();
+        TaxCalculationResultCache.Key key = taxCalculationResultCache.key(operationStringList);
+        TaxCalculationResultCache.Result result = taxCalculationResultCache.get(key);
+        try {
+            if (result != null) {
+                taxCalculationMetrics.recordCacheHit();
+                outputStream.write(result.getTaxes());
+                taxCalculationMetrics.recordLine(lineStartTime);
+                return result.getStockTransaction();
+            }
+            taxCalculationMetrics.recordCacheMiss();
+            ByteArrayOutputStream lineOutput = new ByteArrayOutputStream(LINE_BUFFER_SIZE);
+            StockTransaction stockTransaction = calculateAndWriteTaxes(operationStringList, lineOutput, initialStockTransaction);
+            // An error line is not cached, so every occurrence is counted
+            if (stockTransaction == null) {
+                lineOutput.writeTo(outputStream);
+                return initialStockTransaction;
+            }
+            byte[] taxes = lineOutput.toByteArray();
+            taxCalculationResultCache.put(key, taxes, stockTransaction);
+            outputStream.write(taxes);
+            return stockTransaction;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the state after the operations of the line, null when the line was written as an error
+     */
+    private StockTransaction calculateAndWriteTaxes(String operationStringList, OutputStream outputStream, StockTransaction initialStockTransaction) {
+        if (lineErrorCounts != null) {
+            return calculateAndWriteTaxesOrError(operationStringList, outputStream, initialStockTransaction);
+        }
+        long lineStartTime = taxCalculationMetrics.startTime();
+        try {
+            TaxCalculationSession taxCalculationSession = taxCalculationUseCase.openSession(initialStockTransaction);
+            // With a journal the line is held back until it is complete and its operations are durable
+            ByteArrayOutputStream lineOutput = stockOperationJournal == null ? null : new ByteArrayOutputStream(LINE_BUFFER_SIZE);
+            List<StockOperation> journaledOperations = stockOperationJournal == null ? null : new ArrayList<>();
+            TaxListStreamWriter taxListStreamWriter = stringToTaxListParserAdapter.openStreamWriter(lineOutput == null ? outputStream : lineOutput);
+            // Parsing runs between two calculated operations, so it is timed from the end of the previous serialization
+            long[] parseStartTime = {lineStartTime};
+            stringToStockOperationParserAdapter.parseString(operationStringList, stockOperationDTO -> {
+                taxCalculationMetrics.record(Stage.PARSE, parseStartTime[0]);
+                TaxDTO taxDTO = taxCalculationSession.calculateTax(stockOperationDTO);
+                if (journaledOperations != null) {
+                    journaledOperations.add(StockOperationTransformer.transform(stockOperationDTO));
+                }
+                long serializationStartTime = taxCalculationMetrics.startTime();
+                taxListStreamWriter.write(taxDTO);
+                parseStartTime[0] = taxCalculationMetrics.record(Stage.SERIALIZATION, serializationStartTime);
+            });
+            taxListStreamWriter.finish();
+            if (lineOutput != null) {
+                journalAndWriteLine(journaledOperations, lineOutput, outputStream);
+            }
+            taxCalculationMetrics.recordLine(lineStartTime);
+            return taxCalculationSession.getStockTransaction();
+        } catch (RuntimeException e) {
+            taxCalculationMetrics.recordError();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends and commits the operations of a complete line, then writes its taxes, so the taxes never reach the output
+     * before the operations they come from are durable and the operations of a failed line are never journaled
+     *
+     * @param journaledOperations the operations of the line, nothing is journaled when null
+     * @param lineOutput          the taxes of the line
+     * @param outputStream        receives the taxes
+     */
+    private void journalAndWriteLine(List<StockOperation> journaledOperations, ByteArrayOutputStream lineOutput, OutputStream outputStream) {
+        if (journaledOperations != null && !journaledOperations.isEmpty()) {
+            long lastSequence = 0L;
+            for (StockOperation stockOperation : journaledOperations) {
+                lastSequence = stockOperationJournal.append(stockOperation);
+            }
+            stockOperationJournal.commit(lastSequence);
+        }
+        try {
+            lineOutput.writeTo(outputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Same as {@link #calculateAndWriteTaxes} without throwing for a malformed line or an operation that can not be
+     * calculated. The taxes go to a line buffer, so the ones calculated before the error are dropped, and the operations
+     * are only journaled once the whole line is valid. The remaining operations of a rejected line are still parsed,
+     * as a malformed array takes precedence over an invalid operation.
+     *
+     * @return the state after the operations of the line, null when the line was written as an error
+     */
+    private StockTransaction calculateAndWriteTaxesOrError(String operationStringList, OutputStream outputStream, StockTransaction initialStockTransaction) {
+        long lineStartTime = taxCalculationMetrics.startTime();
+        TaxCalculationSession taxCalculationSession = taxCalculationUseCase.openSession(initialStockTransaction);
+        ByteArrayOutputStream lineOutput = new ByteArrayOutputStream(LINE_BUFFER_SIZE);
+        TaxListStreamWriter taxListStreamWriter = stringToTaxListParserAdapter.openStreamWriter(lineOutput);
+        List<StockOperation> journaledOperations = stockOperationJournal == null ? null : new ArrayList<>();
+        long[] parseStartTime = {lineStartTime};
+        ErrorCode[] operationError = {null};
+        boolean parsed = stringToStockOperationParserAdapter.tryParseString(operationStringList, stockOperationDTO -> {
+            if (operationError[0] != null) {
+                return;
+            }
+            taxCalculationMetrics.record(Stage.PARSE, parseStartTime[0]);
+            operationError[0] = StockOperationTransformer.validate(stockOperationDTO);
+            if (operationError[0] != null) {
+                return;
+            }
+            TaxDTO taxDTO = taxCalculationSession.calculateTax(stockOperationDTO);
+            if (journaledOperations != null) {
+                journaledOperations.add(StockOperationTransformer.transform(stockOperationDTO));
+            }
+            long serializationStartTime = taxCalculationMetrics.startTime();
+            taxListStreamWriter.write(taxDTO);
+            parseStartTime[0] = taxCalculationMetrics.record(Stage.SERIALIZATION, serializationStartTime);
+        });
+        ErrorCode errorCode = parsed ? operationError[0] : ErrorCode.MALFORMED_LINE;
+        try {
+            if (errorCode != null) {
+                taxListStreamWriter.discard();
+                taxCalculationMetrics.recordError();
+                lineErrorCounts.record(errorCode);
+                outputStream.write(stringToTaxListParserAdapter.errorLine(errorCode));
+                return null;
+            }
+            taxListStreamWriter.finish();
+            journalAndWriteLine(journaledOperations, lineOutput, outputStream);
+            taxCalculationMetrics.recordLine(lineStartTime);
+            return taxCalculationSession.getStockTransaction();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isNewTransaction(StockTransaction stockTransaction) {
+        return stockTransaction.getCurrentStockQuantity() == 0L && stockTransaction.getWeightedAveragePrice() == 0d
+                && stockTransaction.getTotalLoss() == 0d;
+    }
+
+    /**
+     * Calculates the taxes parsing the whole list of operations first
+     *
+     * @param operationStringList Json array of operations
+     * @return Json array of taxes
+     */
+    public String calculateTaxesFromList(String operationStringList) {
+        long lineStartTime = taxCalculationMetrics.startTime();
+        try {
+            List<StockOperationDTO> operationList = stringToStockOperationParserAdapter.parseString(operationStringList);
+            taxCalculationMetrics.record(Stage.PARSE, lineStartTime, operationList.size());
+            List<TaxDTO> taxList = taxCalculationUseCase.calculateTaxes(operationList);
+            long serializationStartTime = taxCalculationMetrics.startTime();
+            String taxes = stringToTaxListParserAdapter.parseObject(taxList);
+            taxCalculationMetrics.record(Stage.SERIALIZATION, serializationStartTime, taxList.size());
+            taxCalculationMetrics.recordLine(lineStartTime);
+            return taxes;
+        } catch (RuntimeException e) {
+            taxCalculationMetrics.recordError();
+            throw e;
+        }
+    }
+
 
 }
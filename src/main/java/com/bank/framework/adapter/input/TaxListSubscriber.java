@@ -0,0 +1,108 @@
+package com.bank.framework.adapter.input;
+
+import com.bank.application.metrics.Stage;
+import com.bank.application.metrics.TaxCalculationMetrics;
+import com.bank.framework.adapter.output.StringToTaxListParserAdapter;
+import com.bank.framework.adapter.output.TaxListStreamWriter;
+import com.bank.framework.adapter.output.domain.TaxDTO;
+
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+
+/**
+ * Last stage of the Flow pipeline: writes the taxes of each list as a Json array followed by a line break, like the
+ * streaming CLI. Taxes are requested in batches of half the buffer size. The output stream is not flushed.
+ */
+public class TaxListSubscriber implements Flow.Subscriber<TaxDTO> {
+
+    private final StringToTaxListParserAdapter stringToTaxListParserAdapter;
+    private final OutputStream outputStream;
+    private final int bufferSize;
+    private final TaxCalculationMetrics taxCalculationMetrics;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    private Flow.Subscription subscription;
+    private TaxListStreamWriter taxListStreamWriter;
+    private int requestedTaxes;
+
+    /**
+     * Time the first tax of the list being written reached this stage
+     */
+    private long lineStartTime;
+
+    /**
+     * @param stringToTaxListParserAdapter serializes the taxes
+     * @param outputStream                 receives the Json arrays of taxes
+     * @param bufferSize                   maximum taxes requested at once
+     * @param taxCalculationMetrics        times the serialization of each tax, and each list from its first tax to its end
+     */
+    public TaxListSubscriber(StringToTaxListParserAdapter stringToTaxListParserAdapter, OutputStream outputStream, int bufferSize,
+                             TaxCalculationMetrics taxCalculationMetrics) {
+        this.stringToTaxListParserAdapter = stringToTaxListParserAdapter;
+        this.outputStream = outputStream;
+        this.bufferSize = Math.max(2, bufferSize);
+        this.taxCalculationMetrics = taxCalculationMetrics;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        requestedTaxes = bufferSize;
+        subscription.request(bufferSize);
+    }
+
+    @Override
+    public void onNext(TaxDTO taxDTO) {
+        if (completion.isDone()) {
+            return;
+        }
+        try {
+            if (taxListStreamWriter == null) {
+                lineStartTime = taxCalculationMetrics.startTime();
+                taxListStreamWriter = stringToTaxListParserAdapter.openStreamWriter(outputStream);
+            }
+            if (taxDTO == TaxCalculationProcessor.END_OF_LIST) {
+                taxListStreamWriter.finish();
+                taxListStreamWriter = null;
+                taxCalculationMetrics.recordLine(lineStartTime);
+            } else {
+                long serializationStartTime = taxCalculationMetrics.startTime();
+                taxListStreamWriter.write(taxDTO);
+                taxCalculationMetrics.record(Stage.SERIALIZATION, serializationStartTime);
+            }
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            completion.completeExceptionally(e);
+            return;
+        }
+        if (--requestedTaxes <= bufferSize / 2) {
+            subscription.request(bufferSize - requestedTaxes);
+            requestedTaxes = bufferSize;
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        completion.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        completion.complete(null);
+    }
+
+    /**
+     * Waits until every tax is written
+     *
+     * @throws RuntimeException the failure of any stage of the pipeline
+     */
+    public void awaitCompletion() {
+        try {
+            completion.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.bank.framework.adapter.output;
+
+import lombok.Builder;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Output stream whose bytes are written to a channel by a dedicated writer thread, so the thread producing the results
+ * never waits for the device.
+ * <p>
+ * Written bytes are gathered in chunks, handed to the writer through a lock-free queue when they fill up or on a
+ * flush. The writer copies the chunks into a large direct buffer, written to the channel in one call when it cannot
+ * take the next chunk, when a flush asks for it, or when its oldest byte waited longer than the maximum delay. Chunks
+ * are recycled once copied, and at most {@code maxPendingChunks} wait in the queue, after which the producer waits for
+ * the writer, so a slow device bounds the memory instead of letting the results pile up.
+ * <p>
+ * Bytes are written in the order they were given. {@link #flush()} does not wait for the device, {@link #close()}
+ * writes every pending byte, stops the writer and closes the channel. A failure of the writer is thrown by the next
+ * call of the producer.
+ */
+public class AsyncBatchedOutputStream extends OutputStream {
+
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 13;
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 18;
+    private static final int DEFAULT_MAX_PENDING_CHUNKS = 64;
+
+    /**
+     * Time the producer waits between two checks of a full queue
+     */
+    private static final long FULL_QUEUE_WAIT_NANOS = 50_000L;
+
+    private final WritableByteChannel channel;
+    private final int chunkSize;
+    private final int bufferSize;
+    private final long maxFlushDelayNanos;
+    private final int maxPendingChunks;
+
+    private final ConcurrentLinkedQueue<Chunk> pendingChunks = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Chunk> freeChunks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingChunkCount = new AtomicInteger();
+    private final Thread writerThread;
+    private volatile boolean writerParked;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    /**
+     * Chunk being filled by the producer
+     */
+    private Chunk chunk;
+
+    /**
+     * Starts the writer thread
+     *
+     * @param channel          receives the bytes, e.g. the channel of the standard output
+     * @param chunkSize        bytes handed to the writer at once, 8 KB by default
+     * @param bufferSize       bytes written to the channel at once, at least one chunk, 256 KB by default
+     * @param maxFlushDelay    maximum time a byte waits in the writer before it is written, 100 ms by default
+     * @param maxPendingChunks maximum chunks waiting for the writer, 64 by default
+     */
+    @Builder
+    private AsyncBatchedOutputStream(@NonNull WritableByteChannel channel, Integer chunkSize, Integer bufferSize, Duration maxFlushDelay,
+                                     Integer maxPendingChunks) {
+        this.channel = channel;
+        this.chunkSize = Math.max(1, chunkSize == null ? DEFAULT_CHUNK_SIZE : chunkSize);
+        this.bufferSize = Math.max(this.chunkSize, bufferSize == null ? DEFAULT_BUFFER_SIZE : bufferSize);
+        this.maxFlushDelayNanos = (maxFlushDelay == null ? Duration.ofMillis(100) : maxFlushDelay).toNanos();
+        this.maxPendingChunks = Math.max(1, maxPendingChunks == null ? DEFAULT_MAX_PENDING_CHUNKS : maxPendingChunks);
+        this.chunk = new Chunk(this.chunkSize);
+        this.writerThread = new Thread(this::writeChunks, "output-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        ensureOpen();
+        if (chunk.length == chunk.bytes.length) {
+            handOff(false);
+        }
+        chunk.bytes[chunk.length++] = (byte) b;
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (chunk.length == chunk.bytes.length) {
+                handOff(false);
+            }
+            int copied = Math.min(len, chunk.bytes.length - chunk.length);
+            System.arraycopy(b, off, chunk.bytes, chunk.length, copied);
+            chunk.length += copied;
+            off += copied;
+            len -= copied;
+        }
+    }
+
+    /**
+     * Hands the pending bytes to the writer and asks it to write them to the channel, without waiting for it
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        ensureOpen();
+        handOff(true);
+    }
+
+    /**
+     * Writes every pending byte, waits for the writer thread to end and closes the channel
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (failure == null) {
+                handOff(true);
+            }
+        } finally {
+            closed = true;
+            LockSupport.unpark(writerThread);
+            awaitWriter();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void awaitWriter() {
+        boolean interrupted = false;
+        while (writerThread.isAlive()) {
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("The stream is closed");
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Queues the current chunk, waiting while the queue is full, and takes a recycled one
+     */
+    private void handOff(boolean flush) throws IOException {
+        while (pendingChunkCount.get() >= maxPendingChunks) {
+            if (failure != null) {
+                throw failure;
+            }
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(this, FULL_QUEUE_WAIT_NANOS);
+        }
+        chunk.flush = flush;
+        pendingChunkCount.incrementAndGet();
+        pendingChunks.offer(chunk);
+        if (writerParked) {
+            LockSupport.unpark(writerThread);
+        }
+        Chunk freeChunk = freeChunks.poll();
+        chunk = freeChunk == null ? new Chunk(chunkSize) : freeChunk;
+    }
+
+    /**
+     * Loop of the writer thread, until the stream is closed and every chunk is written
+     */
+    private void writeChunks() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+        long oldestByteTime = 0L;
+        while (true) {
+            Chunk pendingChunk = pendingChunks.poll();
+            if (pendingChunk == null) {
+                long waitedNanos = System.nanoTime() - oldestByteTime;
+                if (buffer.position() > 0 && waitedNanos >= maxFlushDelayNanos) {
+                    writeBuffer(buffer);
+                    continue;
+                }
+                boolean finished = closed;
+                writerParked = true;
+                if (pendingChunks.isEmpty()) {
+                    if (finished) {
+                        writeBuffer(buffer);
+                        return;
+                    }
+                    if (buffer.position() > 0) {
+                        LockSupport.parkNanos(this, maxFlushDelayNanos - waitedNanos);
+                    } else {
+                        LockSupport.park(this);
+                    }
+                }
+                writerParked = false;
+                continue;
+            }
+            pendingChunkCount.decrementAndGet();
+            if (pendingChunk.length > buffer.remaining()) {
+                writeBuffer(buffer);
+            }
+            if (buffer.position() == 0) {
+                oldestByteTime = System.nanoTime();
+            }
+            buffer.put(pendingChunk.bytes, 0, pendingChunk.length);
+            boolean flush = pendingChunk.flush;
+            pendingChunk.length = 0;
+            freeChunks.offer(pendingChunk);
+            if (flush) {
+                writeBuffer(buffer);
+            }
+        }
+    }
+
+    /**
+     * Writes the buffer to the channel, the bytes are dropped after a failure so the producer never waits for them
+     */
+    private void writeBuffer(ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            while (failure == null && buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private static final class Chunk {
+
+        private final byte[] bytes;
+        private int length;
+        private boolean flush;
+
+        private Chunk(int size) {
+            this.bytes = new byte[size];
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.domain.valueobject.OperationType;
+
+/**
+ * Fixed-width binary format of a sequence of operation lists, the binary counterpart of the Json input lines.
+ * <p>
+ * The file starts with an {@value #HEADER_SIZE}-byte header, a magic number and the format version, followed by
+ * {@value #RECORD_SIZE}-byte big-endian records:
+ * <pre>
+ * byte  record type: {@value #BUY}, {@value #SELL} or {@value #END_OF_LIST}
+ * long  unit cost in cents
+ * long  quantity
+ * </pre>
+ * An {@value #END_OF_LIST} record, with cost and quantity 0, closes every list, so each list is calculated as a new
+ * simulation like each Json line.
+ */
+public final class BinaryOperationLog {
+
+    static final int MAGIC_NUMBER = 0x4F504C47;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = Integer.BYTES * 2;
+    static final int RECORD_SIZE = Byte.BYTES + Long.BYTES * 2;
+
+    static final byte END_OF_LIST = 0;
+    static final byte BUY = 1;
+    static final byte SELL = 2;
+
+    /**
+     * Cost is stored scaled to whole cents
+     */
+    static final long CENTS_PER_UNIT = 100L;
+
+    private BinaryOperationLog() {
+    }
+
+    static byte toRecordType(OperationType operationType) {
+        return operationType == OperationType.SELL ? SELL : BUY;
+    }
+
+    static OperationType toOperationType(byte recordType) {
+        if (recordType == BUY) {
+            return OperationType.BUY;
+        } else if (recordType == SELL) {
+            return OperationType.SELL;
+        }
+        throw new IllegalStateException("Unknown record type " + recordType);
+    }
+}
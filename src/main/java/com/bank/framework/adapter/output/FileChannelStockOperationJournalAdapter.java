@@ -0,0 +1,379 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.domain.entity.StockOperation;
+import lombok.Builder;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead journal of operations kept in an append-only binary file written through a {@link FileChannel}.
+ * <p>
+ * The file starts with a {@value #HEADER_SIZE}-byte header, a magic number, the format version and the sequence of the
+ * last compacted operation, followed by length-prefixed big-endian records:
+ * <pre>
+ * int    length of the payload, {@value #PAYLOAD_SIZE}
+ * byte   operation type, {@link BinaryOperationLog#BUY} or {@link BinaryOperationLog#SELL}
+ * double unit cost
+ * long   quantity
+ * int    CRC32 of the payload
+ * </pre>
+ * Appended records are encoded into a direct buffer, written to the channel when it fills up or on a commit. Commits
+ * use group commit: the first caller writes every pending record and forces the channel once, while the callers
+ * arriving during the force wait for it and return without forcing again when it already covers their records. The
+ * cost of the force is shared by every operation appended before it, and appends go on while it runs.
+ * <p>
+ * Records are only written at the end and every commit forces all the records before it, so a crash can only leave
+ * an incomplete or corrupted tail of records that were never committed. Opening the journal keeps the valid records
+ * and truncates that tail.
+ * <p>
+ * Compacting copies the records after the compacted sequence into a new file, forced and then moved over the journal,
+ * so a crash in the middle of a compaction leaves the previous journal untouched.
+ */
+public class FileChannelStockOperationJournalAdapter implements StockOperationJournalOutputPort {
+
+    private static final int MAGIC_NUMBER = 0x4F504A4E;
+    private static final int VERSION = 2;
+    static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES;
+    static final int PAYLOAD_SIZE = Byte.BYTES + Double.BYTES + Long.BYTES;
+    static final int RECORD_SIZE = Integer.BYTES + PAYLOAD_SIZE + Integer.BYTES;
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final Path journalFile;
+    private FileChannel channel;
+
+    /**
+     * Sequence of the last operation removed by a compaction, the first record of the file follows it
+     */
+    private long compactedSequence;
+
+    /**
+     * Records appended and not yet written to the channel, guarded by this journal
+     */
+    private final ByteBuffer pendingRecords;
+    private final CRC32 crc32 = new CRC32();
+    private long appendedSequence;
+    private boolean closed;
+
+    /**
+     * Serializes the forces, so only one caller forces at a time and the others find their records already durable
+     */
+    private final Object commitLock = new Object();
+    private volatile long committedSequence;
+    private long forceCount;
+
+    /**
+     * Opens the journal, creating it when it does not exist and truncating the records after the last valid one
+     *
+     * @param journalFile the file of the journal
+     * @param bufferSize  bytes of records kept in memory before they are written to the channel
+     */
+    @Builder
+    private FileChannelStockOperationJournalAdapter(@NonNull Path journalFile, Integer bufferSize) {
+        this.journalFile = journalFile;
+        this.pendingRecords = ByteBuffer.allocateDirect(Math.max(RECORD_SIZE, bufferSize == null ? DEFAULT_BUFFER_SIZE : bufferSize));
+        try {
+            this.channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("The journal " + journalFile + " could not be opened", e);
+        }
+        try {
+            if (channel.size() == 0) {
+                channel.write(header(0L), 0);
+                channel.force(true);
+            }
+            long end = recover();
+            channel.position(end);
+            appendedSequence = sequenceAt(end);
+        } catch (IOException e) {
+            closeChannel();
+            throw new UncheckedIOException("The journal " + journalFile + " could not be opened", e);
+        } catch (RuntimeException e) {
+            closeChannel();
+            throw e;
+        }
+        committedSequence = appendedSequence;
+    }
+
+    @Override
+    public synchronized long append(StockOperation stockOperation) {
+        ensureOpen();
+        if (stockOperation.getUnitCost() == null || stockOperation.getQuantity() == null) {
+            throw new IllegalArgumentException("Only operations with a unit cost and a quantity can be journaled");
+        }
+        if (pendingRecords.remaining() < RECORD_SIZE) {
+            writePendingRecords();
+        }
+        int payloadStart = pendingRecords.position() + Integer.BYTES;
+        pendingRecords.putInt(PAYLOAD_SIZE)
+                .put(BinaryOperationLog.toRecordType(stockOperation.getOperationType()))
+                .putDouble(stockOperation.getUnitCost())
+                .putLong(stockOperation.getQuantity());
+        crc32.reset();
+        crc32.update(pendingRecords.duplicate().limit(payloadStart + PAYLOAD_SIZE).position(payloadStart));
+        pendingRecords.putInt((int) crc32.getValue());
+        return ++appendedSequence;
+    }
+
+    @Override
+    public synchronized long getLastSequence() {
+        return appendedSequence;
+    }
+
+    @Override
+    public void commit(long sequence) {
+        if (sequence <= committedSequence) {
+            return;
+        }
+        synchronized (commitLock) {
+            if (sequence <= committedSequence) {
+                return;
+            }
+            long writtenSequence;
+            synchronized (this) {
+                ensureOpen();
+                if (sequence > appendedSequence) {
+                    throw new IllegalArgumentException("The operation " + sequence + " was not appended, the last one is " + appendedSequence);
+                }
+                writePendingRecords();
+                writtenSequence = appendedSequence;
+            }
+            force();
+            committedSequence = writtenSequence;
+        }
+    }
+
+    @Override
+    public synchronized long replay(long fromSequence, Consumer<StockOperation> consumer) {
+        ensureOpen();
+        if (fromSequence < compactedSequence) {
+            throw new IllegalStateException("The operations up to " + compactedSequence + " of the journal " + journalFile
+                    + " were compacted, they cannot be replayed after " + fromSequence);
+        }
+        if (fromSequence > appendedSequence) {
+            throw new IllegalArgumentException("The operation " + fromSequence + " was not appended, the last one is " + appendedSequence);
+        }
+        writePendingRecords();
+        try {
+            long size = channel.size();
+            long end = readRecords(positionOf(fromSequence), consumer);
+            if (end != size) {
+                throw new IllegalStateException("The journal " + journalFile + " is corrupted at byte " + end);
+            }
+            return appendedSequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("The journal " + journalFile + " could not be replayed", e);
+        }
+    }
+
+    @Override
+    public void compact(long sequence) {
+        synchronized (commitLock) {
+            synchronized (this) {
+                ensureOpen();
+                if (sequence > committedSequence) {
+                    throw new IllegalArgumentException("Only committed operations can be compacted, the last one is " + committedSequence);
+                }
+                if (sequence <= compactedSequence) {
+                    return;
+                }
+                writePendingRecords();
+                Path compactedFile = journalFile.resolveSibling(journalFile.getFileName() + ".tmp");
+                try {
+                    try (FileChannel compactedChannel = FileChannel.open(compactedFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                            StandardOpenOption.TRUNCATE_EXISTING)) {
+                        compactedChannel.write(header(sequence), 0);
+                        compactedChannel.position(HEADER_SIZE);
+                        long position = positionOf(sequence);
+                        long size = channel.size();
+                        while (position < size) {
+                            position += channel.transferTo(position, size - position, compactedChannel);
+                        }
+                        compactedChannel.force(true);
+                    }
+                    Files.move(compactedFile, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("The journal " + journalFile + " could not be compacted", e);
+                }
+                // The journal was replaced, the previous channel still points to the removed file
+                FileChannel previousChannel = channel;
+                closed = true;
+                try {
+                    previousChannel.close();
+                    channel = FileChannel.open(journalFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    channel.position(channel.size());
+                } catch (IOException e) {
+                    throw new UncheckedIOException("The compacted journal " + journalFile + " could not be opened", e);
+                }
+                closed = false;
+                compactedSequence = sequence;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (commitLock) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                try {
+                    writePendingRecords();
+                    force();
+                    committedSequence = appendedSequence;
+                } finally {
+                    closed = true;
+                    closeChannel();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of times the channel was forced to the device since the journal was opened
+     */
+    long getForceCount() {
+        synchronized (commitLock) {
+            return forceCount;
+        }
+    }
+
+    private static ByteBuffer header(long compactedSequence) {
+        return ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC_NUMBER).putInt(VERSION).putLong(compactedSequence).flip();
+    }
+
+    /**
+     * Reads the header and the valid records, truncating what follows them
+     *
+     * @return the end of the last valid record
+     */
+    private long recover() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        if (header.hasRemaining() || header.getInt(0) != MAGIC_NUMBER) {
+            throw new IllegalStateException("The file " + journalFile + " is not an operation journal");
+        }
+        int version = header.getInt(Integer.BYTES);
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported journal version " + version);
+        }
+        compactedSequence = header.getLong(Integer.BYTES * 2);
+        long end = readRecords(HEADER_SIZE, null);
+        if (end < channel.size()) {
+            channel.truncate(end);
+            channel.force(true);
+        }
+        return end;
+    }
+
+    /**
+     * Reads the records from the given position until the end of the file or the first invalid record
+     *
+     * @param start    position of the first record to read
+     * @param consumer receives each valid operation, records are only checked when null
+     * @return the end of the last valid record
+     */
+    private long readRecords(long start, Consumer<StockOperation> consumer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(RECORD_SIZE, pendingRecords.capacity()));
+        long position = start;
+        long readPosition = start;
+        while (true) {
+            int read = channel.read(buffer, readPosition);
+            if (read > 0) {
+                readPosition += read;
+            }
+            buffer.flip();
+            while (buffer.remaining() >= Integer.BYTES) {
+                int payloadSize = buffer.getInt(buffer.position());
+                if (payloadSize != PAYLOAD_SIZE || buffer.remaining() < RECORD_SIZE) {
+                    break;
+                }
+                int payloadStart = buffer.position() + Integer.BYTES;
+                crc32.reset();
+                crc32.update(buffer.duplicate().limit(payloadStart + PAYLOAD_SIZE).position(payloadStart));
+                if (buffer.getInt(payloadStart + PAYLOAD_SIZE) != (int) crc32.getValue()) {
+                    break;
+                }
+                if (consumer != null) {
+                    consumer.accept(StockOperation.builder()
+                            .operationType(BinaryOperationLog.toOperationType(buffer.get(payloadStart)))
+                            .unitCost(buffer.getDouble(payloadStart + Byte.BYTES))
+                            .quantity(buffer.getLong(payloadStart + Byte.BYTES + Double.BYTES))
+                            .build());
+                }
+                buffer.position(buffer.position() + RECORD_SIZE);
+                position += RECORD_SIZE;
+            }
+            boolean invalidRecord = buffer.remaining() >= RECORD_SIZE
+                    || (buffer.remaining() >= Integer.BYTES && buffer.getInt(buffer.position()) != PAYLOAD_SIZE);
+            buffer.compact();
+            if (read < 0 || invalidRecord) {
+                return position;
+            }
+        }
+    }
+
+    /**
+     * @return the position in the file of the record following the operation with the given sequence
+     */
+    private long positionOf(long sequence) {
+        return HEADER_SIZE + (sequence - compactedSequence) * RECORD_SIZE;
+    }
+
+    /**
+     * @return the sequence of the operation whose record ends at the given position
+     */
+    private long sequenceAt(long position) {
+        return compactedSequence + (position - HEADER_SIZE) / RECORD_SIZE;
+    }
+
+    private void writePendingRecords() {
+        pendingRecords.flip();
+        try {
+            while (pendingRecords.hasRemaining()) {
+                channel.write(pendingRecords);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("The journal " + journalFile + " could not be written", e);
+        } finally {
+            pendingRecords.clear();
+        }
+    }
+
+    /**
+     * Forces the written records to the device, the size of the file is part of the data forced
+     */
+    private void force() {
+        try {
+            channel.force(false);
+            forceCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("The journal " + journalFile + " could not be forced", e);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("The journal " + journalFile + " is closed");
+        }
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("The journal " + journalFile + " could not be closed", e);
+        }
+    }
+}
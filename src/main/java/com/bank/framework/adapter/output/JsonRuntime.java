@@ -0,0 +1,42 @@
+package com.bank.framework.adapter.output;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson runtime shared by every Json adapter, each part created on first use.
+ * <p>
+ * Creating an {@link ObjectMapper} loads and initializes a few hundred databind classes, which is most of the startup
+ * of a short CLI run. The streaming parsers and generators only need the {@link JsonFactory} of jackson-core, so the
+ * CLI, which reads the operations with {@link Utf8StockOperationParser} and writes the taxes with a generator, never
+ * creates the mapper. Both are thread safe and are created once per JVM, whatever the number of adapters.
+ */
+public final class JsonRuntime {
+
+    private JsonRuntime() {
+    }
+
+    /**
+     * @return the factory of streaming parsers and generators
+     */
+    public static JsonFactory jsonFactory() {
+        return JsonFactoryHolder.JSON_FACTORY;
+    }
+
+    /**
+     * @return the mapper of the data binding
+     */
+    public static ObjectMapper objectMapper() {
+        return ObjectMapperHolder.OBJECT_MAPPER;
+    }
+
+    private static final class JsonFactoryHolder {
+
+        private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    }
+
+    private static final class ObjectMapperHolder {
+
+        private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    }
+}
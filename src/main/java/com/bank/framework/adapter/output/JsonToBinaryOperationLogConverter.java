@@ -0,0 +1,81 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.domain.valueobject.OperationType;
+import lombok.Builder;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+
+/**
+ * Converts Json lines of operations into a {@link BinaryOperationLog}, one list per line
+ */
+@Builder
+public class JsonToBinaryOperationLogConverter {
+
+    private static final int BUFFER_SIZE = BinaryOperationLog.RECORD_SIZE * 4096;
+
+    @NonNull
+    private final StringToStockOperationParserAdapter stringToStockOperationParserAdapter;
+
+    /**
+     * @param operationStrings Json arrays of operations, one per list
+     * @param binaryFile       the file to create or replace
+     * @return the number of converted operations
+     */
+    public long convert(Iterator<String> operationStrings, Path binaryFile) {
+        try (FileChannel channel = FileChannel.open(binaryFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.putInt(BinaryOperationLog.MAGIC_NUMBER).putInt(BinaryOperationLog.VERSION);
+            long[] operationCount = {0L};
+            while (operationStrings.hasNext()) {
+                stringToStockOperationParserAdapter.parseString(operationStrings.next(), stockOperationDTO -> {
+                    OperationType operationType = OperationType.getOperationTypeByName(stockOperationDTO.getOperation());
+                    putRecord(channel, buffer, BinaryOperationLog.toRecordType(operationType), toCents(stockOperationDTO.getUnitCost()), stockOperationDTO.getQuantity());
+                    operationCount[0]++;
+                });
+                putRecord(channel, buffer, BinaryOperationLog.END_OF_LIST, 0L, 0L);
+            }
+            drain(channel, buffer);
+            return operationCount[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException("The operation log could not be written in " + binaryFile, e);
+        }
+    }
+
+    /**
+     * Scales the cost to cents, only costs with at most two decimal places are accepted so the replay reads back
+     * exactly the same value
+     */
+    private static long toCents(double unitCost) {
+        long cents = Math.round(unitCost * BinaryOperationLog.CENTS_PER_UNIT);
+        if ((double) cents / BinaryOperationLog.CENTS_PER_UNIT != unitCost) {
+            throw new IllegalArgumentException("The unit cost " + unitCost + " has more than two decimal places");
+        }
+        return cents;
+    }
+
+    private static void putRecord(FileChannel channel, ByteBuffer buffer, byte recordType, long unitCostInCents, long quantity) {
+        if (buffer.remaining() < BinaryOperationLog.RECORD_SIZE) {
+            drain(channel, buffer);
+        }
+        buffer.put(recordType).putLong(unitCostInCents).putLong(quantity);
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+}
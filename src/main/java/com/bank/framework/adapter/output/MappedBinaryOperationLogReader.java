@@ -0,0 +1,146 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.domain.service.OperationTaxEngine;
+import com.bank.domain.valueobject.OperationType;
+import lombok.Builder;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replays a {@link BinaryOperationLog} straight from a memory mapping into an {@link OperationTaxEngine}.
+ * <p>
+ * Records are read with absolute gets on the mapped buffer and decoded into columns of at most {@code batchSize}
+ * operations, calculated at once by {@link OperationTaxEngine#calculateTaxes}, so no object is created per record.
+ * Files bigger than a single mapping are mapped in consecutive windows of whole records.
+ */
+@Builder
+public class MappedBinaryOperationLogReader {
+
+    private static final long DEFAULT_WINDOW_SIZE = (Integer.MAX_VALUE / BinaryOperationLog.RECORD_SIZE) * (long) BinaryOperationLog.RECORD_SIZE;
+
+    @NonNull
+    private final Path binaryFile;
+
+    /**
+     * Bytes mapped at once, rounded down to whole records
+     */
+    @Builder.Default
+    private final long windowSize = DEFAULT_WINDOW_SIZE;
+
+    /**
+     * Operations decoded before calculating them, a batch never spans two lists
+     */
+    @Builder.Default
+    private final int batchSize = 4096;
+
+    /**
+     * Calculates every operation of the log, the engine is reset at the end of each list
+     *
+     * @param operationTaxEngine the engine calculating the taxes
+     * @param taxConsumer        receives the taxes in order
+     * @return the number of replayed operations
+     */
+    public long replay(OperationTaxEngine operationTaxEngine, OperationLogTaxConsumer taxConsumer) {
+        try (FileChannel channel = FileChannel.open(binaryFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            checkHeader(channel, size);
+            long recordsSize = size - BinaryOperationLog.HEADER_SIZE;
+            if (recordsSize % BinaryOperationLog.RECORD_SIZE != 0) {
+                throw new IllegalStateException("The operation log " + binaryFile + " ends with an incomplete record");
+            }
+            long recordsPerWindow = Math.max(1L, windowSize / BinaryOperationLog.RECORD_SIZE);
+            Batch batch = new Batch(Math.max(1, batchSize));
+            long operationCount = 0L;
+            for (long position = BinaryOperationLog.HEADER_SIZE; position < size; ) {
+                long mappedSize = Math.min(recordsPerWindow * BinaryOperationLog.RECORD_SIZE, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, mappedSize);
+                operationCount += replayWindow(window, (int) mappedSize, batch, operationTaxEngine, taxConsumer);
+                position += mappedSize;
+            }
+            batch.calculate(operationTaxEngine, taxConsumer);
+            return operationCount;
+        } catch (IOException e) {
+            throw new UncheckedIOException("The operation log " + binaryFile + " could not be read", e);
+        }
+    }
+
+    private static long replayWindow(MappedByteBuffer window, int mappedSize, Batch batch, OperationTaxEngine operationTaxEngine,
+                                     OperationLogTaxConsumer taxConsumer) {
+        long operationCount = 0L;
+        for (int offset = 0; offset < mappedSize; offset += BinaryOperationLog.RECORD_SIZE) {
+            byte recordType = window.get(offset);
+            if (recordType == BinaryOperationLog.END_OF_LIST) {
+                batch.calculate(operationTaxEngine, taxConsumer);
+                operationTaxEngine.reset();
+                taxConsumer.endOfList();
+            } else {
+                double unitCost = (double) window.getLong(offset + Byte.BYTES) / BinaryOperationLog.CENTS_PER_UNIT;
+                long quantity = window.getLong(offset + Byte.BYTES + Long.BYTES);
+                if (batch.add(BinaryOperationLog.toOperationType(recordType), unitCost, quantity)) {
+                    batch.calculate(operationTaxEngine, taxConsumer);
+                }
+                operationCount++;
+            }
+        }
+        return operationCount;
+    }
+
+    private void checkHeader(FileChannel channel, long size) throws IOException {
+        if (size < BinaryOperationLog.HEADER_SIZE) {
+            throw new IllegalStateException("The file " + binaryFile + " is not an operation log");
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, BinaryOperationLog.HEADER_SIZE);
+        if (header.getInt() != BinaryOperationLog.MAGIC_NUMBER) {
+            throw new IllegalStateException("The file " + binaryFile + " is not an operation log");
+        }
+        int version = header.getInt();
+        if (version != BinaryOperationLog.VERSION) {
+            throw new IllegalStateException("Unsupported operation log version " + version);
+        }
+    }
+
+    /**
+     * Columns of the operations decoded and not calculated yet
+     */
+    private static final class Batch {
+
+        private final OperationType[] operationTypes;
+        private final double[] unitCosts;
+        private final long[] quantities;
+        private final double[] taxes;
+        private final boolean[] rejected;
+        private int length;
+
+        private Batch(int capacity) {
+            operationTypes = new OperationType[capacity];
+            unitCosts = new double[capacity];
+            quantities = new long[capacity];
+            taxes = new double[capacity];
+            rejected = new boolean[capacity];
+        }
+
+        /**
+         * @return if the batch is full
+         */
+        boolean add(OperationType operationType, double unitCost, long quantity) {
+            operationTypes[length] = operationType;
+            unitCosts[length] = unitCost;
+            quantities[length] = quantity;
+            return ++length == operationTypes.length;
+        }
+
+        void calculate(OperationTaxEngine operationTaxEngine, OperationLogTaxConsumer taxConsumer) {
+            operationTaxEngine.calculateTaxes(operationTypes, unitCosts, quantities, length, taxes, rejected);
+            for (int i = 0; i < length; i++) {
+                taxConsumer.accept(taxes[i], rejected[i]);
+            }
+            length = 0;
+        }
+    }
+}
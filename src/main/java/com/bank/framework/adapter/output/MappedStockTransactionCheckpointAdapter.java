@@ -0,0 +1,126 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.domain.entity.StockTransaction;
+import com.bank.framework.adapter.output.domain.StockTransactionSnapshot;
+import lombok.Builder;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps the state of a transaction in a fixed-size binary file accessed through a memory mapping.
+ * <p>
+ * Layout, big-endian, {@value #CHECKPOINT_SIZE} bytes:
+ * <pre>
+ * int    magic number
+ * int    format version
+ * long   sequence in the operation journal of the last operation included, 0 without a journal
+ * long   current stock quantity
+ * double weighted-average price
+ * double total loss
+ * int    CRC32 of the previous bytes
+ * </pre>
+ * A checkpoint is written into a temporary file next to the target, forced to the device and then moved over the
+ * previous one, so a crash in the middle of a save leaves the previous checkpoint untouched. The same file keeps the
+ * snapshots of the {@link MappedStockTransactionSnapshotAdapter}.
+ */
+@Builder
+public class MappedStockTransactionCheckpointAdapter implements StockTransactionCheckpointOutputPort {
+
+    private static final int MAGIC_NUMBER = 0x53544B43;
+    private static final int VERSION = 2;
+    private static final int PAYLOAD_SIZE = Integer.BYTES * 2 + Long.BYTES * 2 + Double.BYTES * 2;
+    static final int CHECKPOINT_SIZE = PAYLOAD_SIZE + Integer.BYTES;
+
+    @NonNull
+    private final Path checkpointFile;
+
+    @Override
+    public void save(StockTransaction stockTransaction) {
+        save(0L, stockTransaction);
+    }
+
+    @Override
+    public Optional<StockTransaction> load() {
+        return loadSnapshot().map(StockTransactionSnapshot::getStockTransaction);
+    }
+
+    /**
+     * Persist the state of the transaction after the operation with the given sequence in its journal
+     *
+     * @param sequence         the sequence of the last operation included in the state
+     * @param stockTransaction the transaction to persist, the operations are not persisted
+     */
+    void save(long sequence, StockTransaction stockTransaction) {
+        Path temporaryFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, CHECKPOINT_SIZE);
+                buffer.putInt(MAGIC_NUMBER)
+                        .putInt(VERSION)
+                        .putLong(sequence)
+                        .putLong(stockTransaction.getCurrentStockQuantity())
+                        .putDouble(stockTransaction.getWeightedAveragePrice())
+                        .putDouble(stockTransaction.getTotalLoss());
+                buffer.putInt(checksum(buffer));
+                buffer.force();
+            }
+            Files.move(temporaryFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("The checkpoint could not be saved in " + checkpointFile, e);
+        }
+    }
+
+    /**
+     * @return the last persisted state and the sequence of its last operation, empty when nothing was persisted yet
+     */
+    Optional<StockTransactionSnapshot> loadSnapshot() {
+        if (!Files.exists(checkpointFile)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(checkpointFile, StandardOpenOption.READ)) {
+            if (channel.size() != CHECKPOINT_SIZE) {
+                throw new IllegalStateException("The checkpoint " + checkpointFile + " has " + channel.size() + " bytes, " + CHECKPOINT_SIZE + " were expected");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, CHECKPOINT_SIZE);
+            if (buffer.getInt() != MAGIC_NUMBER) {
+                throw new IllegalStateException("The file " + checkpointFile + " is not a checkpoint");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported checkpoint version " + version);
+            }
+            long sequence = buffer.getLong();
+            long currentStockQuantity = buffer.getLong();
+            double weightedAveragePrice = buffer.getDouble();
+            double totalLoss = buffer.getDouble();
+            if (buffer.getInt(PAYLOAD_SIZE) != checksum(buffer.position(PAYLOAD_SIZE))) {
+                throw new IllegalStateException("The checkpoint " + checkpointFile + " is corrupted");
+            }
+            return Optional.of(StockTransactionSnapshot.builder().sequence(sequence)
+                    .stockTransaction(StockTransaction.fromState(currentStockQuantity, weightedAveragePrice, totalLoss)).build());
+        } catch (IOException e) {
+            throw new UncheckedIOException("The checkpoint could not be loaded from " + checkpointFile, e);
+        }
+    }
+
+    /**
+     * CRC32 of the bytes before the current position of the buffer
+     */
+    private static int checksum(ByteBuffer buffer) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(buffer.duplicate().flip());
+        return (int) crc32.getValue();
+    }
+}
@@ -0,0 +1,36 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.framework.adapter.output.domain.StockTransactionSnapshot;
+import lombok.Builder;
+import lombok.NonNull;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Keeps the last snapshot of a transaction in the file format of the {@link MappedStockTransactionCheckpointAdapter},
+ * whose sequence field records the last operation included, so a snapshot is saved with the same atomic replacement
+ * of the previous one.
+ */
+public class MappedStockTransactionSnapshotAdapter implements StockTransactionSnapshotOutputPort {
+
+    private final MappedStockTransactionCheckpointAdapter checkpointAdapter;
+
+    /**
+     * @param snapshotFile the file of the snapshot
+     */
+    @Builder
+    private MappedStockTransactionSnapshotAdapter(@NonNull Path snapshotFile) {
+        this.checkpointAdapter = MappedStockTransactionCheckpointAdapter.builder().checkpointFile(snapshotFile).build();
+    }
+
+    @Override
+    public void save(StockTransactionSnapshot stockTransactionSnapshot) {
+        checkpointAdapter.save(stockTransactionSnapshot.getSequence(), stockTransactionSnapshot.getStockTransaction());
+    }
+
+    @Override
+    public Optional<StockTransactionSnapshot> load() {
+        return checkpointAdapter.loadSnapshot();
+    }
+}
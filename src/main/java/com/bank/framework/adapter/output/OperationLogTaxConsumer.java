@@ -0,0 +1,18 @@
+package com.bank.framework.adapter.output;
+
+/**
+ * Receives the taxes replayed from a binary operation log, without creating an object per operation
+ */
+public interface OperationLogTaxConsumer {
+
+    /**
+     * @param tax      the tax of the next operation of the current list
+     * @param rejected if the operation was rejected because there was not enough stock
+     */
+    void accept(double tax, boolean rejected);
+
+    /**
+     * The current list of operations ended, the next tax starts a new simulation
+     */
+    void endOfList();
+}
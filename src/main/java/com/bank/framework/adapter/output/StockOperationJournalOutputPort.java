@@ -0,0 +1,99 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.application.usecases.TaxCalculationSession;
+import com.bank.application.usecases.TaxCalculationUseCase;
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.service.StockOperationService;
+import com.bank.framework.adapter.output.domain.StockOperationDTO;
+
+import java.io.Closeable;
+import java.util.function.Consumer;
+
+/**
+ * Interface of a write-ahead journal of the operations received, so the state of a transaction can be rebuilt after a
+ * crash without the operations being sent again.
+ * <p>
+ * Appending and making durable are separate steps: an appended operation is only guaranteed to survive a crash once a
+ * {@link #commit(long)} covering its sequence returns, and a single commit covers every operation appended before it.
+ */
+public interface StockOperationJournalOutputPort extends Closeable {
+
+    /**
+     * Adds an operation at the end of the journal, it may not be durable yet
+     *
+     * @param stockOperation the operation to journal, it is not retained
+     * @return the sequence of the operation in the journal, starting at 1
+     */
+    long append(StockOperation stockOperation);
+
+    /**
+     * @return the sequence of the last appended operation, 0 when the journal never had operations
+     */
+    long getLastSequence();
+
+    /**
+     * Waits until the operation with the given sequence, and every operation before it, is durable
+     *
+     * @param sequence a sequence returned by {@link #append(StockOperation)}
+     */
+    void commit(long sequence);
+
+    /**
+     * Reads in order the journaled operations after the given one
+     *
+     * @param fromSequence the sequence of the last operation not to read, 0 reads every operation
+     * @param consumer     receives each operation
+     * @return the sequence of the last operation read
+     * @throws IllegalStateException when the operations after the given one were compacted
+     */
+    long replay(long fromSequence, Consumer<StockOperation> consumer);
+
+    /**
+     * Rebuilds a transaction processing the journaled operations after the given one through the domain service
+     *
+     * @param fromSequence            the sequence of the last operation already included in the initial transaction
+     * @param stockOperationService   the service calculating each operation
+     * @param initialStockTransaction the state after the operation with the given sequence
+     * @return the state after the journaled operations, without the operations
+     */
+    default StockTransaction replay(long fromSequence, StockOperationService stockOperationService, StockTransaction initialStockTransaction) {
+        StockTransaction[] stockTransaction = {initialStockTransaction.withoutOperations()};
+        replay(fromSequence, stockOperation -> stockTransaction[0] = stockOperationService.processOperation(stockOperation, stockTransaction[0]).withoutOperations());
+        return stockTransaction[0];
+    }
+
+    /**
+     * Rebuilds a transaction processing the journaled operations after the given one through a session of the use case,
+     * so the state is rounded by the same engine that calculates the live operations
+     *
+     * @param fromSequence            the sequence of the last operation already included in the initial transaction
+     * @param taxCalculationUseCase   the use case calculating each operation
+     * @param initialStockTransaction the state after the operation with the given sequence
+     * @return the state after the journaled operations, without the operations
+     */
+    default StockTransaction replay(long fromSequence, TaxCalculationUseCase taxCalculationUseCase, StockTransaction initialStockTransaction) {
+        TaxCalculationSession taxCalculationSession = taxCalculationUseCase.openSession(initialStockTransaction);
+        StockOperationDTO stockOperationDTO = new StockOperationDTO();
+        replay(fromSequence, stockOperation -> {
+            stockOperationDTO.setOperation(stockOperation.getOperationType().getOperationName());
+            stockOperationDTO.setUnitCost(stockOperation.getUnitCost());
+            stockOperationDTO.setQuantity(stockOperation.getQuantity());
+            taxCalculationSession.calculateTax(stockOperationDTO);
+        });
+        return taxCalculationSession.getStockTransaction();
+    }
+
+    /**
+     * Removes the operations up to the given one, which must be committed, once their state is kept elsewhere
+     *
+     * @param sequence the sequence of the last operation to remove
+     */
+    void compact(long sequence);
+
+    /**
+     * Makes every appended operation durable and releases the journal
+     */
+    @Override
+    void close();
+}
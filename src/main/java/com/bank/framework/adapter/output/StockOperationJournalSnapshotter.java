@@ -0,0 +1,121 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.application.usecases.TaxCalculationUseCase;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.service.StockOperationService;
+import com.bank.framework.adapter.output.domain.StockTransactionSnapshot;
+import lombok.Builder;
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * Bounds the time to rebuild a transaction from its operation journal.
+ * <p>
+ * Every given number of journaled operations, or after the given interval when there are new operations, the state of
+ * the transaction is saved in a snapshot that records the sequence of its last operation, and the journal is compacted
+ * up to it. A restart loads the snapshot and only replays the operations after it, so its time depends on the
+ * operations since the last snapshot instead of on the whole history.
+ * <p>
+ * The snapshot is saved before the journal is compacted, so a crash between both steps leaves a journal that still
+ * holds the operations of the snapshot, which the replay skips. This class is not thread safe.
+ */
+public class StockOperationJournalSnapshotter {
+
+    private final StockOperationJournalOutputPort stockOperationJournal;
+    private final StockTransactionSnapshotOutputPort stockTransactionSnapshotPort;
+    private final long operationsPerSnapshot;
+    private final long snapshotIntervalNanos;
+
+    /**
+     * Sequence of the last operation of the last snapshot, and when it was saved or loaded
+     */
+    private long snapshotSequence;
+    private long snapshotTime;
+
+    /**
+     * @param stockOperationJournal        the journal of the operations of the transaction
+     * @param stockTransactionSnapshotPort keeps the last snapshot
+     * @param operationsPerSnapshot        number of journaled operations after which a snapshot is due, 100000 by default
+     * @param snapshotInterval             time after which a snapshot is due if there are new operations, 1 minute by default
+     */
+    @Builder
+    private StockOperationJournalSnapshotter(@NonNull StockOperationJournalOutputPort stockOperationJournal,
+                                             @NonNull StockTransactionSnapshotOutputPort stockTransactionSnapshotPort,
+                                             Long operationsPerSnapshot, Duration snapshotInterval) {
+        this.stockOperationJournal = stockOperationJournal;
+        this.stockTransactionSnapshotPort = stockTransactionSnapshotPort;
+        this.operationsPerSnapshot = Math.max(1L, operationsPerSnapshot == null ? 100_000L : operationsPerSnapshot);
+        this.snapshotIntervalNanos = (snapshotInterval == null ? Duration.ofMinutes(1) : snapshotInterval).toNanos();
+        this.snapshotTime = System.nanoTime();
+    }
+
+    /**
+     * Rebuilds the transaction from the last snapshot and the operations journaled after it
+     *
+     * @param stockOperationService the service calculating each replayed operation
+     * @return the state after the last journaled operation, without the operations
+     */
+    public StockTransaction recover(StockOperationService stockOperationService) {
+        return recover((sequence, stockTransaction) -> stockOperationJournal.replay(sequence, stockOperationService, stockTransaction));
+    }
+
+    /**
+     * Rebuilds the transaction from the last snapshot and the operations journaled after it, calculated by the same
+     * engine as the live operations so the rebuilt state is rounded the same way
+     *
+     * @param taxCalculationUseCase the use case calculating each replayed operation
+     * @return the state after the last journaled operation, without the operations
+     */
+    public StockTransaction recover(TaxCalculationUseCase taxCalculationUseCase) {
+        return recover((sequence, stockTransaction) -> stockOperationJournal.replay(sequence, taxCalculationUseCase, stockTransaction));
+    }
+
+    private StockTransaction recover(BiFunction<Long, StockTransaction, StockTransaction> replay) {
+        Optional<StockTransactionSnapshot> stockTransactionSnapshot = stockTransactionSnapshotPort.load();
+        long sequence = stockTransactionSnapshot.map(StockTransactionSnapshot::getSequence).orElse(0L);
+        if (sequence > stockOperationJournal.getLastSequence()) {
+            throw new IllegalStateException("The snapshot includes the operation " + sequence + " but the journal ends at "
+                    + stockOperationJournal.getLastSequence());
+        }
+        StockTransaction stockTransaction = replay.apply(sequence,
+                stockTransactionSnapshot.map(StockTransactionSnapshot::getStockTransaction).orElseGet(StockTransaction::new));
+        snapshotSequence = sequence;
+        snapshotTime = System.nanoTime();
+        return stockTransaction;
+    }
+
+    /**
+     * Saves a snapshot when enough operations were journaled or enough time passed since the last one
+     *
+     * @param stockTransaction the state after the last journaled operation
+     * @return if a snapshot was saved
+     */
+    public boolean snapshotIfDue(StockTransaction stockTransaction) {
+        long newOperations = stockOperationJournal.getLastSequence() - snapshotSequence;
+        if (newOperations < operationsPerSnapshot && (newOperations == 0L || System.nanoTime() - snapshotTime < snapshotIntervalNanos)) {
+            return false;
+        }
+        snapshot(stockTransaction);
+        return true;
+    }
+
+    /**
+     * Saves a snapshot of the transaction, if there are new operations, and compacts the journal up to it
+     *
+     * @param stockTransaction the state after the last journaled operation
+     */
+    public void snapshot(StockTransaction stockTransaction) {
+        long sequence = stockOperationJournal.getLastSequence();
+        if (sequence == snapshotSequence) {
+            return;
+        }
+        stockOperationJournal.commit(sequence);
+        stockTransactionSnapshotPort.save(StockTransactionSnapshot.builder().sequence(sequence).stockTransaction(stockTransaction.withoutOperations()).build());
+        stockOperationJournal.compact(sequence);
+        snapshotSequence = sequence;
+        snapshotTime = System.nanoTime();
+    }
+}
@@ -0,0 +1,25 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.domain.entity.StockTransaction;
+
+import java.util.Optional;
+
+/**
+ * Interface to persist the state of a transaction, so a simulation can continue after a restart without processing
+ * the previous operations again
+ */
+public interface StockTransactionCheckpointOutputPort {
+
+    /**
+     * Persist the state of the transaction, the operations are not persisted
+     *
+     * @param stockTransaction the transaction to persist
+     */
+    void save(StockTransaction stockTransaction);
+
+    /**
+     * @return the last persisted state as a transaction with no operations, empty when nothing was persisted yet
+     */
+    Optional<StockTransaction> load();
+
+}
@@ -0,0 +1,25 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.framework.adapter.output.domain.StockTransactionSnapshot;
+
+import java.util.Optional;
+
+/**
+ * Interface to persist the state of a transaction together with its position in the operation journal, so a restart
+ * only replays the operations journaled after it
+ */
+public interface StockTransactionSnapshotOutputPort {
+
+    /**
+     * Persist the snapshot, replacing the previous one
+     *
+     * @param stockTransactionSnapshot the state and the sequence of its last operation
+     */
+    void save(StockTransactionSnapshot stockTransactionSnapshot);
+
+    /**
+     * @return the last persisted snapshot, empty when nothing was persisted yet
+     */
+    Optional<StockTransactionSnapshot> load();
+
+}
@@ -1,11 +1,20 @@
 package com.bank.framework.adapter.output;
 
 import com.bank.framework.adapter.output.domain.StockOperationDTO;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonToken;
 import lombok.Builder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Class to parse Json representation to Stock operation and otherwise.
@@ -13,7 +22,12 @@ import java.util.List;
 @Builder
 public class StringToStockOperationParserAdapter implements StringToObjectParserOutputPort <List<StockOperationDTO>> {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String OPERATION_FIELD = "operation";
+    private static final String UNIT_COST_FIELD = "unit-cost";
+    private static final String QUANTITY_FIELD = "quantity";
+    private static final String TICKER_FIELD = "ticker";
+
+    private final Utf8StockOperationParser utf8StockOperationParser = Utf8StockOperationParser.builder().build();
 
     /**
      * @param operationString
@@ -21,13 +35,129 @@ public class StringToStockOperationParserAdapter implements StringToObjectParser
      */
     @Override
     public List<StockOperationDTO> parseString(String operationString) {
+        List<StockOperationDTO> stockOperationDTOList = new ArrayList<>();
+        parseString(operationString, stockOperationDTO -> stockOperationDTOList.add(new StockOperationDTO(stockOperationDTO.getOperation(),
+                stockOperationDTO.getUnitCost(), stockOperationDTO.getQuantity(), stockOperationDTO.getTicker())));
+        return stockOperationDTOList;
+    }
+
+    /**
+     * Parse a Json array of operations, handing every operation to the consumer as soon as it is read.
+     * No list is built and the same DTO instance is reused for every operation, so the consumer must not retain it.
+     *
+     * @param operationString   Json array of operations
+     * @param operationConsumer receives each operation in order
+     * @see Utf8StockOperationParser
+     */
+    public void parseString(String operationString, Consumer<StockOperationDTO> operationConsumer) {
+        utf8StockOperationParser.parse(operationString.getBytes(StandardCharsets.UTF_8), operationConsumer);
+    }
+
+    /**
+     * Same as {@link #parseString(String, Consumer)} but returning a rejected line instead of throwing
+     *
+     * @param operationString   Json array of operations
+     * @param operationConsumer receives each operation in order, the ones before an error included
+     * @return if the whole line is a valid array of operations
+     * @see Utf8StockOperationParser#tryParse(byte[], Consumer)
+     */
+    public boolean tryParseString(String operationString, Consumer<StockOperationDTO> operationConsumer) {
+        return utf8StockOperationParser.tryParse(operationString.getBytes(StandardCharsets.UTF_8), operationConsumer);
+    }
+
+    /**
+     * Same as {@link #parseString(String, Consumer)} but reading UTF-8 bytes, without decoding them to a String first
+     *
+     * @param operationBytes    UTF-8 bytes of a Json array of operations
+     * @param operationConsumer receives each operation in order
+     */
+    public void parseBytes(byte[] operationBytes, Consumer<StockOperationDTO> operationConsumer) {
+        utf8StockOperationParser.parse(operationBytes, operationConsumer);
+    }
+
+    /**
+     * Same as {@link #parseBytes(byte[], Consumer)} reading the bytes between the position and the limit of the buffer
+     *
+     * @param operationBytes    UTF-8 bytes of a Json array of operations, heap or direct
+     * @param operationConsumer receives each operation in order
+     */
+    public void parseBytes(ByteBuffer operationBytes, Consumer<StockOperationDTO> operationConsumer) {
+        utf8StockOperationParser.parse(operationBytes, operationConsumer);
+    }
+
+    /**
+     * Same as {@link #parseString(String, Consumer)} but reading UTF-8 bytes from a stream, which is not closed
+     *
+     * @param inputStream       stream with a Json array of operations
+     * @param operationConsumer receives each operation in order
+     */
+    public void parseStream(InputStream inputStream, Consumer<StockOperationDTO> operationConsumer) {
         try {
-            return objectMapper.readValue(operationString, objectMapper.getTypeFactory().constructCollectionType(List.class, StockOperationDTO.class));
-        } catch (JsonProcessingException e) {
+            JsonParser parser = JsonRuntime.jsonFactory().createParser(inputStream);
+            parseOperations(parser, operationConsumer);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Same as {@link #parseString(String, Consumer)} but reading from a character stream, which is not closed
+     *
+     * @param reader            stream with a Json array of operations
+     * @param operationConsumer receives each operation in order
+     */
+    public void parseReader(Reader reader, Consumer<StockOperationDTO> operationConsumer) {
+        try {
+            JsonParser parser = JsonRuntime.jsonFactory().createParser(reader);
+            parseOperations(parser, operationConsumer);
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private void parseOperations(JsonParser parser, Consumer<StockOperationDTO> operationConsumer) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected an array of operations");
+        }
+        StockOperationDTO stockOperationDTO = new StockOperationDTO();
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+            stockOperationDTO.setOperation(null);
+            stockOperationDTO.setUnitCost(null);
+            stockOperationDTO.setQuantity(null);
+            stockOperationDTO.setTicker(null);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (OPERATION_FIELD.equals(fieldName)) {
+                    stockOperationDTO.setOperation(value == JsonToken.VALUE_NULL ? null : parser.getValueAsString());
+                } else if (UNIT_COST_FIELD.equals(fieldName)) {
+                    stockOperationDTO.setUnitCost(value == JsonToken.VALUE_NULL ? null : readNumber(parser, value).getDoubleValue());
+                } else if (QUANTITY_FIELD.equals(fieldName)) {
+                    stockOperationDTO.setQuantity(value == JsonToken.VALUE_NULL ? null : readNumber(parser, value).getLongValue());
+                } else if (TICKER_FIELD.equals(fieldName)) {
+                    stockOperationDTO.setTicker(value == JsonToken.VALUE_NULL ? null : parser.getValueAsString());
+                } else {
+                    throw new JsonParseException(parser, "Unrecognized field \"" + fieldName + "\" in an operation");
+                }
+            }
+            operationConsumer.accept(stockOperationDTO);
+        }
+        if (token != JsonToken.END_ARRAY) {
+            throw new JsonParseException(parser, "Expected an operation object or the end of the array");
+        }
+        if (parser.nextToken() != null) {
+            throw new JsonParseException(parser, "Unexpected content after the array of operations");
+        }
+    }
+
+    private JsonParser readNumber(JsonParser parser, JsonToken value) throws IOException {
+        if (!value.isNumeric()) {
+            throw new JsonParseException(parser, "Expected a number for the field \"" + parser.getCurrentName() + "\"");
+        }
+        return parser;
+    }
+
     /**
      * @param stockOperationDTOList
      * @return
@@ -35,7 +165,7 @@ public class StringToStockOperationParserAdapter implements StringToObjectParser
     @Override
     public String parseObject(List<StockOperationDTO> stockOperationDTOList) {
         try {
-            return objectMapper.writeValueAsString(stockOperationDTOList);
+            return JsonRuntime.objectMapper().writeValueAsString(stockOperationDTOList);
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
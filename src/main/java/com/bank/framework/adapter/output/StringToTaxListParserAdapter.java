@@ -1,10 +1,16 @@
 package com.bank.framework.adapter.output;
 
+import com.bank.domain.valueobject.ErrorCode;
 import com.bank.framework.adapter.output.domain.TaxDTO;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Builder;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -13,7 +19,16 @@ import java.util.List;
 @Builder
 public class StringToTaxListParserAdapter implements StringToObjectParserOutputPort <List<TaxDTO>> {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Line written instead of the taxes of a rejected line, one per code, indexed by ordinal
+     */
+    private static final byte[][] ERROR_LINES = new byte[ErrorCode.values().length][];
+
+    static {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            ERROR_LINES[errorCode.ordinal()] = ("{\"error\":\"" + errorCode.getCode() + "\"}\n").getBytes(StandardCharsets.UTF_8);
+        }
+    }
 
     /**
      * @param operationString String value
@@ -22,7 +37,7 @@ public class StringToTaxListParserAdapter implements StringToObjectParserOutputP
     @Override
     public List<TaxDTO> parseString(String operationString) {
         try {
-            return objectMapper.readValue(operationString, List.class);
+            return JsonRuntime.objectMapper().readValue(operationString, List.class);
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
@@ -35,9 +50,34 @@ public class StringToTaxListParserAdapter implements StringToObjectParserOutputP
     @Override
     public String parseObject(List<TaxDTO> taxList) {
         try {
-            return objectMapper.writeValueAsString(taxList);
+            return JsonRuntime.objectMapper().writeValueAsString(taxList);
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * @param errorCode the reason the line was rejected
+     * @return the UTF-8 bytes of the Json object with the code, followed by a line break, shared so they must not be modified
+     */
+    public byte[] errorLine(ErrorCode errorCode) {
+        return ERROR_LINES[errorCode.ordinal()];
+    }
+
+    /**
+     * Starts a Json array of taxes written directly as UTF-8 bytes into the output stream
+     *
+     * @param outputStream target of the array, preferably buffered and reused between lists
+     * @return the writer of the array elements
+     */
+    public TaxListStreamWriter openStreamWriter(OutputStream outputStream) {
+        try {
+            JsonGenerator jsonGenerator = JsonRuntime.jsonFactory().createGenerator(outputStream, JsonEncoding.UTF8)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            return new TaxListStreamWriter(jsonGenerator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
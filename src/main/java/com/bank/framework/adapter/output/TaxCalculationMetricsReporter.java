@@ -0,0 +1,63 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.application.metrics.TaxCalculationMetrics;
+import lombok.Builder;
+import lombok.NonNull;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prints the summary of the metrics periodically from a daemon thread, and once more when closed
+ */
+@Builder
+public class TaxCalculationMetricsReporter implements AutoCloseable {
+
+    @NonNull
+    private final TaxCalculationMetrics taxCalculationMetrics;
+
+    @NonNull
+    private final PrintStream printStream;
+
+    @NonNull
+    private final Duration interval;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Starts printing the summary every interval
+     */
+    public synchronized void start() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(this::report, interval.toNanos(), interval.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Prints the current summary
+     */
+    public void report() {
+        printStream.print(taxCalculationMetrics.summary());
+        printStream.flush();
+    }
+
+    /**
+     * Stops the periodic summary and prints the final one
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        report();
+    }
+}
@@ -0,0 +1,90 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.framework.adapter.output.domain.TaxDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+
+/**
+ * Writes a Json array of taxes element by element, with the same format as {@link StringToTaxListParserAdapter#parseObject}.
+ * The generator flushes its buffer into the target stream whenever it fills up, so the first taxes are written while
+ * the following ones are still being calculated. The target stream is neither flushed nor closed.
+ */
+public class TaxListStreamWriter {
+
+    private static final SerializedString TAX_FIELD = new SerializedString("tax");
+
+    private final JsonGenerator jsonGenerator;
+
+    TaxListStreamWriter(JsonGenerator jsonGenerator) {
+        this.jsonGenerator = jsonGenerator;
+        try {
+            jsonGenerator.writeStartArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param taxDTO the next tax of the list
+     */
+    public void write(TaxDTO taxDTO) {
+        try {
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeFieldName(TAX_FIELD);
+            if (Objects.isNull(taxDTO.getTax())) {
+                jsonGenerator.writeNull();
+            } else {
+                jsonGenerator.writeNumber(taxDTO.getTax());
+            }
+            jsonGenerator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Same as {@link #write(TaxDTO)} without creating the DTO
+     *
+     * @param tax the next tax of the list
+     */
+    public void write(double tax) {
+        try {
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeFieldName(TAX_FIELD);
+            jsonGenerator.writeNumber(tax);
+            jsonGenerator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Ends the array and the line, then hands the pending bytes to the target stream.
+     * If the calculation fails this method must not be called, so a partial list is never written as a complete one.
+     */
+    public void finish() {
+        try {
+            jsonGenerator.writeEndArray();
+            jsonGenerator.writeRaw('\n');
+            jsonGenerator.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Releases the buffers of a list that will not be finished, for a target stream whose bytes are dropped since the
+     * pending ones may be written into it
+     */
+    public void discard() {
+        try {
+            jsonGenerator.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,583 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.domain.valueobject.OperationType;
+import com.bank.framework.adapter.output.domain.StockOperationDTO;
+import lombok.Builder;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Parser of a Json array of operations written in UTF-8, specialized for the fields of {@link StockOperationDTO}.
+ * <p>
+ * The input is read byte by byte without decoding it first:
+ * <ul>
+ *     <li>field names are recognized by comparing their bytes with the ones of the known fields</li>
+ *     <li>the operations {@code buy} and {@code sell} are returned as the names of {@link OperationType}, so no String
+ *     is created for them and they match the operation type by reference</li>
+ *     <li>numbers are accumulated from their digits. A mantissa up to 2^53 scaled by a power of ten up to 10^22 is
+ *     converted with one correctly rounded multiplication or division, which gives the same double as
+ *     {@link Double#parseDouble(String)}, only longer numbers fall back to it</li>
+ * </ul>
+ * The grammar is strict Json: unknown fields, values of the wrong type, malformed numbers and strings, invalid UTF-8
+ * and anything after the array but whitespace are rejected with an {@link IllegalArgumentException} giving the offset
+ * of the error. {@link #tryParse(byte[], Consumer)} returns the rejection instead: inside the parser an error unwinds
+ * with one preallocated exception that has no stack trace, so a rejected input allocates nothing but its cursor.
+ * <p>
+ * This class is stateless and thread safe.
+ */
+@Builder
+public class Utf8StockOperationParser {
+
+    private static final byte[] OPERATION_FIELD = bytes("operation");
+    private static final byte[] UNIT_COST_FIELD = bytes("unit-cost");
+    private static final byte[] QUANTITY_FIELD = bytes("quantity");
+    private static final byte[] TICKER_FIELD = bytes("ticker");
+    private static final byte[] BUY = bytes(OperationType.BUY.getOperationName());
+    private static final byte[] SELL = bytes(OperationType.SELL.getOperationName());
+    private static final byte[] NULL = bytes("null");
+
+    private static final int OPERATION = 0;
+    private static final int UNIT_COST = 1;
+    private static final int QUANTITY = 2;
+    private static final int TICKER = 3;
+
+    /**
+     * Digits accumulated in the mantissa of a number, more digits fall back to {@link Double#parseDouble(String)}
+     */
+    private static final int MAX_MANTISSA_DIGITS = 18;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+            1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    private static final double MIN_LONG = Long.MIN_VALUE;
+    private static final double MAX_LONG = Long.MAX_VALUE;
+
+    /**
+     * Unwinds the cursor on an error, which keeps the message and the offset. It carries no state, so it is shared
+     */
+    private static final Failure FAILURE = new Failure();
+
+    /**
+     * Parse a Json array of operations, handing every operation to the consumer as soon as it is read.
+     * The same DTO instance is reused for every operation, so the consumer must not retain it.
+     *
+     * @param json              UTF-8 bytes of the array
+     * @param operationConsumer receives each operation in order
+     */
+    public void parse(byte[] json, Consumer<StockOperationDTO> operationConsumer) {
+        Cursor cursor = new Cursor(json, 0, json.length);
+        try {
+            cursor.parseOperations(operationConsumer);
+        } catch (Failure e) {
+            throw cursor.toException();
+        }
+    }
+
+    /**
+     * Same as {@link #parse(byte[], Consumer)} without throwing when the input is rejected. The operations read before
+     * the error were already handed to the consumer, which may throw on its own.
+     *
+     * @param json              UTF-8 bytes of the array
+     * @param operationConsumer receives each operation in order
+     * @return if the whole input is a valid array of operations
+     */
+    public boolean tryParse(byte[] json, Consumer<StockOperationDTO> operationConsumer) {
+        try {
+            new Cursor(json, 0, json.length).parseOperations(operationConsumer);
+            return true;
+        } catch (Failure e) {
+            return false;
+        }
+    }
+
+    /**
+     * Same as {@link #parse(byte[], Consumer)} reading the bytes between the position and the limit of the buffer,
+     * which are left unchanged. The bytes of a heap buffer are read in place, the ones of a direct buffer are copied
+     * once to the heap
+     *
+     * @param json              UTF-8 bytes of the array, heap or direct
+     * @param operationConsumer receives each operation in order
+     */
+    public void parse(ByteBuffer json, Consumer<StockOperationDTO> operationConsumer) {
+        Cursor cursor;
+        if (json.hasArray()) {
+            int offset = json.arrayOffset();
+            cursor = new Cursor(json.array(), offset + json.position(), offset + json.limit());
+        } else {
+            byte[] bytes = new byte[json.remaining()];
+            json.duplicate().get(bytes);
+            cursor = new Cursor(bytes, 0, bytes.length);
+        }
+        try {
+            cursor.parseOperations(operationConsumer);
+        } catch (Failure e) {
+            throw cursor.toException();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class Failure extends RuntimeException {
+
+        private Failure() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Position in the input, with the parts of the last number read, and the last error
+     */
+    private static final class Cursor {
+
+        private final byte[] bytes;
+        private final int start;
+        private final int limit;
+        private int position;
+
+        private boolean negative;
+        private boolean integer;
+        private long mantissa;
+        private int exponent;
+        private boolean exact;
+        private int numberStart;
+
+        private String errorMessage;
+        private int errorOffset;
+
+        private Cursor(byte[] bytes, int start, int limit) {
+            this.bytes = bytes;
+            this.start = start;
+            this.limit = limit;
+            this.position = start;
+        }
+
+        void parseOperations(Consumer<StockOperationDTO> operationConsumer) {
+            skipWhitespace();
+            if (peek() != '[') {
+                throw error("Expected an array of operations");
+            }
+            position++;
+            skipWhitespace();
+            if (peek() == ']') {
+                position++;
+            } else {
+                StockOperationDTO stockOperationDTO = new StockOperationDTO();
+                while (true) {
+                    parseOperation(stockOperationDTO);
+                    operationConsumer.accept(stockOperationDTO);
+                    skipWhitespace();
+                    int separator = peek();
+                    if (separator == ']') {
+                        position++;
+                        break;
+                    }
+                    if (separator != ',') {
+                        throw error("Expected ',' or the end of the array");
+                    }
+                    position++;
+                    skipWhitespace();
+                }
+            }
+            skipWhitespace();
+            if (position < limit) {
+                throw error("Unexpected content after the array of operations");
+            }
+        }
+
+        private void parseOperation(StockOperationDTO stockOperationDTO) {
+            if (peek() != '{') {
+                throw error("Expected an operation object");
+            }
+            position++;
+            stockOperationDTO.setOperation(null);
+            stockOperationDTO.setUnitCost(null);
+            stockOperationDTO.setQuantity(null);
+            stockOperationDTO.setTicker(null);
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return;
+            }
+            while (true) {
+                int field = parseFieldName();
+                skipWhitespace();
+                if (peek() != ':') {
+                    throw error("Expected ':' after the field name");
+                }
+                position++;
+                skipWhitespace();
+                switch (field) {
+                    case OPERATION:
+                        stockOperationDTO.setOperation(parseNull() ? null : parseOperationName());
+                        break;
+                    case UNIT_COST:
+                        stockOperationDTO.setUnitCost(parseNull() ? null : parseDouble("unit-cost"));
+                        break;
+                    case QUANTITY:
+                        stockOperationDTO.setQuantity(parseNull() ? null : parseLong("quantity"));
+                        break;
+                    default:
+                        stockOperationDTO.setTicker(parseNull() ? null : parseString("ticker"));
+                }
+                skipWhitespace();
+                int separator = peek();
+                position++;
+                if (separator == '}') {
+                    return;
+                }
+                if (separator != ',') {
+                    position--;
+                    throw error("Expected ',' or the end of the operation");
+                }
+                skipWhitespace();
+            }
+        }
+
+        private int parseFieldName() {
+            if (peek() != '"') {
+                throw error("Expected a field name");
+            }
+            int nameStart = position + 1;
+            int nameEnd = scanString(nameStart);
+            if (nameEnd >= 0) {
+                position = nameEnd + 1;
+                if (matches(nameStart, nameEnd, OPERATION_FIELD)) {
+                    return OPERATION;
+                } else if (matches(nameStart, nameEnd, UNIT_COST_FIELD)) {
+                    return UNIT_COST;
+                } else if (matches(nameStart, nameEnd, QUANTITY_FIELD)) {
+                    return QUANTITY;
+                } else if (matches(nameStart, nameEnd, TICKER_FIELD)) {
+                    return TICKER;
+                }
+                position = nameStart - 1;
+            }
+            String name = parseString("field name");
+            switch (name) {
+                case "operation":
+                    return OPERATION;
+                case "unit-cost":
+                    return UNIT_COST;
+                case "quantity":
+                    return QUANTITY;
+                case "ticker":
+                    return TICKER;
+                default:
+                    throw error("Unrecognized field \"" + name + "\" in an operation");
+            }
+        }
+
+        private String parseOperationName() {
+            if (peek() != '"') {
+                throw error("Expected a string for the field \"operation\"");
+            }
+            int nameStart = position + 1;
+            int nameEnd = scanString(nameStart);
+            if (nameEnd >= 0) {
+                if (matches(nameStart, nameEnd, BUY)) {
+                    position = nameEnd + 1;
+                    return OperationType.BUY.getOperationName();
+                } else if (matches(nameStart, nameEnd, SELL)) {
+                    position = nameEnd + 1;
+                    return OperationType.SELL.getOperationName();
+                }
+            }
+            return parseString("operation");
+        }
+
+        /**
+         * @return the offset of the closing quote of a string without escapes, -1 if it has escapes
+         */
+        private int scanString(int from) {
+            for (int i = from; i < limit; i++) {
+                int character = bytes[i] & 0xff;
+                if (character == '"') {
+                    return i;
+                }
+                if (character == '\\') {
+                    return -1;
+                }
+                if (character < 0x20) {
+                    position = i;
+                    throw error("Unescaped control character in a string");
+                }
+            }
+            position = limit;
+            throw error("Unterminated string");
+        }
+
+        private boolean matches(int from, int to, byte[] expected) {
+            if (to - from != expected.length) {
+                return false;
+            }
+            for (int i = 0; i < expected.length; i++) {
+                if (bytes[from + i] != expected[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Decodes a string, unescaping it
+         */
+        private String parseString(String field) {
+            if (peek() != '"') {
+                throw error("Expected a string for the field \"" + field + "\"");
+            }
+            position++;
+            StringBuilder value = new StringBuilder();
+            int segmentStart = position;
+            while (true) {
+                if (position >= limit) {
+                    throw error("Unterminated string");
+                }
+                int character = bytes[position] & 0xff;
+                if (character == '"') {
+                    decode(segmentStart, position, value);
+                    position++;
+                    return value.toString();
+                }
+                if (character < 0x20) {
+                    throw error("Unescaped control character in a string");
+                }
+                if (character != '\\') {
+                    position++;
+                    continue;
+                }
+                decode(segmentStart, position, value);
+                position++;
+                value.append(parseEscape());
+                segmentStart = position;
+            }
+        }
+
+        private char parseEscape() {
+            if (position >= limit) {
+                throw error("Unterminated string");
+            }
+            int escape = bytes[position++];
+            switch (escape) {
+                case '"':
+                case '\\':
+                case '/':
+                    return (char) escape;
+                case 'b':
+                    return '\b';
+                case 'f':
+                    return '\f';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 't':
+                    return '\t';
+                case 'u':
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = position < limit ? Character.digit(bytes[position], 16) : -1;
+                        if (digit < 0) {
+                            throw error("Expected a hexadecimal digit in a unicode escape");
+                        }
+                        code = (code << 4) | digit;
+                        position++;
+                    }
+                    return (char) code;
+                default:
+                    position--;
+                    throw error("Unrecognized escape in a string");
+            }
+        }
+
+        private void decode(int from, int to, StringBuilder value) {
+            if (from == to) {
+                return;
+            }
+            try {
+                CharBuffer characters = StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(bytes, from, to - from));
+                value.append(characters);
+            } catch (CharacterCodingException e) {
+                position = from;
+                throw error("Invalid UTF-8 in a string");
+            }
+        }
+
+        private boolean parseNull() {
+            if (peek() != 'n') {
+                return false;
+            }
+            if (!matches(position, Math.min(limit, position + NULL.length), NULL)) {
+                throw error("Unrecognized literal");
+            }
+            position += NULL.length;
+            checkEndOfValue();
+            return true;
+        }
+
+        private double parseDouble(String field) {
+            parseNumber(field);
+            return toDouble();
+        }
+
+        private long parseLong(String field) {
+            parseNumber(field);
+            if (integer) {
+                if (exact) {
+                    return negative ? -mantissa : mantissa;
+                }
+                try {
+                    return Long.parseLong(numberString());
+                } catch (NumberFormatException e) {
+                    position = numberStart;
+                    throw error("Numeric value out of range of long for the field \"" + field + "\"");
+                }
+            }
+            double value = toDouble();
+            if (value < MIN_LONG || value > MAX_LONG) {
+                position = numberStart;
+                throw error("Numeric value out of range of long for the field \"" + field + "\"");
+            }
+            return (long) value;
+        }
+
+        /**
+         * Integers convert like a long, as Jackson does, so {@code -0} is a positive zero
+         */
+        private double toDouble() {
+            if (integer && exact) {
+                return negative ? -mantissa : mantissa;
+            }
+            if (exact && mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+                double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+                return negative ? -value : value;
+            }
+            return Double.parseDouble(numberString());
+        }
+
+        /**
+         * Reads a Json number, keeping its sign, its digits as a mantissa and its decimal exponent
+         */
+        private void parseNumber(String field) {
+            numberStart = position;
+            negative = false;
+            integer = true;
+            mantissa = 0L;
+            exponent = 0;
+            exact = true;
+            int digits = 0;
+            if (peek() == '-') {
+                negative = true;
+                position++;
+            }
+            int character = peek();
+            if (character == '0') {
+                position++;
+                if (isDigit(peek())) {
+                    throw error("Leading zeros are not allowed in a number");
+                }
+            } else if (isDigit(character)) {
+                while (isDigit(character = peek())) {
+                    digits = accumulate(character, digits);
+                    position++;
+                }
+            } else {
+                position = numberStart;
+                throw error("Expected a number for the field \"" + field + "\"");
+            }
+            if (peek() == '.') {
+                integer = false;
+                position++;
+                if (!isDigit(peek())) {
+                    throw error("Expected a digit after the decimal point");
+                }
+                while (isDigit(character = peek())) {
+                    digits = accumulate(character, digits);
+                    if (exact) {
+                        exponent--;
+                    }
+                    position++;
+                }
+            }
+            character = peek();
+            if (character == 'e' || character == 'E') {
+                integer = false;
+                position++;
+                boolean negativeExponent = false;
+                character = peek();
+                if (character == '-' || character == '+') {
+                    negativeExponent = character == '-';
+                    position++;
+                }
+                if (!isDigit(peek())) {
+                    throw error("Expected a digit in the exponent");
+                }
+                int explicitExponent = 0;
+                while (isDigit(character = peek())) {
+                    explicitExponent = Math.min(explicitExponent * 10 + (character - '0'), 10_000);
+                    position++;
+                }
+                exponent += negativeExponent ? -explicitExponent : explicitExponent;
+            }
+            checkEndOfValue();
+        }
+
+        private int accumulate(int digit, int digits) {
+            if (mantissa == 0L && digit == '0') {
+                return digits;
+            }
+            if (digits == MAX_MANTISSA_DIGITS) {
+                exact = false;
+                return digits;
+            }
+            mantissa = mantissa * 10 + (digit - '0');
+            return digits + 1;
+        }
+
+        private String numberString() {
+            return new String(bytes, numberStart, position - numberStart, StandardCharsets.ISO_8859_1);
+        }
+
+        private void checkEndOfValue() {
+            int character = peek();
+            if (character != -1 && character != ',' && character != '}' && character != ']' && !isWhitespace(character)) {
+                throw error("Unexpected character after a value");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < limit && isWhitespace(bytes[position])) {
+                position++;
+            }
+        }
+
+        /**
+         * @return the byte at the position, -1 at the end of the input
+         */
+        private int peek() {
+            return position < limit ? bytes[position] & 0xff : -1;
+        }
+
+        private static boolean isDigit(int character) {
+            return character >= '0' && character <= '9';
+        }
+
+        private static boolean isWhitespace(int character) {
+            return character == ' ' || character == '\n' || character == '\r' || character == '\t';
+        }
+
+        private Failure error(String message) {
+            errorMessage = message;
+            errorOffset = position - start;
+            return FAILURE;
+        }
+
+        private IllegalArgumentException toException() {
+            return new IllegalArgumentException(errorMessage + " at offset " + errorOffset);
+        }
+    }
+}
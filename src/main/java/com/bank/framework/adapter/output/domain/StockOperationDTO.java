@@ -1,5 +1,6 @@
 package com.bank.framework.adapter.output.domain;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -27,4 +28,10 @@ public class StockOperationDTO {
      */
     private Long quantity;
 
+    /**
+     * Optional symbol of the negotiated stock, operations without a ticker share the same position
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String ticker;
+
 }
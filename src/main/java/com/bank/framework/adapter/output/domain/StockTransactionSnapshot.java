@@ -0,0 +1,23 @@
+package com.bank.framework.adapter.output.domain;
+
+import com.bank.domain.entity.StockTransaction;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * State of a transaction after a given operation of its journal
+ */
+@Value
+@Builder
+public class StockTransactionSnapshot {
+
+    /**
+     * Sequence in the journal of the last operation included in the state
+     */
+    long sequence;
+
+    /**
+     * The state after the operation, without the operations
+     */
+    StockTransaction stockTransaction;
+}
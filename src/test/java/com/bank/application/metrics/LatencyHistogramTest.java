@@ -0,0 +1,68 @@
+package com.bank.application.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Every value falls in a bucket whose highest value is within 1/64 of it")
+    void testBucketPrecision() {
+        long[] values = {0L, 1L, 127L, 128L, 129L, 255L, 256L, 1000L, 123456789L, Long.MAX_VALUE / 3, Long.MAX_VALUE};
+        for (long value : values) {
+            long highestEquivalentValue = LatencyHistogram.highestEquivalentValue(LatencyHistogram.bucketIndex(value));
+            assertTrue(highestEquivalentValue >= value, "value " + value);
+            assertTrue(highestEquivalentValue - value <= value / 64, "value " + value);
+        }
+    }
+
+    @Test
+    @DisplayName("The percentiles, the mean and the maximum follow the recorded values")
+    void testPercentiles() {
+        //Given
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+        //When
+        for (long value = 1; value <= 1000; value++) {
+            latencyHistogram.record(value * 1000);
+        }
+
+        //Then
+        assertEquals(1000, latencyHistogram.getCount());
+        assertEquals(500500d, latencyHistogram.getMean());
+        assertEquals(1000000L, latencyHistogram.getMaxValue());
+        assertEquals(500000d, latencyHistogram.getValueAtPercentile(50d), 500000d / 64);
+        assertEquals(990000d, latencyHistogram.getValueAtPercentile(99d), 990000d / 64);
+        assertEquals(1000000L, latencyHistogram.getValueAtPercentile(100d));
+        assertEquals(0L, new LatencyHistogram().getValueAtPercentile(50d));
+    }
+
+    @Test
+    @DisplayName("Concurrent recordings are not lost")
+    void testConcurrentRecord() throws InterruptedException {
+        //Given
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+        //When
+        for (int thread = 0; thread < 4; thread++) {
+            executorService.execute(() -> {
+                for (long value = 0; value < 10000; value++) {
+                    latencyHistogram.record(value);
+                }
+            });
+        }
+        executorService.shutdown();
+
+        //Then
+        assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+        assertEquals(40000, latencyHistogram.getCount());
+        assertEquals(9999L, latencyHistogram.getMaxValue());
+    }
+}
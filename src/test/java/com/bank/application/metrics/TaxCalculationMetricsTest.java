@@ -0,0 +1,135 @@
+package com.bank.application.metrics;
+
+import com.bank.config.ApplicationConfiguration;
+import com.bank.config.CalculationEngine;
+import com.bank.framework.adapter.input.TaxCalculationViewCLIAdapter;
+import com.bank.framework.adapter.output.JsonToBinaryOperationLogConverter;
+import com.bank.framework.adapter.output.StringToStockOperationParserAdapter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaxCalculationMetricsTest {
+
+    private static final String OPERATIONS = "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 10000},"
+            + "{\"operation\":\"sell\", \"unit-cost\":20.00, \"quantity\": 5000}]";
+
+    @Test
+    @DisplayName("Every stage of a streamed line is timed once per operation")
+    void testStagesAreRecorded() {
+        //Given
+        TaxCalculationMetrics taxCalculationMetrics = TaxCalculationMetrics.enabled();
+        TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter = ApplicationConfiguration.builder()
+                .taxCalculationMetrics(taxCalculationMetrics).build().configureDependencies();
+
+        //When
+        taxCalculationViewCLIAdapter.calculateTaxes(OPERATIONS, new ByteArrayOutputStream());
+        taxCalculationViewCLIAdapter.calculateTaxes(OPERATIONS, new ByteArrayOutputStream());
+        assertThrows(RuntimeException.class, () -> taxCalculationViewCLIAdapter.calculateTaxes("{\"operation\":\"buy\"}", new ByteArrayOutputStream()));
+
+        //Then
+        assertEquals(2, taxCalculationMetrics.getLineCount());
+        assertEquals(4, taxCalculationMetrics.getOperationCount());
+        assertEquals(1, taxCalculationMetrics.getErrorCount());
+        for (Stage stage : Stage.values()) {
+            assertEquals(4, taxCalculationMetrics.getStageHistogram(stage).getCount(), stage.name());
+        }
+        assertTrue(taxCalculationMetrics.summary().startsWith("lines=2 operations=4 errors=1"));
+    }
+
+    @Test
+    @DisplayName("Every stage of a list calculated at once is timed once per operation, whatever the engine")
+    void testStagesAreRecordedForLists() {
+        for (CalculationEngine calculationEngine : CalculationEngine.values()) {
+            //Given
+            TaxCalculationMetrics taxCalculationMetrics = TaxCalculationMetrics.enabled();
+            TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter = ApplicationConfiguration.builder().calculationEngine(calculationEngine)
+                    .taxCalculationMetrics(taxCalculationMetrics).build().configureDependencies();
+
+            //When
+            taxCalculationViewCLIAdapter.calculateTaxesFromList(OPERATIONS);
+            assertThrows(RuntimeException.class, () -> taxCalculationViewCLIAdapter.calculateTaxesFromList("{\"operation\":\"buy\"}"));
+
+            //Then
+            assertEquals(1, taxCalculationMetrics.getLineCount(), calculationEngine.name());
+            assertEquals(2, taxCalculationMetrics.getOperationCount(), calculationEngine.name());
+            assertEquals(1, taxCalculationMetrics.getErrorCount(), calculationEngine.name());
+            for (Stage stage : Stage.values()) {
+                assertEquals(2, taxCalculationMetrics.getStageHistogram(stage).getCount(), calculationEngine.name() + " " + stage.name());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Every stage of the pipeline is timed once per operation")
+    void testStagesAreRecordedInThePipeline() throws IOException {
+        //Given
+        TaxCalculationMetrics taxCalculationMetrics = TaxCalculationMetrics.enabled();
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+        //When
+        try {
+            ApplicationConfiguration.builder().taxCalculationMetrics(taxCalculationMetrics).build().configureFlowAdapter(executorService, 4)
+                    .calculateTaxes(List.of(OPERATIONS, OPERATIONS).iterator(), new ByteArrayOutputStream());
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        //Then
+        assertEquals(2, taxCalculationMetrics.getLineCount());
+        assertEquals(4, taxCalculationMetrics.getOperationCount());
+        for (Stage stage : Stage.values()) {
+            assertEquals(4, taxCalculationMetrics.getStageHistogram(stage).getCount(), stage.name());
+        }
+    }
+
+    @Test
+    @DisplayName("The replay of a binary operation log records its lines and operations")
+    void testReplayIsRecorded(@TempDir Path directory) {
+        //Given
+        TaxCalculationMetrics taxCalculationMetrics = TaxCalculationMetrics.enabled();
+        Path binaryFile = directory.resolve("operations.bin");
+        JsonToBinaryOperationLogConverter.builder().stringToStockOperationParserAdapter(StringToStockOperationParserAdapter.builder().build()).build()
+                .convert(List.of(OPERATIONS, OPERATIONS).iterator(), binaryFile);
+
+        //When
+        ApplicationConfiguration.builder().taxCalculationMetrics(taxCalculationMetrics).build().configureBinaryReplay(binaryFile)
+                .replay(new ByteArrayOutputStream());
+
+        //Then
+        assertEquals(2, taxCalculationMetrics.getLineCount());
+        assertEquals(4, taxCalculationMetrics.getOperationCount());
+        assertEquals(4, taxCalculationMetrics.getStageHistogram(Stage.CALCULATION).getCount());
+        assertEquals(4, taxCalculationMetrics.getStageHistogram(Stage.SERIALIZATION).getCount());
+    }
+
+    @Test
+    @DisplayName("The disabled metrics record nothing")
+    void testDisabledMetrics() {
+        //Given
+        TaxCalculationMetrics taxCalculationMetrics = TaxCalculationMetrics.disabled();
+
+        //When
+        long startTime = taxCalculationMetrics.startTime();
+        taxCalculationMetrics.record(Stage.PARSE, startTime);
+        taxCalculationMetrics.recordOperation();
+        taxCalculationMetrics.recordLine(startTime);
+        taxCalculationMetrics.recordError();
+
+        //Then
+        assertEquals(0L, startTime);
+        assertEquals(0, taxCalculationMetrics.getStageHistogram(Stage.PARSE).getCount());
+        assertEquals(0, taxCalculationMetrics.getOperationCount());
+        assertEquals(0, taxCalculationMetrics.getLineCount());
+        assertEquals(0, taxCalculationMetrics.getErrorCount());
+    }
+}
@@ -0,0 +1,103 @@
+package com.bank.application.ports.input;
+
+import com.bank.application.usecases.TaxCalculationSession;
+import com.bank.framework.adapter.output.domain.StockOperationDTO;
+import com.bank.framework.adapter.output.domain.TaxDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioTaxCalculationInputPortTest {
+
+    private static final String[] TICKERS = {null, "AAA", "BBB", "CCC", "DDD", "EEE", "FFF", "GGG"};
+
+    @Test
+    @DisplayName("Every ticker is calculated as if it was alone, whatever the number of shards")
+    void testCalculateTaxesSplitByTicker() {
+        //Given
+        List<StockOperationDTO> stockOperationDTOList = generateOperations(new Random(11), 20000);
+        PrimitiveTaxCalculationInputPort primitiveTaxCalculationInputPort = PrimitiveTaxCalculationInputPort.builder().build();
+        ExecutorService executorService = Executors.newFixedThreadPool(3);
+
+        try {
+            //When
+            List<Double> sequentialTaxes = taxes(PortfolioTaxCalculationInputPort.builder().shards(1).build().calculateTaxes(stockOperationDTOList));
+            List<Double> shardedTaxes = taxes(PortfolioTaxCalculationInputPort.builder().executor(executorService).shards(3)
+                    .minOperationsPerShard(1).build().calculateTaxes(stockOperationDTOList));
+
+            //Then
+            assertEquals(sequentialTaxes, shardedTaxes);
+            for (String ticker : TICKERS) {
+                List<StockOperationDTO> tickerOperations = stockOperationDTOList.stream()
+                        .filter(operation -> ticker == null ? operation.getTicker() == null : ticker.equals(operation.getTicker()))
+                        .collect(Collectors.toList());
+                List<Double> tickerTaxes = new ArrayList<>();
+                for (int i = 0; i < stockOperationDTOList.size(); i++) {
+                    if (tickerOperations.contains(stockOperationDTOList.get(i))) {
+                        tickerTaxes.add(shardedTaxes.get(i));
+                    }
+                }
+                assertEquals(taxes(primitiveTaxCalculationInputPort.calculateTaxes(tickerOperations)), tickerTaxes, "ticker " + ticker);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("A session calculates the same taxes as the list")
+    void testOpenSession() {
+        //Given
+        List<StockOperationDTO> stockOperationDTOList = generateOperations(new Random(7), 2000);
+        PortfolioTaxCalculationInputPort portfolioTaxCalculationInputPort = PortfolioTaxCalculationInputPort.builder().build();
+
+        //When
+        TaxCalculationSession taxCalculationSession = portfolioTaxCalculationInputPort.openSession();
+        List<Double> sessionTaxes = stockOperationDTOList.stream().map(taxCalculationSession::calculateTax).map(TaxDTO::getTax).collect(Collectors.toList());
+
+        //Then
+        assertEquals(taxes(portfolioTaxCalculationInputPort.calculateTaxes(stockOperationDTOList)), sessionTaxes);
+    }
+
+    @Test
+    @DisplayName("Every ticker keeps the id it got the first time, the table growing as tickers are added")
+    void testTickerSymbolIds() {
+        //Given
+        TickerSymbolIds tickerSymbolIds = new TickerSymbolIds();
+
+        //When
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i + 1, tickerSymbolIds.getOrAdd("T" + i));
+        }
+
+        //Then
+        assertEquals(1000, tickerSymbolIds.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i + 1, tickerSymbolIds.getOrAdd(new String("T" + i)));
+        }
+        assertEquals(1000, tickerSymbolIds.size());
+    }
+
+    private static List<StockOperationDTO> generateOperations(Random random, int size) {
+        List<StockOperationDTO> stockOperationDTOList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String operation = random.nextInt(3) == 0 ? "sell" : "buy";
+            double unitCost = Math.round(random.nextDouble() * 10000) / 100d;
+            long quantity = 1 + random.nextInt(2000);
+            stockOperationDTOList.add(new StockOperationDTO(operation, unitCost, quantity, TICKERS[random.nextInt(TICKERS.length)]));
+        }
+        return stockOperationDTOList;
+    }
+
+    private static List<Double> taxes(List<TaxDTO> taxList) {
+        return taxList.stream().map(TaxDTO::getTax).collect(Collectors.toList());
+    }
+}
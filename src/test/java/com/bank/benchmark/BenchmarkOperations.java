@@ -0,0 +1,74 @@
+package com.bank.benchmark;
+
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.valueobject.OperationType;
+import com.bank.framework.adapter.output.domain.TaxDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic operation sequences shared by the benchmarks.
+ * Sells never exceed the stock bought so far, so every operation goes through the whole calculation.
+ */
+final class BenchmarkOperations {
+
+    private static final long SEED = 20_230_101L;
+
+    private final List<StockOperation> stockOperationList;
+
+    private BenchmarkOperations(List<StockOperation> stockOperationList) {
+        this.stockOperationList = stockOperationList;
+    }
+
+    /**
+     * @param operations     number of operations of the sequence
+     * @param sellPercentage percentage of operations that are sells
+     */
+    static BenchmarkOperations generate(int operations, int sellPercentage) {
+        Random random = new Random(SEED);
+        List<StockOperation> stockOperationList = new ArrayList<>(operations);
+        long stockQuantity = 0;
+        for (int i = 0; i < operations; i++) {
+            double unitCost = (500 + random.nextInt(9_500)) / 100d;
+            if (stockQuantity > 0 && random.nextInt(100) < sellPercentage) {
+                long quantity = 1 + (long) random.nextInt((int) Math.min(stockQuantity, 10_000));
+                stockOperationList.add(StockOperation.builder().operationType(OperationType.SELL).unitCost(unitCost).quantity(quantity).build());
+                stockQuantity -= quantity;
+            } else {
+                long quantity = 1 + random.nextInt(10_000);
+                stockOperationList.add(StockOperation.builder().operationType(OperationType.BUY).unitCost(unitCost).quantity(quantity).build());
+                stockQuantity += quantity;
+            }
+        }
+        return new BenchmarkOperations(stockOperationList);
+    }
+
+    List<StockOperation> getStockOperationList() {
+        return stockOperationList;
+    }
+
+    String toJson() {
+        StringBuilder json = new StringBuilder(stockOperationList.size() * 56).append('[');
+        for (StockOperation stockOperation : stockOperationList) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append("{\"operation\":\"").append(stockOperation.getOperationType().getOperationName())
+                    .append("\", \"unit-cost\":").append(stockOperation.getUnitCost())
+                    .append(", \"quantity\": ").append(stockOperation.getQuantity()).append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    List<TaxDTO> toTaxList() {
+        Random random = new Random(SEED);
+        List<TaxDTO> taxList = new ArrayList<>(stockOperationList.size());
+        for (StockOperation stockOperation : stockOperationList) {
+            double tax = stockOperation.getOperationType() == OperationType.SELL ? random.nextInt(1_000_000) / 100d : 0d;
+            taxList.add(TaxDTO.builder().tax(tax).build());
+        }
+        return taxList;
+    }
+}
@@ -0,0 +1,66 @@
+package com.bank.benchmark;
+
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.service.ColumnarStockOperationEngine;
+import com.bank.domain.service.OperationTaxEngine;
+import com.bank.domain.service.PrimitiveStockOperationEngine;
+import com.bank.domain.valueobject.OperationType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link PrimitiveStockOperationEngine} with the {@link ColumnarStockOperationEngine} on the same columns.
+ * The average time divided by {@code operations} is the cost per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnarEngineBenchmark {
+
+    @Param({"4096", "100000"})
+    private int operations;
+
+    private OperationType[] operationTypes;
+    private double[] unitCosts;
+    private long[] quantities;
+    private double[] taxes;
+    private boolean[] rejected;
+    private OperationTaxEngine primitiveEngine;
+    private OperationTaxEngine columnarEngine;
+
+    @Setup
+    public void setUp() {
+        List<StockOperation> stockOperationList = BenchmarkOperations.generate(operations, 30).getStockOperationList();
+        operationTypes = new OperationType[operations];
+        unitCosts = new double[operations];
+        quantities = new long[operations];
+        for (int i = 0; i < operations; i++) {
+            operationTypes[i] = stockOperationList.get(i).getOperationType();
+            unitCosts[i] = stockOperationList.get(i).getUnitCost();
+            quantities[i] = stockOperationList.get(i).getQuantity();
+        }
+        taxes = new double[operations];
+        rejected = new boolean[operations];
+        primitiveEngine = new PrimitiveStockOperationEngine();
+        columnarEngine = new ColumnarStockOperationEngine();
+    }
+
+    @Benchmark
+    public double[] primitive() {
+        primitiveEngine.reset();
+        primitiveEngine.calculateTaxes(operationTypes, unitCosts, quantities, operations, taxes, rejected);
+        return taxes;
+    }
+
+    @Benchmark
+    public double[] columnar() {
+        columnarEngine.reset();
+        columnarEngine.calculateTaxes(operationTypes, unitCosts, quantities, operations, taxes, rejected);
+        return taxes;
+    }
+}
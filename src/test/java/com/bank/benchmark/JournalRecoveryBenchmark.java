@@ -0,0 +1,82 @@
+package com.bank.benchmark;
+
+import com.bank.config.ApplicationConfiguration;
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.service.StockOperationService;
+import com.bank.framework.adapter.output.FileChannelStockOperationJournalAdapter;
+import com.bank.framework.adapter.output.MappedStockTransactionSnapshotAdapter;
+import com.bank.framework.adapter.output.StockOperationJournalSnapshotter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to rebuild an account at startup from its journal of {@code history} operations. {@code journal} replays the
+ * whole history, {@code snapshot} loads the last snapshot, taken every 10000 operations, and replays the
+ * {@value #TAIL} operations journaled after it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JournalRecoveryBenchmark {
+
+    private static final int TAIL = 1000;
+
+    @Param({"20000", "200000"})
+    private int history;
+
+    @Param({"journal", "snapshot"})
+    private String recovery;
+
+    private Path directory;
+    private Path journalFile;
+    private MappedStockTransactionSnapshotAdapter snapshotAdapter;
+    private StockOperationService stockOperationService;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-recovery");
+        journalFile = directory.resolve("account.journal");
+        snapshotAdapter = MappedStockTransactionSnapshotAdapter.builder().snapshotFile(directory.resolve("account.snapshot")).build();
+        stockOperationService = ApplicationConfiguration.builder().build().configureStockOperationService();
+        List<StockOperation> stockOperationList = BenchmarkOperations.generate(history + TAIL, 30).getStockOperationList();
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            StockOperationJournalSnapshotter snapshotter = StockOperationJournalSnapshotter.builder().stockOperationJournal(journal)
+                    .stockTransactionSnapshotPort(snapshotAdapter).operationsPerSnapshot(10_000L).build();
+            StockTransaction stockTransaction = new StockTransaction();
+            for (StockOperation stockOperation : stockOperationList) {
+                journal.append(stockOperation);
+                stockTransaction = stockOperationService.processOperation(stockOperation, stockTransaction).withoutOperations();
+                if ("snapshot".equals(recovery) && journal.getLastSequence() <= history) {
+                    snapshotter.snapshotIfDue(stockTransaction);
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public StockTransaction recover() {
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            return StockOperationJournalSnapshotter.builder().stockOperationJournal(journal).stockTransactionSnapshotPort(snapshotAdapter)
+                    .build().recover(stockOperationService);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.bank.benchmark;
+
+import com.bank.application.metrics.LineErrorCounts;
+import com.bank.config.ApplicationConfiguration;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.framework.adapter.input.TaxCalculationViewCLIAdapter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a rejected line in the streaming CLI. {@code fail} catches the exception thrown for the line, with its stack
+ * trace and message, {@code report} writes the preallocated error line and counts it. {@code valid} is a calculated
+ * line of the same length, for reference.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LineErrorBenchmark {
+
+    @Param({"fail", "report"})
+    private String lineErrors;
+
+    @Param({"valid", "malformed", "unknown-operation"})
+    private String line;
+
+    private String operationStringList;
+    private TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter;
+    private ByteArrayOutputStream outputStream;
+
+    @Setup
+    public void setUp() {
+        operationStringList = "valid".equals(line) ? "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 100},{\"operation\":\"sell\", \"unit-cost\":15.00, \"quantity\": 50}]"
+                : "malformed".equals(line) ? "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 100},{\"operation\":\"sell\", \"unit-cost\":15.00, \"quantity\": 5x}]"
+                : "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 100},{\"operation\":\"hold\", \"unit-cost\":15.00, \"quantity\": 50}]";
+        taxCalculationViewCLIAdapter = ApplicationConfiguration.builder().lineErrorCounts("report".equals(lineErrors) ? new LineErrorCounts() : null)
+                .build().configureDependencies();
+        outputStream = new ByteArrayOutputStream(1 << 10);
+    }
+
+    @Benchmark
+    public StockTransaction calculateLine() {
+        outputStream.reset();
+        try {
+            return taxCalculationViewCLIAdapter.calculateTaxes(operationStringList, outputStream, new StockTransaction());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.bank.benchmark;
+
+import com.bank.domain.entity.StockOperation;
+import com.bank.framework.adapter.output.FileChannelStockOperationJournalAdapter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of making operations durable in the {@link FileChannelStockOperationJournalAdapter}: each invocation appends
+ * {@code operationsPerCommit} operations and commits them, so the average time divided by {@code operationsPerCommit}
+ * is the cost per durable operation. {@code 1} is one force per operation, the larger values are the group commit of
+ * a line. {@code journal.directory} places the journal on the device to measure, the temporary directory by default.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OperationJournalBenchmark {
+
+    @Param({"1", "16", "256"})
+    private int operationsPerCommit;
+
+    private List<StockOperation> stockOperationList;
+    private Path journalFile;
+    private FileChannelStockOperationJournalAdapter journal;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        stockOperationList = BenchmarkOperations.generate(4096, 30).getStockOperationList();
+        String directory = System.getProperty("journal.directory");
+        journalFile = directory == null ? Files.createTempFile("operation", ".journal") : Files.createTempFile(Path.of(directory), "operation", ".journal");
+        Files.delete(journalFile);
+        journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        journal.close();
+        Files.delete(journalFile);
+    }
+
+    @Benchmark
+    public long appendAndCommit() {
+        long sequence = 0L;
+        for (int i = 0; i < operationsPerCommit; i++) {
+            sequence = journal.append(stockOperationList.get(next));
+            next = (next + 1) & (stockOperationList.size() - 1);
+        }
+        journal.commit(sequence);
+        return sequence;
+    }
+}
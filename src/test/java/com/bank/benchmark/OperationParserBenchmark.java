@@ -0,0 +1,65 @@
+package com.bank.benchmark;
+
+import com.bank.framework.adapter.output.StringToStockOperationParserAdapter;
+import com.bank.framework.adapter.output.Utf8StockOperationParser;
+import com.bank.framework.adapter.output.domain.StockOperationDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the parsers of a line of operations: Jackson databind building the list, the Jackson streaming parser
+ * reusing one DTO and the {@link Utf8StockOperationParser}, from the UTF-8 bytes and from the String of the line.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationParserBenchmark {
+
+    @Param({"1000"})
+    private int operations;
+
+    private ObjectMapper objectMapper;
+    private StringToStockOperationParserAdapter stringToStockOperationParserAdapter;
+    private Utf8StockOperationParser utf8StockOperationParser;
+    private String operationString;
+    private byte[] operationBytes;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        stringToStockOperationParserAdapter = StringToStockOperationParserAdapter.builder().build();
+        utf8StockOperationParser = Utf8StockOperationParser.builder().build();
+        operationString = BenchmarkOperations.generate(operations, 30).toJson();
+        operationBytes = operationString.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<StockOperationDTO> jacksonDatabind() throws IOException {
+        return objectMapper.readValue(operationString, objectMapper.getTypeFactory().constructCollectionType(List.class, StockOperationDTO.class));
+    }
+
+    @Benchmark
+    public void jacksonStreaming(Blackhole blackhole) {
+        stringToStockOperationParserAdapter.parseReader(new StringReader(operationString), blackhole::consume);
+    }
+
+    @Benchmark
+    public void utf8Bytes(Blackhole blackhole) {
+        utf8StockOperationParser.parse(operationBytes, blackhole::consume);
+    }
+
+    @Benchmark
+    public void utf8String(Blackhole blackhole) {
+        stringToStockOperationParserAdapter.parseString(operationString, blackhole::consume);
+    }
+}
@@ -0,0 +1,61 @@
+package com.bank.benchmark;
+
+import com.bank.framework.adapter.output.AsyncBatchedOutputStream;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time the calculating thread spends writing one result line to a file and flushing it, as the streaming CLI does
+ * when no more input is waiting. {@code buffered} writes through a 64 KB {@link BufferedOutputStream} on the
+ * calculating thread, {@code async} hands the line to the writer thread of an {@link AsyncBatchedOutputStream}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutputWriterBenchmark {
+
+    private static final byte[] LINE = "[{\"tax\":0.0},{\"tax\":0.0},{\"tax\":10000.0},{\"tax\":0.0},{\"tax\":3070.726349390597}]\n"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"buffered", "async"})
+    private String writer;
+
+    @Param({"1", "64"})
+    private int linesPerFlush;
+
+    private Path outputFile;
+    private OutputStream output;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        outputFile = Files.createTempFile("output", ".txt");
+        FileOutputStream fileOutput = new FileOutputStream(outputFile.toFile());
+        output = "async".equals(writer) ? AsyncBatchedOutputStream.builder().channel(fileOutput.getChannel()).build()
+                : new BufferedOutputStream(fileOutput, 1 << 16);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        output.close();
+        Files.delete(outputFile);
+    }
+
+    @Benchmark
+    public void writeLines() throws IOException {
+        for (int i = 0; i < linesPerFlush; i++) {
+            output.write(LINE);
+        }
+        output.flush();
+    }
+}
@@ -0,0 +1,48 @@
+package com.bank.benchmark;
+
+import com.bank.config.ApplicationConfiguration;
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.service.ParallelScanStockOperationEngine;
+import com.bank.domain.service.StockOperationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One long sequence calculated by the sequential service and by the parallel scan on the common pool.
+ * The speedup of the scan depends on the cores available to the common pool.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ParallelScanBenchmark {
+
+    @Param({"1000000"})
+    private int operations;
+
+    private List<StockOperation> stockOperationList;
+    private StockOperationService stockOperationService;
+    private ParallelScanStockOperationEngine parallelScanStockOperationEngine;
+
+    @Setup
+    public void setUp() {
+        stockOperationList = BenchmarkOperations.generate(operations, 30).getStockOperationList();
+        stockOperationService = ApplicationConfiguration.builder().build().configureStockOperationService();
+        parallelScanStockOperationEngine = ParallelScanStockOperationEngine.builder().build();
+    }
+
+    @Benchmark
+    public StockTransaction sequential() {
+        return stockOperationService.processOperation(stockOperationList);
+    }
+
+    @Benchmark
+    public StockTransaction parallelScan() {
+        return parallelScanStockOperationEngine.processOperation(stockOperationList);
+    }
+}
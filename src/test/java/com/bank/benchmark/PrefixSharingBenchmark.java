@@ -0,0 +1,74 @@
+package com.bank.benchmark;
+
+import com.bank.config.ApplicationConfiguration;
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.service.StockOperationService;
+import com.bank.domain.service.StockTransactionPrefixTrie;
+import com.bank.domain.valueobject.OperationType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scenario analysis: the same history of {@code prefixOperations} followed by {@code scenarios} different endings of
+ * {@code suffixOperations} sells. Compares calculating every scenario from scratch with reusing the shared history
+ * through a {@link StockTransactionPrefixTrie}, whose first scenario pays for the history once per invocation.
+ * The trie walk and insertion take several seconds to be fully compiled, hence the longer warmup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrefixSharingBenchmark {
+
+    @Param({"1000"})
+    private int prefixOperations;
+
+    @Param({"10"})
+    private int suffixOperations;
+
+    @Param({"100"})
+    private int scenarios;
+
+    private StockOperationService stockOperationService;
+    private List<List<StockOperation>> scenarioList;
+
+    @Setup
+    public void setUp() {
+        stockOperationService = ApplicationConfiguration.builder().build().configureStockOperationService();
+        List<StockOperation> history = BenchmarkOperations.generate(prefixOperations, 30).getStockOperationList();
+        scenarioList = new ArrayList<>(scenarios);
+        for (int scenario = 0; scenario < scenarios; scenario++) {
+            List<StockOperation> operations = new ArrayList<>(history);
+            for (int i = 0; i < suffixOperations; i++) {
+                operations.add(StockOperation.builder().operationType(OperationType.SELL).unitCost(10d + scenario + i / 100d).quantity(1L).build());
+            }
+            scenarioList.add(operations);
+        }
+    }
+
+    @Benchmark
+    public StockTransaction fullRecomputation() {
+        StockTransaction stockTransaction = null;
+        for (List<StockOperation> operations : scenarioList) {
+            stockTransaction = stockOperationService.processOperation(operations);
+        }
+        return stockTransaction;
+    }
+
+    @Benchmark
+    public StockTransaction prefixSharing() {
+        StockTransactionPrefixTrie stockTransactionPrefixTrie = StockTransactionPrefixTrie.builder()
+                .stockOperationService(stockOperationService).maxNodes(1_000_000L).build();
+        StockTransaction stockTransaction = null;
+        for (List<StockOperation> operations : scenarioList) {
+            stockTransaction = stockTransactionPrefixTrie.processOperation(operations);
+        }
+        return stockTransaction;
+    }
+}
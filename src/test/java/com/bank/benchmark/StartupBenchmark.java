@@ -0,0 +1,106 @@
+package com.bank.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to the first result of the CLI: each invocation starts a JVM on the shaded jar, writes one small line of
+ * operations and waits for its taxes.
+ * <p>
+ * Needs the shaded jar, {@code mvn package} first, and a JDK 13 or newer for the {@code cds} launch, whose archive is
+ * dumped from a training run when the trial starts. {@code startup.jar} overrides the location of the jar.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final String OPERATIONS = "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 10000},"
+            + "{\"operation\":\"sell\", \"unit-cost\":20.00, \"quantity\": 5000}]\n";
+
+    /**
+     * {@code default} launches the jar as it is, {@code c1} stops the JIT at the first tier, {@code cds} maps an
+     * application class-data-sharing archive and {@code cds_c1} does both
+     */
+    @Param({"default", "c1", "cds", "cds_c1"})
+    private String launch;
+
+    private List<String> command;
+    private Path archiveDirectory;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        Path jar = Path.of(System.getProperty("startup.jar", "target/hexagonal-architecture.jar")).toAbsolutePath();
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("The shaded jar " + jar + " does not exist, run mvn package first");
+        }
+        Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+        List<String> options = new ArrayList<>();
+        if (launch.startsWith("cds")) {
+            archiveDirectory = Files.createTempDirectory("startup-benchmark");
+            Path archive = archiveDirectory.resolve("application.jsa");
+            Process training = new ProcessBuilder(java.toString(), "-XX:ArchiveClassesAtExit=" + archive, "-jar", jar.toString())
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+            try (OutputStream input = training.getOutputStream()) {
+                input.write(OPERATIONS.getBytes(StandardCharsets.UTF_8));
+            }
+            if (training.waitFor() != 0 || !Files.isRegularFile(archive)) {
+                throw new IllegalStateException("The class-data-sharing archive could not be created");
+            }
+            options.add("-XX:SharedArchiveFile=" + archive);
+        }
+        if (launch.endsWith("c1")) {
+            options.add("-XX:TieredStopAtLevel=1");
+        }
+        command = new ArrayList<>();
+        command.add(java.toString());
+        command.addAll(options);
+        command.add("-jar");
+        command.add(jar.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (archiveDirectory != null) {
+            try (var files = Files.list(archiveDirectory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(archiveDirectory);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void waitForExit() throws InterruptedException {
+        process.waitFor();
+    }
+
+    @Benchmark
+    public String timeToFirstResult() throws IOException {
+        process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        try (OutputStream input = process.getOutputStream()) {
+            input.write(OPERATIONS.getBytes(StandardCharsets.UTF_8));
+        }
+        BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String taxes = output.readLine();
+        if (taxes == null) {
+            throw new IllegalStateException("The application did not answer");
+        }
+        return taxes;
+    }
+}
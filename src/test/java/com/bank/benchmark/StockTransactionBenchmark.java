@@ -0,0 +1,43 @@
+package com.bank.benchmark;
+
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.valueobject.OperationStatus;
+import com.bank.domain.valueobject.OperationType;
+import com.bank.domain.valueobject.Tax;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how adding operations to a {@link StockTransaction} scales with the number of operations.
+ * The average time divided by {@code operations} should stay flat when the append is constant time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StockTransactionBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int operations;
+
+    private OperationStatus operationStatus;
+
+    @Setup
+    public void setUp() {
+        StockOperation stockOperation = StockOperation.builder().operationType(OperationType.BUY).unitCost(10d).quantity(100L).build();
+        operationStatus = OperationStatus.builder().stockOperation(stockOperation).tax(Tax.builder().tax(0d).build()).build();
+    }
+
+    @Benchmark
+    public StockTransaction addOperations() {
+        StockTransaction stockTransaction = new StockTransaction();
+        for (int i = 0; i < operations; i++) {
+            stockTransaction = stockTransaction.addOperation(operationStatus, 10d, 0d, (long) i);
+        }
+        return stockTransaction;
+    }
+}
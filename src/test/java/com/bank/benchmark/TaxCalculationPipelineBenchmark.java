@@ -0,0 +1,77 @@
+package com.bank.benchmark;
+
+import com.bank.config.ApplicationConfiguration;
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.service.StockOperationService;
+import com.bank.framework.adapter.input.TaxCalculationViewCLIAdapter;
+import com.bank.framework.adapter.output.StringToStockOperationParserAdapter;
+import com.bank.framework.adapter.output.StringToTaxListParserAdapter;
+import com.bank.framework.adapter.output.domain.StockOperationDTO;
+import com.bank.framework.adapter.output.domain.TaxDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of every stage of the parse, calculate and serialize pipeline, plus the whole pipeline.
+ * Run with the gc profiler (the default of the benchmark profile) to get the allocation rate.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaxCalculationPipelineBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int operations;
+
+    @Param({"10", "50"})
+    private int sellPercentage;
+
+    private StringToStockOperationParserAdapter stringToStockOperationParserAdapter;
+    private StringToTaxListParserAdapter stringToTaxListParserAdapter;
+    private StockOperationService stockOperationService;
+    private TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter;
+
+    private String operationString;
+    private List<StockOperation> stockOperationList;
+    private List<TaxDTO> taxList;
+
+    @Setup
+    public void setUp() {
+        ApplicationConfiguration applicationConfiguration = ApplicationConfiguration.builder().build();
+        stringToStockOperationParserAdapter = StringToStockOperationParserAdapter.builder().build();
+        stringToTaxListParserAdapter = StringToTaxListParserAdapter.builder().build();
+        stockOperationService = applicationConfiguration.configureStockOperationService();
+        taxCalculationViewCLIAdapter = applicationConfiguration.configureDependencies();
+
+        BenchmarkOperations benchmarkOperations = BenchmarkOperations.generate(operations, sellPercentage);
+        operationString = benchmarkOperations.toJson();
+        stockOperationList = benchmarkOperations.getStockOperationList();
+        taxList = benchmarkOperations.toTaxList();
+    }
+
+    @Benchmark
+    public List<StockOperationDTO> parseString() {
+        return stringToStockOperationParserAdapter.parseString(operationString);
+    }
+
+    @Benchmark
+    public StockTransaction processOperation() {
+        return stockOperationService.processOperation(stockOperationList);
+    }
+
+    @Benchmark
+    public String parseObject() {
+        return stringToTaxListParserAdapter.parseObject(taxList);
+    }
+
+    @Benchmark
+    public String calculateTaxes() {
+        return taxCalculationViewCLIAdapter.calculateTaxes(operationString);
+    }
+}
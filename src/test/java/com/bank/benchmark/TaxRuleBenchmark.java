@@ -0,0 +1,67 @@
+package com.bank.benchmark;
+
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.policy.CompiledTaxRules;
+import com.bank.domain.policy.StockOperationCalculator;
+import com.bank.domain.policy.TaxesCalculator;
+import com.bank.domain.service.StockOperationService;
+import com.bank.domain.specification.EnoughStockQuantitySpecification;
+import com.bank.domain.specification.OperationShouldPayTaxesSpecification;
+import com.bank.domain.specification.OperationShouldRecalculateWeightedAverage;
+import com.bank.domain.specification.PerformanceShouldPayTaxSpecification;
+import com.bank.domain.specification.StockQuantitySpecification;
+import com.bank.domain.valueobject.TaxRules;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the evaluation of the policies and specifications with their {@link CompiledTaxRules}.
+ * The average time divided by {@code operations} is the cost per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaxRuleBenchmark {
+
+    @Param({"1000"})
+    private int operations;
+
+    private List<StockOperation> stockOperationList;
+    private StockOperationService specificationService;
+    private StockOperationService compiledService;
+
+    @Setup
+    public void setUp() {
+        stockOperationList = BenchmarkOperations.generate(operations, 30).getStockOperationList();
+        specificationService = stockOperationService(null);
+        compiledService = stockOperationService(CompiledTaxRules.compile(TaxRules.DEFAULT));
+    }
+
+    @Benchmark
+    public StockTransaction specifications() {
+        return specificationService.processOperation(stockOperationList);
+    }
+
+    @Benchmark
+    public StockTransaction compiledRules() {
+        return compiledService.processOperation(stockOperationList);
+    }
+
+    private static StockOperationService stockOperationService(CompiledTaxRules compiledTaxRules) {
+        OperationShouldPayTaxesSpecification operationShouldPayTaxesSpecification = OperationShouldPayTaxesSpecification.builder().build();
+        TaxesCalculator taxesCalculator = TaxesCalculator.builder().performanceShouldPayTaxSpecification(PerformanceShouldPayTaxSpecification.builder().build())
+                .operationShouldPayTaxesSpecification(operationShouldPayTaxesSpecification).build();
+        StockOperationCalculator stockOperationCalculator = StockOperationCalculator.builder().stockQuantitySpecification(StockQuantitySpecification.builder().build())
+                .operationShouldPayTaxesSpecification(operationShouldPayTaxesSpecification).build();
+        return StockOperationService.builder().stockOperationCalculator(stockOperationCalculator).taxesCalculator(taxesCalculator)
+                .operationShouldRecalculateWeightedAverage(OperationShouldRecalculateWeightedAverage.builder().build())
+                .enoughStockQuantitySpecification(EnoughStockQuantitySpecification.builder().build())
+                .compiledTaxRules(compiledTaxRules).build();
+    }
+}
@@ -0,0 +1,102 @@
+package com.bank.domain.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OperationLogTest {
+
+    @Test
+    @DisplayName("Appending keeps every previous version unchanged")
+    void testAppendKeepsPreviousVersions() {
+        //Given
+        OperationLog<Integer> empty = OperationLog.empty();
+
+        //When
+        OperationLog<Integer> first = empty.append(0);
+        OperationLog<Integer> second = first.append(1);
+
+        //Then
+        assertEquals(0, empty.size(), "The empty log should remain empty");
+        assertEquals(1, first.size(), "The first version should keep one element");
+        assertEquals(2, second.size(), "The second version should have two elements");
+        assertEquals(1, second.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> first.get(1));
+    }
+
+    @Test
+    @DisplayName("Appending to an old version creates an independent branch")
+    void testAppendToAnOldVersionCreatesABranch() {
+        //Given
+        OperationLog<Integer> prefix = OperationLog.empty();
+        for (int i = 0; i < 70; i++) {
+            prefix = prefix.append(i);
+        }
+        OperationLog<Integer> tip = prefix;
+        for (int i = 70; i < 100; i++) {
+            tip = tip.append(i);
+        }
+
+        //When
+        OperationLog<Integer> branch = prefix.append(-1);
+        OperationLog<Integer> branchOfBranch = prefix.append(-2);
+
+        //Then
+        assertEquals(71, branch.size());
+        assertEquals(-1, branch.get(70));
+        assertEquals(-2, branchOfBranch.get(70));
+        assertEquals(70, tip.get(70), "The original version should not see the branches");
+        assertEquals(69, branch.get(69));
+    }
+
+    @Test
+    @DisplayName("Appending many elements keeps the order")
+    void testAppendManyElements() {
+        //Given
+        OperationLog<Integer> log = OperationLog.empty();
+        int expectedSize = 100_000;
+
+        //When
+        for (int i = 0; i < expectedSize; i++) {
+            log = log.append(i);
+        }
+
+        //Then
+        assertEquals(expectedSize, log.size());
+        for (int i = 0; i < expectedSize; i++) {
+            assertEquals(i, log.get(i));
+        }
+    }
+
+    @Test
+    void testAppendWhenElementIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> OperationLog.empty().append(null));
+    }
+
+    @Test
+    void testLogIsNotModifiable() {
+        assertThrows(UnsupportedOperationException.class, () -> OperationLog.<Integer>empty().append(1).add(2));
+    }
+
+    @Test
+    @DisplayName("A log created in bulk holds the elements and can be appended to")
+    void testLogCreatedInBulk() {
+        //Given
+        List<Integer> elements = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+
+        //When
+        OperationLog<Integer> log = OperationLog.of(elements);
+        OperationLog<Integer> appended = log.append(100);
+
+        //Then
+        assertEquals(elements, log);
+        assertEquals(101, appended.size());
+        assertEquals(100, appended.get(100));
+        assertEquals(0, OperationLog.of(List.of()).size());
+    }
+}
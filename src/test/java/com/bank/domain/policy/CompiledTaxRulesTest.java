@@ -0,0 +1,93 @@
+package com.bank.domain.policy;
+
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.service.StockOperationService;
+import com.bank.domain.specification.EnoughStockQuantitySpecification;
+import com.bank.domain.specification.OperationShouldPayTaxesSpecification;
+import com.bank.domain.specification.OperationShouldRecalculateWeightedAverage;
+import com.bank.domain.specification.PerformanceShouldPayTaxSpecification;
+import com.bank.domain.specification.StockQuantitySpecification;
+import com.bank.domain.valueobject.AbstractEntityStatus;
+import com.bank.domain.valueobject.OperationType;
+import com.bank.domain.valueobject.StatusType;
+import com.bank.domain.valueobject.TaxRules;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledTaxRulesTest {
+
+    @Test
+    @DisplayName("The compiled rules calculate the same transactions as the policies")
+    void testCompiledRulesCalculateAsThePolicies() {
+        Random random = new Random(42);
+        for (TaxRules taxRules : new TaxRules[]{TaxRules.DEFAULT, TaxRules.builder().percentageTaxToBeApplied(15d).amountExemptToPayTax(5000d).build()}) {
+            StockOperationService policyService = stockOperationService(taxRules, null);
+            StockOperationService compiledService = stockOperationService(taxRules, CompiledTaxRules.compile(taxRules));
+            for (int simulation = 0; simulation < 200; simulation++) {
+                //Given
+                int length = 1 + random.nextInt(200);
+                List<StockOperation> stockOperationList = new ArrayList<>(length);
+                for (int i = 0; i < length; i++) {
+                    stockOperationList.add(StockOperation.builder().operationType(random.nextInt(3) == 0 ? OperationType.BUY : OperationType.SELL)
+                            .unitCost(random.nextInt(100_000) / 100d).quantity(1L + random.nextInt(5_000)).build());
+                }
+
+                //When
+                StockTransaction expected = policyService.processOperation(stockOperationList);
+                StockTransaction actual = compiledService.processOperation(stockOperationList);
+
+                //Then
+                for (int i = 0; i < length; i++) {
+                    AbstractEntityStatus expectedStatus = expected.getOperationList().get(i);
+                    AbstractEntityStatus actualStatus = actual.getOperationList().get(i);
+                    assertEquals(expectedStatus.getTax().getTax(), actualStatus.getTax().getTax(), "Tax of the operation " + i);
+                    assertEquals(expectedStatus.getEntityStatus() == StatusType.ERROR, actualStatus.getEntityStatus() == StatusType.ERROR, "Status of the operation " + i);
+                }
+                assertEquals(expected.getCurrentStockQuantity(), actual.getCurrentStockQuantity());
+                assertEquals(expected.getWeightedAveragePrice(), actual.getWeightedAveragePrice());
+                assertEquals(expected.getTotalLoss(), actual.getTotalLoss());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("The thresholds of the tax rules are applied")
+    void testCompiledRulesApplyTheThresholds() {
+        //Given
+        CompiledTaxRules compiledTaxRules = CompiledTaxRules.compile(TaxRules.builder().percentageTaxToBeApplied(10d).amountExemptToPayTax(1000d).build());
+        StockTransaction stockTransaction = compiledTaxRules.apply(StockOperation.builder().operationType(OperationType.BUY).unitCost(10d).quantity(200L).build(),
+                new StockTransaction());
+
+        //When
+        stockTransaction = compiledTaxRules.apply(StockOperation.builder().operationType(OperationType.SELL).unitCost(20d).quantity(100L).build(), stockTransaction);
+
+        //Then
+        assertEquals(100d, stockTransaction.getLastOperation().getTax().getTax(), "10% of a profit of 1000 above the exemption");
+    }
+
+    @Test
+    @DisplayName("Tax rules outside their range are rejected")
+    void testInvalidTaxRules() {
+        assertThrows(IllegalArgumentException.class, () -> TaxRules.builder().percentageTaxToBeApplied(101d).build());
+        assertThrows(IllegalArgumentException.class, () -> TaxRules.builder().amountExemptToPayTax(-1d).build());
+    }
+
+    private static StockOperationService stockOperationService(TaxRules taxRules, CompiledTaxRules compiledTaxRules) {
+        OperationShouldPayTaxesSpecification operationShouldPayTaxesSpecification = OperationShouldPayTaxesSpecification.builder().taxRules(taxRules).build();
+        TaxesCalculator taxesCalculator = TaxesCalculator.builder().performanceShouldPayTaxSpecification(PerformanceShouldPayTaxSpecification.builder().build())
+                .operationShouldPayTaxesSpecification(operationShouldPayTaxesSpecification).taxRules(taxRules).build();
+        StockOperationCalculator stockOperationCalculator = StockOperationCalculator.builder().stockQuantitySpecification(StockQuantitySpecification.builder().build())
+                .operationShouldPayTaxesSpecification(operationShouldPayTaxesSpecification).build();
+        return StockOperationService.builder().stockOperationCalculator(stockOperationCalculator).taxesCalculator(taxesCalculator)
+                .operationShouldRecalculateWeightedAverage(OperationShouldRecalculateWeightedAverage.builder().build())
+                .enoughStockQuantitySpecification(EnoughStockQuantitySpecification.builder().build())
+                .compiledTaxRules(compiledTaxRules).build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.bank.domain.service;
+
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.valueobject.OperationType;
+import com.bank.domain.valueobject.TaxRules;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarStockOperationEngineTest {
+
+    @Test
+    @DisplayName("The columnar engine calculates the same taxes and state as the primitive engine")
+    void testCalculateTaxesAsThePrimitiveEngine() {
+        Random random = new Random(42);
+        TaxRules taxRules = TaxRules.builder().percentageTaxToBeApplied(15d).amountExemptToPayTax(5000d).build();
+        for (int simulation = 0; simulation < 200; simulation++) {
+            //Given
+            int length = 1 + random.nextInt(300);
+            OperationType[] operationTypes = new OperationType[length];
+            double[] unitCosts = new double[length];
+            long[] quantities = new long[length];
+            for (int i = 0; i < length; i++) {
+                int type = random.nextInt(7);
+                operationTypes[i] = type < 3 ? OperationType.SELL : type < 6 ? OperationType.BUY : null;
+                unitCosts[i] = random.nextInt(100_000) / 100d;
+                quantities[i] = 1 + random.nextInt(5_000);
+            }
+            PrimitiveStockOperationEngine primitiveStockOperationEngine = new PrimitiveStockOperationEngine(taxRules);
+            ColumnarStockOperationEngine columnarStockOperationEngine = new ColumnarStockOperationEngine(taxRules);
+            double[] expectedTaxes = new double[length];
+            boolean[] expectedRejected = new boolean[length];
+            double[] taxes = new double[length];
+            boolean[] rejected = new boolean[length];
+
+            //When
+            primitiveStockOperationEngine.calculateTaxes(operationTypes, unitCosts, quantities, length, expectedTaxes, expectedRejected);
+            int half = length / 2;
+            columnarStockOperationEngine.calculateTaxes(operationTypes, unitCosts, quantities, half, taxes, rejected);
+            for (int i = half; i < length; i++) {
+                taxes[i] = columnarStockOperationEngine.calculateTax(operationTypes[i], unitCosts[i], quantities[i]);
+                rejected[i] = columnarStockOperationEngine.isLastOperationRejected();
+            }
+
+            //Then
+            assertArrayEquals(expectedTaxes, taxes);
+            assertArrayEquals(expectedRejected, rejected);
+            assertEquals(primitiveStockOperationEngine.toStockTransaction().getCurrentStockQuantity(), columnarStockOperationEngine.getCurrentStockQuantity());
+            assertEquals(primitiveStockOperationEngine.getWeightedAveragePrice(), columnarStockOperationEngine.getWeightedAveragePrice());
+            assertEquals(primitiveStockOperationEngine.getTotalLoss(), columnarStockOperationEngine.getTotalLoss());
+            assertEquals(primitiveStockOperationEngine.isLastOperationRejected(), columnarStockOperationEngine.isLastOperationRejected());
+        }
+    }
+
+    @Test
+    @DisplayName("An invalid buy fails keeping the state of the operations before it")
+    void testCalculateTaxesWhenABuyHasNoQuantity() {
+        //Given
+        ColumnarStockOperationEngine columnarStockOperationEngine = new ColumnarStockOperationEngine();
+        columnarStockOperationEngine.restore(StockTransaction.fromState(0L, 0d, -100d));
+        OperationType[] operationTypes = {OperationType.BUY, OperationType.SELL, OperationType.BUY};
+        double[] unitCosts = {10d, 5d, 10d};
+        long[] quantities = {100L, 100L, 0L};
+
+        //When
+        assertThrows(IllegalArgumentException.class, () -> columnarStockOperationEngine.calculateTaxes(operationTypes, unitCosts, quantities,
+                operationTypes.length, new double[3], new boolean[3]));
+
+        //Then
+        assertEquals(0L, columnarStockOperationEngine.getCurrentStockQuantity());
+        assertEquals(10d, columnarStockOperationEngine.getWeightedAveragePrice());
+        assertEquals(-600d, columnarStockOperationEngine.getTotalLoss());
+    }
+}
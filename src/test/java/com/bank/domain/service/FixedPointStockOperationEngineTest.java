@@ -0,0 +1,118 @@
+package com.bank.domain.service;
+
+import com.bank.domain.valueobject.OperationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedPointStockOperationEngineTest {
+
+    private FixedPointStockOperationEngine fixedPointStockOperationEngine;
+
+    @BeforeEach
+    void setUp() {
+        fixedPointStockOperationEngine = new FixedPointStockOperationEngine();
+    }
+
+    @Test
+    @DisplayName("Case #7 with the fixed point engine")
+    void testCalculateTaxesTestCase7() {
+        //Given
+        OperationType[] operationTypes = {OperationType.BUY, OperationType.SELL, OperationType.SELL, OperationType.SELL, OperationType.SELL,
+                OperationType.BUY, OperationType.SELL, OperationType.SELL, OperationType.SELL};
+        double[] unitCosts = {10d, 2d, 20d, 20d, 25d, 20d, 15d, 30d, 30d};
+        long[] quantities = {10000L, 5000L, 2000L, 2000L, 1000L, 10000L, 5000L, 4350L, 650L};
+        double[] taxes = new double[operationTypes.length];
+        boolean[] rejected = new boolean[operationTypes.length];
+
+        //When
+        fixedPointStockOperationEngine.calculateTaxes(operationTypes, unitCosts, quantities, operationTypes.length, taxes, rejected);
+
+        //Then
+        assertArrayEquals(new double[]{0, 0, 0, 0, 3000, 0, 0, 3700, 0}, taxes);
+    }
+
+    @Test
+    @DisplayName("Case #9 with the fixed point engine")
+    void testCalculateTaxesTestCase9() {
+        //Given
+        OperationType[] operationTypes = {OperationType.BUY, OperationType.SELL, OperationType.BUY, OperationType.BUY, OperationType.BUY,
+                OperationType.SELL, OperationType.SELL, OperationType.SELL};
+        double[] unitCosts = {5000d, 4000d, 15000d, 4000d, 23000d, 20000d, 12000d, 15000d};
+        long[] quantities = {10L, 5L, 5L, 2L, 2L, 1L, 10L, 3L};
+        double[] taxes = new double[operationTypes.length];
+        boolean[] rejected = new boolean[operationTypes.length];
+
+        //When
+        fixedPointStockOperationEngine.calculateTaxes(operationTypes, unitCosts, quantities, operationTypes.length, taxes, rejected);
+
+        //Then
+        assertArrayEquals(new double[]{0, 0, 0, 0, 0, 0, 1000, 2400}, taxes);
+    }
+
+    @Test
+    @DisplayName("The weighted-average price is rounded half up to the cent")
+    void testWeightedAveragePriceIsRoundedHalfUp() {
+        //When
+        fixedPointStockOperationEngine.calculateTaxInCents(OperationType.BUY, 1000L, 1L);
+        fixedPointStockOperationEngine.calculateTaxInCents(OperationType.BUY, 1001L, 1L);
+
+        //Then
+        assertEquals(1001L, fixedPointStockOperationEngine.getWeightedAveragePriceInCents(), "10.005 should be rounded to 10.01");
+
+        //When
+        fixedPointStockOperationEngine.calculateTaxInCents(OperationType.BUY, 1000L, 1L);
+
+        //Then
+        assertEquals(1001L, fixedPointStockOperationEngine.getWeightedAveragePriceInCents(), "10.0066 should be rounded to 10.01");
+    }
+
+    @Test
+    @DisplayName("The tax is rounded half up to the cent")
+    void testTaxIsRoundedHalfUp() {
+        //Given
+        fixedPointStockOperationEngine.calculateTaxInCents(OperationType.BUY, 1000L, 3000L);
+
+        //When
+        long tax = fixedPointStockOperationEngine.calculateTaxInCents(OperationType.SELL, 1000L + 1L, 3000L - 1L);
+
+        //Then
+        assertEquals(600L, tax, "20% of a profit of 29.99 is 5.998, rounded to 6.00");
+    }
+
+    @Test
+    @DisplayName("Small amounts do not accumulate drift")
+    void testSmallAmountsDoNotDrift() {
+        //Given
+        for (int i = 0; i < 10; i++) {
+            fixedPointStockOperationEngine.calculateTax(OperationType.BUY, 0.1d, 1L);
+        }
+
+        //When
+        fixedPointStockOperationEngine.calculateTax(OperationType.SELL, 0.05d, 10L);
+
+        //Then
+        assertEquals(10L, fixedPointStockOperationEngine.getWeightedAveragePriceInCents());
+        assertEquals(-50L, fixedPointStockOperationEngine.getTotalLossInCents(), "Selling 10 stocks 0.05 below the average is a 0.50 loss");
+    }
+
+    @Test
+    @DisplayName("Selling more stocks than available is rejected and keeps the state")
+    void testCalculateTaxWhenThereIsNotEnoughStock() {
+        fixedPointStockOperationEngine.calculateTax(OperationType.BUY, 10d, 100L);
+        assertEquals(0d, fixedPointStockOperationEngine.calculateTax(OperationType.SELL, 20d, 101L));
+        assertTrue(fixedPointStockOperationEngine.isLastOperationRejected());
+        assertEquals(100L, fixedPointStockOperationEngine.getCurrentStockQuantity());
+    }
+
+    @Test
+    @DisplayName("Amounts that do not fit in cents fail instead of overflowing")
+    void testCalculateTaxWhenTheAmountOverflows() {
+        assertThrows(ArithmeticException.class, () -> {
+            fixedPointStockOperationEngine.calculateTaxInCents(OperationType.BUY, Long.MAX_VALUE / 2, 1L);
+            fixedPointStockOperationEngine.calculateTaxInCents(OperationType.BUY, Long.MAX_VALUE / 2, 2L);
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package com.bank.domain.service;
+
+import com.bank.config.ApplicationConfiguration;
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.valueobject.AbstractEntityStatus;
+import com.bank.domain.valueobject.OperationType;
+import com.bank.domain.valueobject.StatusType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelScanStockOperationEngineTest {
+
+    private StockOperationService stockOperationService;
+    private ForkJoinPool forkJoinPool;
+    private ParallelScanStockOperationEngine parallelScanStockOperationEngine;
+
+    @BeforeEach
+    void setUp() {
+        stockOperationService = ApplicationConfiguration.builder().build().configureStockOperationService();
+        forkJoinPool = new ForkJoinPool(4);
+        parallelScanStockOperationEngine = ParallelScanStockOperationEngine.builder().forkJoinPool(forkJoinPool).chunkSize(16).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        forkJoinPool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("The parallel scan calculates the same transaction as the sequential service")
+    void testParallelScanCalculatesAsTheSequentialService() {
+        Random random = new Random(42);
+        for (int simulation = 0; simulation < 300; simulation++) {
+            //Given
+            List<StockOperation> stockOperationList = randomOperations(random, 1 + random.nextInt(400));
+
+            //When
+            StockTransaction expected = stockOperationService.processOperation(stockOperationList);
+            StockTransaction actual = parallelScanStockOperationEngine.processOperation(stockOperationList);
+
+            //Then
+            assertSameTransaction(expected, actual);
+        }
+    }
+
+    @Test
+    @DisplayName("The parallel scan continues a transaction like the sequential service")
+    void testParallelScanContinuesATransaction() {
+        //Given
+        Random random = new Random(7);
+        StockTransaction initialStockTransaction = stockOperationService.processOperation(randomOperations(random, 50));
+        List<StockOperation> stockOperationList = randomOperations(random, 500);
+
+        //When
+        StockTransaction expected = stockOperationService.processOperation(stockOperationList, initialStockTransaction);
+        StockTransaction actual = parallelScanStockOperationEngine.processOperation(stockOperationList, initialStockTransaction);
+
+        //Then
+        assertSameTransaction(expected, actual);
+    }
+
+    @Test
+    @DisplayName("A buy of no stocks without stocks fails like in the sequential service")
+    void testParallelScanRejectsABuyWithoutStocks() {
+        List<StockOperation> stockOperationList = new ArrayList<>(randomOperations(new Random(3), 40));
+        stockOperationList.add(StockOperation.builder().operationType(OperationType.SELL).unitCost(1d).quantity(Long.MAX_VALUE).build());
+        stockOperationList.add(operation(OperationType.SELL, 1d, stockOperationService.processOperation(stockOperationList).getCurrentStockQuantity()));
+        stockOperationList.add(operation(OperationType.BUY, 1d, 0L));
+
+        assertThrows(IllegalArgumentException.class, () -> stockOperationService.processOperation(stockOperationList));
+        assertThrows(IllegalArgumentException.class, () -> parallelScanStockOperationEngine.processOperation(stockOperationList));
+    }
+
+    /**
+     * Sells of up to twice the average buy, so some are rejected and the stock often goes back to zero
+     */
+    private static List<StockOperation> randomOperations(Random random, int length) {
+        List<StockOperation> stockOperationList = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            boolean sell = random.nextInt(2) == 0;
+            stockOperationList.add(operation(sell ? OperationType.SELL : OperationType.BUY, random.nextInt(10_000) / 100d, 1L + random.nextInt(sell ? 2_000 : 1_000)));
+        }
+        return stockOperationList;
+    }
+
+    private static StockOperation operation(OperationType operationType, double unitCost, long quantity) {
+        return StockOperation.builder().operationType(operationType).unitCost(unitCost).quantity(quantity).build();
+    }
+
+    private static void assertSameTransaction(StockTransaction expected, StockTransaction actual) {
+        assertEquals(expected.getOperationList().size(), actual.getOperationList().size());
+        for (int i = 0; i < expected.getOperationList().size(); i++) {
+            AbstractEntityStatus expectedStatus = expected.getOperationList().get(i);
+            AbstractEntityStatus actualStatus = actual.getOperationList().get(i);
+            assertEquals(expectedStatus.getTax().getTax(), actualStatus.getTax().getTax(), "Tax of the operation " + i);
+            assertEquals(expectedStatus.getEntityStatus() == StatusType.ERROR, actualStatus.getEntityStatus() == StatusType.ERROR, "Status of the operation " + i);
+        }
+        assertEquals(expected.getCurrentStockQuantity(), actual.getCurrentStockQuantity());
+        assertEquals(expected.getWeightedAveragePrice(), actual.getWeightedAveragePrice());
+        assertEquals(expected.getTotalLoss(), actual.getTotalLoss());
+    }
+}
@@ -0,0 +1,110 @@
+package com.bank.domain.service;
+
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.policy.StockOperationCalculator;
+import com.bank.domain.policy.TaxesCalculator;
+import com.bank.domain.specification.EnoughStockQuantitySpecification;
+import com.bank.domain.specification.OperationShouldPayTaxesSpecification;
+import com.bank.domain.specification.OperationShouldRecalculateWeightedAverage;
+import com.bank.domain.specification.PerformanceShouldPayTaxSpecification;
+import com.bank.domain.specification.StockQuantitySpecification;
+import com.bank.domain.valueobject.OperationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrimitiveStockOperationEngineTest {
+
+    private StockOperationService stockOperationService;
+    private PrimitiveStockOperationEngine primitiveStockOperationEngine;
+
+    @BeforeEach
+    void setUp() {
+        OperationShouldPayTaxesSpecification operationShouldPayTaxesSpecification = OperationShouldPayTaxesSpecification.builder().build();
+        TaxesCalculator taxesCalculator = TaxesCalculator.builder().performanceShouldPayTaxSpecification(PerformanceShouldPayTaxSpecification.builder().build())
+                .operationShouldPayTaxesSpecification(operationShouldPayTaxesSpecification).build();
+        StockOperationCalculator stockOperationCalculator = StockOperationCalculator.builder().stockQuantitySpecification(StockQuantitySpecification.builder().build())
+                .operationShouldPayTaxesSpecification(operationShouldPayTaxesSpecification).build();
+        stockOperationService = StockOperationService.builder().stockOperationCalculator(stockOperationCalculator).taxesCalculator(taxesCalculator)
+                .operationShouldRecalculateWeightedAverage(OperationShouldRecalculateWeightedAverage.builder().build())
+                .enoughStockQuantitySpecification(EnoughStockQuantitySpecification.builder().build()).build();
+        primitiveStockOperationEngine = new PrimitiveStockOperationEngine();
+    }
+
+    @Test
+    @DisplayName("Case #7 with the primitive engine")
+    void testCalculateTaxesTestCase7() {
+        //Given
+        OperationType[] operationTypes = {OperationType.BUY, OperationType.SELL, OperationType.SELL, OperationType.SELL, OperationType.SELL,
+                OperationType.BUY, OperationType.SELL, OperationType.SELL, OperationType.SELL};
+        double[] unitCosts = {10d, 2d, 20d, 20d, 25d, 20d, 15d, 30d, 30d};
+        long[] quantities = {10000L, 5000L, 2000L, 2000L, 1000L, 10000L, 5000L, 4350L, 650L};
+        double[] taxes = new double[operationTypes.length];
+        boolean[] rejected = new boolean[operationTypes.length];
+
+        //When
+        primitiveStockOperationEngine.calculateTaxes(operationTypes, unitCosts, quantities, operationTypes.length, taxes, rejected);
+
+        //Then
+        assertArrayEquals(new double[]{0, 0, 0, 0, 3000, 0, 0, 3700, 0}, taxes);
+        assertArrayEquals(new boolean[operationTypes.length], rejected, "No operation should be rejected");
+    }
+
+    @Test
+    @DisplayName("Selling more stocks than available is rejected and keeps the state")
+    void testCalculateTaxWhenThereIsNotEnoughStock() {
+        //Given
+        primitiveStockOperationEngine.calculateTax(OperationType.BUY, 10d, 100L);
+
+        //When
+        double tax = primitiveStockOperationEngine.calculateTax(OperationType.SELL, 20d, 101L);
+
+        //Then
+        assertEquals(0d, tax);
+        assertTrue(primitiveStockOperationEngine.isLastOperationRejected());
+        assertEquals(100L, primitiveStockOperationEngine.getCurrentStockQuantity());
+        assertEquals(10d, primitiveStockOperationEngine.getWeightedAveragePrice());
+    }
+
+    @Test
+    @DisplayName("The primitive engine calculates the same taxes as the domain service")
+    void testCalculateTaxesAsTheDomainService() {
+        Random random = new Random(42);
+        for (int simulation = 0; simulation < 200; simulation++) {
+            //Given
+            int length = 1 + random.nextInt(200);
+            List<StockOperation> stockOperationList = new ArrayList<>(length);
+            OperationType[] operationTypes = new OperationType[length];
+            double[] unitCosts = new double[length];
+            long[] quantities = new long[length];
+            for (int i = 0; i < length; i++) {
+                operationTypes[i] = random.nextInt(3) == 0 ? OperationType.SELL : OperationType.BUY;
+                unitCosts[i] = random.nextInt(100_000) / 100d;
+                quantities[i] = 1 + random.nextInt(5_000);
+                stockOperationList.add(StockOperation.builder().operationType(operationTypes[i]).unitCost(unitCosts[i]).quantity(quantities[i]).build());
+            }
+            double[] taxes = new double[length];
+            boolean[] rejected = new boolean[length];
+
+            //When
+            StockTransaction stockTransaction = stockOperationService.processOperation(stockOperationList);
+            primitiveStockOperationEngine.reset();
+            primitiveStockOperationEngine.calculateTaxes(operationTypes, unitCosts, quantities, length, taxes, rejected);
+
+            //Then
+            for (int i = 0; i < length; i++) {
+                assertEquals(stockTransaction.getOperationList().get(i).getTax().getTax(), taxes[i], "Tax of the operation " + i);
+            }
+            assertEquals(stockTransaction.getCurrentStockQuantity(), primitiveStockOperationEngine.getCurrentStockQuantity());
+            assertEquals(stockTransaction.getWeightedAveragePrice(), primitiveStockOperationEngine.getWeightedAveragePrice());
+            assertEquals(stockTransaction.getTotalLoss(), primitiveStockOperationEngine.getTotalLoss());
+        }
+    }
+}
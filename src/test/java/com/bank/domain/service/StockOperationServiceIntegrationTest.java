@@ -4,6 +4,7 @@ import com.bank.domain.entity.StockOperation;
 import com.bank.domain.policy.StockOperationCalculator;
 import com.bank.domain.policy.TaxesCalculator;
 import com.bank.domain.specification.OperationShouldPayTaxesSpecification;
+import com.bank.domain.specification.EnoughStockQuantitySpecification;
 import com.bank.domain.specification.OperationShouldRecalculateWeightedAverage;
 import com.bank.domain.specification.PerformanceShouldPayTaxSpecification;
 import com.bank.domain.specification.StockQuantitySpecification;
@@ -41,7 +42,8 @@ class StockOperationServiceIntegrationTest {
         stockOperationCalculator = StockOperationCalculator.builder().stockQuantitySpecification(stockQuantitySpecification)
                 .operationShouldPayTaxesSpecification(operationShouldPayTaxesSpecification).build();
         taxOperationService = StockOperationService.builder().stockOperationCalculator(stockOperationCalculator)
-                .taxesCalculator(taxesCalculator).operationShouldRecalculateWeightedAverage(operationShouldRecalculateWeightedAverage).build();
+                .taxesCalculator(taxesCalculator).operationShouldRecalculateWeightedAverage(operationShouldRecalculateWeightedAverage)
+                .enoughStockQuantitySpecification(EnoughStockQuantitySpecification.builder().build()).build();
     }
 
     //@Test
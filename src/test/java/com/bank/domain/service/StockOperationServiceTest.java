@@ -1,13 +1,12 @@
 package com.bank.domain.service;
 
-import com.bank.capitalgain.domain.valueobject.*;
 import com.bank.domain.entity.StockOperation;
 import com.bank.domain.entity.StockTransaction;
 import com.bank.domain.policy.StockOperationCalculator;
 import com.bank.domain.policy.TaxesCalculator;
+import com.bank.domain.specification.EnoughStockQuantitySpecification;
 import com.bank.domain.specification.OperationShouldRecalculateWeightedAverage;
 import com.bank.domain.valueobject.*;
-import com.br.nubank.capitalgain.domain.valueobject.*;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -33,7 +32,8 @@ class StockOperationServiceTest {
         stockOperationCalculator = mock(StockOperationCalculator.class);
         operationShouldRecalculateWeightedAverage = mock(OperationShouldRecalculateWeightedAverage.class);
         taxOperationService = StockOperationService.builder().stockOperationCalculator(stockOperationCalculator)
-                .taxesCalculator(taxesCalculator).operationShouldRecalculateWeightedAverage(operationShouldRecalculateWeightedAverage).build();
+                .taxesCalculator(taxesCalculator).operationShouldRecalculateWeightedAverage(operationShouldRecalculateWeightedAverage)
+                .enoughStockQuantitySpecification(EnoughStockQuantitySpecification.builder().build()).build();
     }
 
     @AfterEach
@@ -0,0 +1,85 @@
+package com.bank.domain.service;
+
+import com.bank.config.ApplicationConfiguration;
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.valueobject.AbstractEntityStatus;
+import com.bank.domain.valueobject.OperationType;
+import com.bank.domain.valueobject.Tax;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockTransactionPrefixTrieTest {
+
+    private StockOperationService stockOperationService;
+
+    @BeforeEach
+    void setUp() {
+        stockOperationService = ApplicationConfiguration.builder().build().configureStockOperationService();
+    }
+
+    @Test
+    @DisplayName("Simulations sharing a prefix get the same taxes as calculating them from scratch")
+    void testProcessOperationSharingAPrefix() {
+        //Given
+        StockTransactionPrefixTrie stockTransactionPrefixTrie = StockTransactionPrefixTrie.builder().stockOperationService(stockOperationService).maxNodes(100).build();
+        List<StockOperation> history = List.of(operation(OperationType.BUY, 10d, 10000L), operation(OperationType.SELL, 2d, 5000L));
+        List<StockOperation> firstScenario = scenario(history, operation(OperationType.SELL, 20d, 2000L), operation(OperationType.SELL, 25d, 1000L));
+        List<StockOperation> secondScenario = scenario(history, operation(OperationType.SELL, 20d, 2000L), operation(OperationType.SELL, 20d, 9000L));
+        List<StockOperation> thirdScenario = scenario(history, operation(OperationType.BUY, 5d, 2000L));
+
+        //When
+        StockTransaction first = stockTransactionPrefixTrie.processOperation(firstScenario);
+        StockTransaction second = stockTransactionPrefixTrie.processOperation(secondScenario);
+        StockTransaction third = stockTransactionPrefixTrie.processOperation(thirdScenario);
+
+        //Then
+        assertEquals(taxes(stockOperationService.processOperation(firstScenario)), taxes(first));
+        assertEquals(taxes(stockOperationService.processOperation(secondScenario)), taxes(second));
+        assertEquals(taxes(stockOperationService.processOperation(thirdScenario)), taxes(third));
+        assertEquals(stockOperationService.processOperation(secondScenario).getCurrentStockQuantity(), second.getCurrentStockQuantity());
+        assertEquals(6, stockTransactionPrefixTrie.getSize(), "The history and the common sell are cached once");
+        assertSame(first, stockTransactionPrefixTrie.processOperation(firstScenario));
+    }
+
+    @Test
+    @DisplayName("The least recently used leaves are evicted over the limit and the trie keeps calculating")
+    void testEviction() {
+        //Given
+        StockTransactionPrefixTrie stockTransactionPrefixTrie = StockTransactionPrefixTrie.builder().stockOperationService(stockOperationService).maxNodes(3).build();
+        List<StockOperation> operations = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            operations.add(operation(OperationType.BUY, 10d + i, 100L));
+        }
+
+        //When
+        StockTransaction stockTransaction = stockTransactionPrefixTrie.processOperation(operations);
+
+        //Then
+        assertEquals(3, stockTransactionPrefixTrie.getSize());
+        assertEquals(1, stockTransactionPrefixTrie.getEvictionCount(), "Once its node is evicted, the rest of the sequence is not cached");
+        assertEquals(taxes(stockOperationService.processOperation(operations)), taxes(stockTransaction));
+        assertEquals(1000L, stockTransaction.getCurrentStockQuantity());
+    }
+
+    private static List<StockOperation> scenario(List<StockOperation> history, StockOperation... suffix) {
+        List<StockOperation> operations = new ArrayList<>(history);
+        operations.addAll(List.of(suffix));
+        return operations;
+    }
+
+    private static StockOperation operation(OperationType operationType, double unitCost, long quantity) {
+        return StockOperation.builder().operationType(operationType).unitCost(unitCost).quantity(quantity).build();
+    }
+
+    private static List<Double> taxes(StockTransaction stockTransaction) {
+        return stockTransaction.getOperationList().stream().map(AbstractEntityStatus::getTax).map(Tax::getTax).collect(Collectors.toList());
+    }
+}
@@ -24,4 +24,12 @@ class OperationTypeTest {
     void testGetOperationByNameWhenIsANotAKnownOperation() {
         assertThrows(IllegalArgumentException.class,() -> OperationType.getOperationTypeByName("anotherOperation"));
     }
+
+    @Test
+    @DisplayName("Find Operation returns null when is not a known operation")
+    void testFindOperationByNameWhenIsANotAKnownOperation() {
+        assertEquals(OperationType.BUY, OperationType.findOperationTypeByName("buy"));
+        assertNull(OperationType.findOperationTypeByName("anotherOperation"));
+        assertNull(OperationType.findOperationTypeByName(null));
+    }
 }
\ No newline at end of file
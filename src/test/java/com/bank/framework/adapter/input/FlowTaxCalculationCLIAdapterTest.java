@@ -0,0 +1,154 @@
+package com.bank.framework.adapter.input;
+
+import com.bank.application.metrics.LineErrorCounts;
+import com.bank.config.ApplicationConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlowTaxCalculationCLIAdapterTest {
+
+    private TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter;
+    private ExecutorService executorService;
+
+    @BeforeEach
+    void setUp() {
+        taxCalculationViewCLIAdapter = ApplicationConfiguration.builder().build().configureDependencies();
+        executorService = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("The pipeline writes the same taxes as the streaming CLI, in the order of the lines")
+    void testCalculateTaxesAsTheStreamingCLI() throws IOException {
+        //Given
+        List<String> operationStrings = List.of(
+                "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 10000},{\"operation\":\"sell\", \"unit-cost\":20.00, \"quantity\": 5000}]",
+                "[]",
+                "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 10000},{\"operation\":\"sell\", \"unit-cost\":5.00, \"quantity\": 5000},"
+                        + "{\"operation\":\"sell\", \"unit-cost\":20.00, \"quantity\": 3000},{\"operation\":\"sell\", \"unit-cost\":20.00, \"quantity\": 3000}]",
+                "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 100},{\"operation\":\"sell\", \"unit-cost\":15.00, \"quantity\": 50}]");
+        ByteArrayOutputStream expectedOutput = new ByteArrayOutputStream();
+        operationStrings.forEach(operationString -> taxCalculationViewCLIAdapter.calculateTaxes(operationString, expectedOutput));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //When
+        ApplicationConfiguration.builder().build().configureFlowAdapter(executorService, 2).calculateTaxes(operationStrings.iterator(), outputStream);
+
+        //Then
+        assertEquals(expectedOutput.toString(StandardCharsets.UTF_8), outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("A line that cannot be parsed fails the pipeline after the taxes of the previous lines")
+    void testCalculateTaxesWithInvalidLine() {
+        //Given
+        List<String> operationStrings = List.of("[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 100}]", "[{\"operation\":");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //Then
+        assertThrows(IllegalArgumentException.class, () -> ApplicationConfiguration.builder().build().configureFlowAdapter(executorService, 4)
+                .calculateTaxes(operationStrings.iterator(), outputStream));
+        assertEquals("[{\"tax\":0.0}]\n", outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("A failed calculation stops the pipeline with the same output as the streaming CLI")
+    void testCalculateTaxesWithFailedCalculation() {
+        //Given
+        List<String> operationStrings = List.of("[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 100}]",
+                "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 0}]",
+                "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 100}]");
+        ByteArrayOutputStream expectedOutput = new ByteArrayOutputStream();
+        taxCalculationViewCLIAdapter.calculateTaxes(operationStrings.get(0), expectedOutput);
+        assertThrows(IllegalArgumentException.class, () -> taxCalculationViewCLIAdapter.calculateTaxes(operationStrings.get(1), expectedOutput));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //Then
+        assertThrows(IllegalArgumentException.class, () -> ApplicationConfiguration.builder().build().configureFlowAdapter(executorService, 4)
+                .calculateTaxes(operationStrings.iterator(), outputStream));
+        assertEquals(expectedOutput.toString(StandardCharsets.UTF_8), outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("A slow output holds the parsing back instead of buffering the whole input")
+    void testCalculateTaxesWithSlowOutput() throws Exception {
+        //Given
+        AtomicInteger readLines = new AtomicInteger();
+        Iterator<String> operationStrings = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return readLines.get() < 10_000;
+            }
+
+            @Override
+            public String next() {
+                readLines.incrementAndGet();
+                return "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 100}]";
+            }
+        };
+        CountDownLatch outputReleased = new CountDownLatch(1);
+        OutputStream blockedOutput = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                try {
+                    outputReleased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        FlowTaxCalculationCLIAdapter flowTaxCalculationCLIAdapter = ApplicationConfiguration.builder().build().configureFlowAdapter(executorService, 4);
+
+        //When
+        CompletableFuture<Void> calculation = CompletableFuture.runAsync(() -> {
+            try {
+                flowTaxCalculationCLIAdapter.calculateTaxes(operationStrings, blockedOutput);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(300);
+        int linesReadWhileBlocked = readLines.get();
+        outputReleased.countDown();
+        calculation.get(30, TimeUnit.SECONDS);
+
+        //Then
+        assertTrue(linesReadWhileBlocked < 50, linesReadWhileBlocked + " lines were read while the output was blocked");
+        assertEquals(10_000, readLines.get());
+    }
+
+    @Test
+    @DisplayName("The pipeline refuses the options it can not apply")
+    void testUnsupportedOptions() {
+        assertThrows(IllegalStateException.class, () -> ApplicationConfiguration.builder().resultCacheMaxEntries(100L).build()
+                .configureFlowAdapter(executorService, 2));
+        assertThrows(IllegalStateException.class, () -> ApplicationConfiguration.builder().lineErrorCounts(new LineErrorCounts()).build()
+                .configureFlowAdapter(executorService, 2));
+    }
+}
@@ -0,0 +1,76 @@
+package com.bank.framework.adapter.input;
+
+import com.bank.config.ApplicationConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelTaxCalculationCLIAdapterTest {
+
+    private TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter;
+    private ExecutorService executorService;
+    private ParallelTaxCalculationCLIAdapter parallelTaxCalculationCLIAdapter;
+
+    @BeforeEach
+    void setUp() {
+        taxCalculationViewCLIAdapter = ApplicationConfiguration.builder().build().configureDependencies();
+        executorService = Executors.newFixedThreadPool(4);
+        parallelTaxCalculationCLIAdapter = ParallelTaxCalculationCLIAdapter.builder().taxCalculationViewCLIAdapter(taxCalculationViewCLIAdapter)
+                .executorService(executorService).maxPendingLines(3).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Results are written in the order of the input lines")
+    void testCalculateTaxesKeepsTheInputOrder() throws IOException {
+        //Given
+        List<String> operationStrings = new ArrayList<>();
+        StringBuilder expectedOutput = new StringBuilder();
+        for (int line = 0; line < 50; line++) {
+            StringBuilder operations = new StringBuilder("[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 100000}");
+            for (int i = 0; i < (line % 7) * 200; i++) {
+                operations.append(",{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 1}");
+            }
+            operations.append(",{\"operation\":\"sell\", \"unit-cost\":").append(11 + line).append(", \"quantity\": 10000}]");
+            operationStrings.add(operations.toString());
+            expectedOutput.append(taxCalculationViewCLIAdapter.calculateTaxes(operations.toString())).append('\n');
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //When
+        parallelTaxCalculationCLIAdapter.calculateTaxes(operationStrings.iterator(), outputStream);
+
+        //Then
+        assertEquals(expectedOutput.toString(), outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("A failing line stops the batch after writing the previous lines")
+    void testCalculateTaxesWhenALineFails() {
+        //Given
+        List<String> operationStrings = List.of("[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 100}]", "not json",
+                "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 100}]");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //When
+        assertThrows(RuntimeException.class, () -> parallelTaxCalculationCLIAdapter.calculateTaxes(operationStrings.iterator(), outputStream));
+
+        //Then
+        assertEquals("[{\"tax\":0.0}]\n", outputStream.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,100 @@
+package com.bank.framework.adapter.input;
+
+import com.bank.config.ApplicationConfiguration;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaxCalculationHttpAdapterTest {
+
+    private static final String OPERATIONS = "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 10000},"
+            + "{\"operation\":\"sell\", \"unit-cost\":20.00, \"quantity\": 5000}]";
+
+    private ExecutorService executorService;
+    private HttpServer httpServer;
+    private HttpClient httpClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        executorService = ApplicationConfiguration.configureHttpExecutor(2);
+        httpServer = ApplicationConfiguration.builder().build().configureHttpAdapter()
+                .start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), executorService);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpServer.stop(0);
+        executorService.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("A simulation is answered with its taxes, on the same connection every time")
+    void testSimulation() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            HttpResponse<String> response = post(TaxCalculationHttpAdapter.SIMULATION_PATH, OPERATIONS);
+
+            assertEquals(200, response.statusCode());
+            assertEquals("[{\"tax\":0.0},{\"tax\":10000.0}]\n", response.body());
+        }
+    }
+
+    @Test
+    @DisplayName("A batch is answered with one line of taxes per line of operations")
+    void testBatch() throws Exception {
+        //When
+        HttpResponse<String> response = post(TaxCalculationHttpAdapter.BATCH_PATH, OPERATIONS + "\n\n[]\n" + OPERATIONS);
+
+        //Then
+        assertEquals(200, response.statusCode());
+        assertEquals("[{\"tax\":0.0},{\"tax\":10000.0}]\n[]\n[{\"tax\":0.0},{\"tax\":10000.0}]\n", response.body());
+    }
+
+    @Test
+    @DisplayName("A failure after the first line of a batch ends the response with the error")
+    void testBatchWithAnInvalidLine() throws Exception {
+        //When
+        HttpResponse<String> response = post(TaxCalculationHttpAdapter.BATCH_PATH, "[]\n[{\"operation\":\"hold\", \"unit-cost\":1.00, \"quantity\": 1}]\n[]");
+
+        //Then
+        assertEquals(200, response.statusCode());
+        assertEquals("[]\n{\"error\":\"There is not a Operation Type with the name hold\"}\n", response.body());
+    }
+
+    @Test
+    @DisplayName("Invalid operations and other methods are rejected")
+    void testInvalidRequests() throws Exception {
+        HttpResponse<String> invalidResponse = post(TaxCalculationHttpAdapter.SIMULATION_PATH, "[{\"operation\":\"hold\"}]");
+        HttpResponse<String> getResponse = httpClient.send(HttpRequest.newBuilder(uri(TaxCalculationHttpAdapter.SIMULATION_PATH)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> unknownPathResponse = post("/taxes/unknown", OPERATIONS);
+        HttpResponse<String> trailingContentResponse = post(TaxCalculationHttpAdapter.SIMULATION_PATH, OPERATIONS + OPERATIONS);
+
+        assertEquals(400, invalidResponse.statusCode());
+        assertEquals(405, getResponse.statusCode());
+        assertEquals(404, unknownPathResponse.statusCode());
+        assertEquals(400, trailingContentResponse.statusCode());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + httpServer.getAddress().getPort() + path);
+    }
+}
@@ -0,0 +1,139 @@
+package com.bank.framework.adapter.input;
+
+import com.bank.application.metrics.LineErrorCounts;
+import com.bank.application.metrics.TaxCalculationMetrics;
+import com.bank.config.ApplicationConfiguration;
+import com.bank.domain.entity.StockTransaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaxCalculationResultCacheTest {
+
+    private static final String OPERATIONS = "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 10000},"
+            + "{\"operation\":\"sell\", \"unit-cost\":20.00, \"quantity\": 5000}]";
+
+    @Test
+    @DisplayName("Whitespace is removed outside strings only")
+    void testNormalize() {
+        assertEquals("[{\"operation\":\"buy\",\"unit-cost\":10.00}]", TaxCalculationResultCache.normalize("[ {\"operation\" : \"buy\",\t\"unit-cost\": 10.00 } ]"));
+        assertEquals("[{\"operation\":\"b u\\\" y\"}]", TaxCalculationResultCache.normalize("[{\"operation\": \"b u\\\" y\"}]"));
+        String normalized = OPERATIONS.replace(" ", "");
+        assertSame(normalized, TaxCalculationResultCache.normalize(normalized), "A normalized line is returned as is");
+    }
+
+    @Test
+    @DisplayName("Whitespace between two values or inside a number is kept, so a malformed line has its own key")
+    void testNormalizeKeepsWhitespaceBetweenValues() {
+        //Given
+        String validLine = "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 10}]";
+        String malformedLine = "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 1 0}]";
+        TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter = ApplicationConfiguration.builder().resultCacheMaxEntries(16).build().configureDependencies();
+
+        //When
+        taxCalculationViewCLIAdapter.calculateTaxes(validLine, new ByteArrayOutputStream(), new StockTransaction());
+
+        //Then
+        assertEquals("[{\"quantity\":1 0}]", TaxCalculationResultCache.normalize("[ { \"quantity\" : 1 0 } ]"));
+        assertNotEquals(TaxCalculationResultCache.normalize(validLine), TaxCalculationResultCache.normalize(malformedLine));
+        assertThrows(IllegalArgumentException.class, () -> taxCalculationViewCLIAdapter.calculateTaxes(malformedLine, new ByteArrayOutputStream(), new StockTransaction()));
+    }
+
+    @Test
+    @DisplayName("Repeated lines are answered from the cache with the same taxes and state")
+    void testRepeatedLinesAreCached() {
+        //Given
+        TaxCalculationMetrics taxCalculationMetrics = TaxCalculationMetrics.enabled();
+        TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter = ApplicationConfiguration.builder().taxCalculationMetrics(taxCalculationMetrics)
+                .resultCacheMaxEntries(16).build().configureDependencies();
+        ByteArrayOutputStream firstOutput = new ByteArrayOutputStream();
+        ByteArrayOutputStream secondOutput = new ByteArrayOutputStream();
+
+        //When
+        StockTransaction firstStockTransaction = taxCalculationViewCLIAdapter.calculateTaxes(OPERATIONS, firstOutput, new StockTransaction());
+        StockTransaction secondStockTransaction = taxCalculationViewCLIAdapter.calculateTaxes(OPERATIONS.replace(", ", ","), secondOutput, new StockTransaction());
+        taxCalculationViewCLIAdapter.calculateTaxes(OPERATIONS, new ByteArrayOutputStream(), firstStockTransaction);
+
+        //Then
+        assertEquals("[{\"tax\":0.0},{\"tax\":10000.0}]\n", secondOutput.toString(StandardCharsets.UTF_8));
+        assertEquals(firstOutput.toString(StandardCharsets.UTF_8), secondOutput.toString(StandardCharsets.UTF_8));
+        assertSame(firstStockTransaction, secondStockTransaction);
+        assertEquals(1, taxCalculationMetrics.getCacheHitCount());
+        assertEquals(1, taxCalculationMetrics.getCacheMissCount());
+        assertEquals(3, taxCalculationMetrics.getLineCount(), "Lines answered from the cache are counted too");
+    }
+
+    @Test
+    @DisplayName("A line written as an error is not cached, so every occurrence is counted")
+    void testErrorLinesAreNotCached() {
+        //Given
+        TaxCalculationMetrics taxCalculationMetrics = TaxCalculationMetrics.enabled();
+        LineErrorCounts lineErrorCounts = new LineErrorCounts();
+        TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter = ApplicationConfiguration.builder().taxCalculationMetrics(taxCalculationMetrics)
+                .resultCacheMaxEntries(16).lineErrorCounts(lineErrorCounts).build().configureDependencies();
+        String rejectedLine = "[{\"operation\":\"hold\", \"unit-cost\":10.00, \"quantity\": 100}]";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        //When
+        StockTransaction initialStockTransaction = new StockTransaction();
+        StockTransaction stockTransaction = taxCalculationViewCLIAdapter.calculateTaxes(rejectedLine, output, initialStockTransaction);
+        taxCalculationViewCLIAdapter.calculateTaxes(rejectedLine, output, new StockTransaction());
+
+        //Then
+        assertSame(initialStockTransaction, stockTransaction);
+        assertEquals("{\"error\":\"unknown-operation\"}\n{\"error\":\"unknown-operation\"}\n", output.toString(StandardCharsets.UTF_8));
+        assertEquals(2L, lineErrorCounts.getTotalCount());
+        assertEquals(2L, taxCalculationMetrics.getErrorCount());
+        assertEquals(0L, taxCalculationMetrics.getCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("The least recently used lines are evicted over the entry and byte limits")
+    void testEviction() {
+        //Given
+        TaxCalculationResultCache taxCalculationResultCache = TaxCalculationResultCache.builder().maxEntries(2).maxBytes(1000).segments(1).build();
+        TaxCalculationResultCache.Key first = taxCalculationResultCache.key("[1]");
+        TaxCalculationResultCache.Key second = taxCalculationResultCache.key("[2]");
+        TaxCalculationResultCache.Key third = taxCalculationResultCache.key("[3]");
+
+        //When
+        taxCalculationResultCache.put(first, new byte[1], new StockTransaction());
+        taxCalculationResultCache.put(second, new byte[1], new StockTransaction());
+        taxCalculationResultCache.get(first);
+        taxCalculationResultCache.put(third, new byte[1], new StockTransaction());
+        taxCalculationResultCache.put(taxCalculationResultCache.key("[4]"), new byte[2000], new StockTransaction());
+        taxCalculationResultCache.put(taxCalculationResultCache.key("[5]"), new byte[800], new StockTransaction());
+
+        //Then
+        assertNull(taxCalculationResultCache.get(second));
+        assertNull(taxCalculationResultCache.get(first));
+        assertNull(taxCalculationResultCache.get(third));
+        assertNotNull(taxCalculationResultCache.get(taxCalculationResultCache.key("[5]")));
+        assertEquals(1, taxCalculationResultCache.getSize());
+        assertTrue(taxCalculationResultCache.getBytes() <= 1000);
+        assertEquals(3, taxCalculationResultCache.getEvictionCount());
+        assertEquals(2, taxCalculationResultCache.getHitCount());
+    }
+
+    @Test
+    @DisplayName("The segments share exactly the entry limit, even when it is below or not a multiple of their number")
+    void testSmallEntryLimit() {
+        for (long maxEntries : new long[]{1, 3, 20}) {
+            //Given
+            TaxCalculationResultCache taxCalculationResultCache = TaxCalculationResultCache.builder().maxEntries(maxEntries).maxBytes(1L << 20).build();
+
+            //When
+            for (int i = 0; i < 1000; i++) {
+                taxCalculationResultCache.put(taxCalculationResultCache.key("[" + i + "]"), new byte[1], new StockTransaction());
+            }
+
+            //Then
+            assertEquals(maxEntries, taxCalculationResultCache.getSize());
+            assertEquals(1000 - maxEntries, taxCalculationResultCache.getEvictionCount());
+        }
+    }
+}
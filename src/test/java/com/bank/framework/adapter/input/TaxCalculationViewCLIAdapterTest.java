@@ -0,0 +1,85 @@
+package com.bank.framework.adapter.input;
+
+import com.bank.application.metrics.LineErrorCounts;
+import com.bank.application.metrics.TaxCalculationMetrics;
+import com.bank.config.ApplicationConfiguration;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.valueobject.ErrorCode;
+import com.bank.framework.adapter.output.FileChannelStockOperationJournalAdapter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaxCalculationViewCLIAdapterTest {
+
+    private static final String BUY = "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 10000}]";
+    private static final String SELL = "[{\"operation\":\"sell\", \"unit-cost\":20.00, \"quantity\": 5000}]";
+
+    @Test
+    @DisplayName("A line that can not be calculated fails without error counts")
+    void testCalculateTaxesFailsWithoutErrorCounts() {
+        TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter = ApplicationConfiguration.builder().build().configureDependencies();
+
+        assertThrows(IllegalArgumentException.class, () -> taxCalculationViewCLIAdapter.calculateTaxes("[{\"operation\":", new ByteArrayOutputStream()));
+        assertThrows(IllegalArgumentException.class, () -> taxCalculationViewCLIAdapter.calculateTaxes("[{\"operation\":\"hold\", \"unit-cost\":1, \"quantity\": 1}]",
+                new ByteArrayOutputStream()));
+    }
+
+    @Test
+    @DisplayName("A rejected line is written as its error code and counted, the next lines continue the state before it")
+    void testCalculateTaxesReportsLineErrors() {
+        //Given
+        LineErrorCounts lineErrorCounts = new LineErrorCounts();
+        TaxCalculationMetrics taxCalculationMetrics = TaxCalculationMetrics.enabled();
+        TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter = ApplicationConfiguration.builder().lineErrorCounts(lineErrorCounts)
+                .taxCalculationMetrics(taxCalculationMetrics).build().configureDependencies();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //When
+        StockTransaction stockTransaction = taxCalculationViewCLIAdapter.calculateTaxes(BUY, outputStream, new StockTransaction());
+        stockTransaction = taxCalculationViewCLIAdapter.calculateTaxes("[{\"operation\":\"sell\", \"unit-cost\":20.00, \"quantity\": 5000},{\"operation\":",
+                outputStream, stockTransaction);
+        stockTransaction = taxCalculationViewCLIAdapter.calculateTaxes("[{\"operation\":\"sell\", \"unit-cost\":20.00, \"quantity\": 5000},"
+                + "{\"operation\":\"hold\", \"unit-cost\":20.00, \"quantity\": 5000}]", outputStream, stockTransaction);
+        stockTransaction = taxCalculationViewCLIAdapter.calculateTaxes("[{\"operation\":\"buy\", \"quantity\": 5}]", outputStream, stockTransaction);
+        stockTransaction = taxCalculationViewCLIAdapter.calculateTaxes("[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 0}]", outputStream, stockTransaction);
+        stockTransaction = taxCalculationViewCLIAdapter.calculateTaxes(SELL, outputStream, stockTransaction);
+
+        //Then
+        assertEquals("[{\"tax\":0.0}]\n{\"error\":\"malformed-line\"}\n{\"error\":\"unknown-operation\"}\n{\"error\":\"missing-field\"}\n"
+                + "{\"error\":\"invalid-quantity\"}\n[{\"tax\":10000.0}]\n", outputStream.toString(StandardCharsets.UTF_8));
+        assertEquals(5000L, stockTransaction.getCurrentStockQuantity());
+        assertEquals(4L, lineErrorCounts.getTotalCount());
+        assertEquals(1L, lineErrorCounts.getCount(ErrorCode.MALFORMED_LINE));
+        assertEquals(0L, lineErrorCounts.getCount(ErrorCode.INVALID_UNIT_COST));
+        assertEquals("rejectedLines=4 malformed-line=1 unknown-operation=1 missing-field=1 invalid-quantity=1" + System.lineSeparator(),
+                lineErrorCounts.summary());
+        assertEquals(4L, taxCalculationMetrics.getErrorCount());
+        assertEquals(2L, taxCalculationMetrics.getLineCount());
+    }
+
+    @Test
+    @DisplayName("The operations of a rejected line are not journaled")
+    void testRejectedLineIsNotJournaled(@TempDir Path directory) {
+        //Given
+        Path journalFile = directory.resolve("account.journal");
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter = ApplicationConfiguration.builder().lineErrorCounts(new LineErrorCounts())
+                    .stockOperationJournal(journal).build().configureDependencies();
+
+            //When
+            StockTransaction stockTransaction = taxCalculationViewCLIAdapter.calculateTaxes(BUY, new ByteArrayOutputStream(), new StockTransaction());
+            taxCalculationViewCLIAdapter.calculateTaxes("[{\"operation\":\"sell\", \"unit-cost\":20.00, \"quantity\": 5000},{\"operation\":\"buy\", \"unit-cost\":-1, \"quantity\": 1}]",
+                    new ByteArrayOutputStream(), stockTransaction);
+
+            //Then
+            assertEquals(1L, journal.getLastSequence());
+        }
+    }
+}
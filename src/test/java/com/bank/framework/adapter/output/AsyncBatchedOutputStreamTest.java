@@ -0,0 +1,135 @@
+package com.bank.framework.adapter.output;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncBatchedOutputStreamTest {
+
+    @Test
+    @DisplayName("The bytes reach the channel in the order they were written")
+    void testWriteInOrder() throws IOException {
+        //Given
+        RecordingChannel channel = new RecordingChannel();
+        StringBuilder expected = new StringBuilder();
+
+        //When
+        try (AsyncBatchedOutputStream output = AsyncBatchedOutputStream.builder().channel(channel).chunkSize(16).bufferSize(64)
+                .maxPendingChunks(2).build()) {
+            for (int i = 0; i < 10_000; i++) {
+                String line = "[{\"tax\":" + i + ".0}]\n";
+                expected.append(line);
+                output.write(line.getBytes(StandardCharsets.UTF_8));
+                if (i % 100 == 0) {
+                    output.flush();
+                }
+            }
+            output.write('!');
+            expected.append('!');
+        }
+
+        //Then
+        assertEquals(expected.toString(), channel.content());
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    @DisplayName("Bytes that are neither flushed nor filling the buffer are written after the maximum delay")
+    void testWriteAfterMaxFlushDelay() throws Exception {
+        //Given
+        RecordingChannel channel = new RecordingChannel();
+
+        try (AsyncBatchedOutputStream output = AsyncBatchedOutputStream.builder().channel(channel).chunkSize(4).maxFlushDelay(Duration.ofMillis(20)).build()) {
+            //When
+            output.write("[{\"tax\":0.0}]\n".getBytes(StandardCharsets.UTF_8));
+
+            //Then
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (channel.content().length() < 12 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals("[{\"tax\":0.0}", channel.content());
+        }
+        assertEquals("[{\"tax\":0.0}]\n", channel.content());
+    }
+
+    @Test
+    @DisplayName("A closed stream rejects the next writes")
+    void testWriteAfterClose() throws IOException {
+        //Given
+        AsyncBatchedOutputStream output = AsyncBatchedOutputStream.builder().channel(new RecordingChannel()).build();
+
+        //When
+        output.close();
+        output.close();
+
+        //Then
+        assertThrows(IOException.class, () -> output.write('a'));
+    }
+
+    @Test
+    @DisplayName("A failure of the channel is thrown to the producer")
+    void testChannelFailure() throws Exception {
+        //Given
+        RecordingChannel channel = new RecordingChannel() {
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        AsyncBatchedOutputStream output = AsyncBatchedOutputStream.builder().channel(channel).chunkSize(4).maxPendingChunks(1).build();
+
+        //When
+        output.write("[{\"tax\":0.0}]\n".getBytes(StandardCharsets.UTF_8));
+        output.flush();
+
+        //Then
+        IOException exception = assertThrows(IOException.class, () -> {
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (System.nanoTime() < deadline) {
+                output.write('a');
+                Thread.sleep(1);
+            }
+        });
+        assertEquals("Broken pipe", exception.getMessage());
+        assertThrows(IOException.class, output::close);
+        assertFalse(channel.isOpen());
+    }
+
+    private static class RecordingChannel implements WritableByteChannel {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private volatile boolean open = true;
+
+        @Override
+        public synchronized int write(ByteBuffer src) throws IOException {
+            int length = src.remaining();
+            byte[] written = new byte[length];
+            src.get(written);
+            bytes.write(written);
+            return length;
+        }
+
+        synchronized String content() {
+            return bytes.toString(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.config.ApplicationConfiguration;
+import com.bank.config.CalculationEngine;
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.service.StockOperationService;
+import com.bank.domain.valueobject.OperationType;
+import com.bank.framework.adapter.input.TaxCalculationViewCLIAdapter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileChannelStockOperationJournalAdapterTest {
+
+    @TempDir
+    Path temporaryDirectory;
+
+    @Test
+    @DisplayName("The journaled operations are replayed in order after reopening the journal")
+    void testAppendAndReplay() {
+        //Given
+        Path journalFile = temporaryDirectory.resolve("account.journal");
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            assertEquals(1L, journal.append(operation(OperationType.BUY, 10.5d, 100L)));
+            assertEquals(2L, journal.append(operation(OperationType.SELL, 20.25d, 50L)));
+            journal.commit(2L);
+        }
+
+        //When
+        List<StockOperation> replayedOperations = new ArrayList<>();
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            assertEquals(2L, journal.replay(0L, replayedOperations::add));
+            assertEquals(3L, journal.append(operation(OperationType.SELL, 5d, 10L)));
+        }
+
+        //Then
+        assertEquals(2, replayedOperations.size());
+        assertEquals(OperationType.BUY, replayedOperations.get(0).getOperationType());
+        assertEquals(10.5d, replayedOperations.get(0).getUnitCost());
+        assertEquals(100L, replayedOperations.get(0).getQuantity());
+        assertEquals(OperationType.SELL, replayedOperations.get(1).getOperationType());
+        assertEquals(20.25d, replayedOperations.get(1).getUnitCost());
+        assertEquals(50L, replayedOperations.get(1).getQuantity());
+    }
+
+    @Test
+    @DisplayName("One commit forces every operation appended before it")
+    void testGroupCommit() {
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder()
+                .journalFile(temporaryDirectory.resolve("account.journal")).bufferSize(256).build()) {
+            //Given
+            long sequence = 0L;
+            for (int i = 0; i < 100; i++) {
+                sequence = journal.append(operation(OperationType.BUY, 10d, 1L));
+            }
+
+            //When
+            journal.commit(sequence);
+            journal.commit(50L);
+
+            //Then
+            assertEquals(1L, journal.getForceCount());
+            assertThrows(IllegalArgumentException.class, () -> journal.commit(101L));
+        }
+    }
+
+    @Test
+    @DisplayName("An incomplete or corrupted tail left by a crash is truncated when the journal is opened")
+    void testRecoverTornTail() throws IOException {
+        //Given
+        Path journalFile = temporaryDirectory.resolve("account.journal");
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            journal.append(operation(OperationType.BUY, 10d, 100L));
+            journal.append(operation(OperationType.SELL, 20d, 50L));
+        }
+        long validSize = Files.size(journalFile);
+        byte[] content = Files.readAllBytes(journalFile);
+        content[content.length - 2] ^= 1;
+        Files.write(journalFile, content);
+        Files.write(journalFile, new byte[]{0, 0, 0, (byte) FileChannelStockOperationJournalAdapter.PAYLOAD_SIZE, 1, 2}, StandardOpenOption.APPEND);
+
+        //When
+        List<StockOperation> replayedOperations = new ArrayList<>();
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            journal.replay(0L, replayedOperations::add);
+        }
+
+        //Then
+        assertEquals(1, replayedOperations.size());
+        assertEquals(validSize - FileChannelStockOperationJournalAdapter.RECORD_SIZE, Files.size(journalFile));
+    }
+
+    @Test
+    @DisplayName("Compacting removes the operations up to the given one and keeps the sequence of the next ones")
+    void testCompact() throws IOException {
+        //Given
+        Path journalFile = temporaryDirectory.resolve("account.journal");
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            for (int i = 1; i <= 5; i++) {
+                journal.append(operation(OperationType.BUY, i, 10L));
+            }
+            assertThrows(IllegalArgumentException.class, () -> journal.compact(3L));
+            journal.commit(5L);
+
+            //When
+            journal.compact(3L);
+            journal.append(operation(OperationType.SELL, 6d, 10L));
+        }
+
+        //Then
+        assertEquals(FileChannelStockOperationJournalAdapter.HEADER_SIZE + 3L * FileChannelStockOperationJournalAdapter.RECORD_SIZE, Files.size(journalFile));
+        List<StockOperation> replayedOperations = new ArrayList<>();
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            assertEquals(6L, journal.getLastSequence());
+            assertEquals(6L, journal.replay(4L, replayedOperations::add));
+            assertThrows(IllegalStateException.class, () -> journal.replay(2L, replayedOperations::add));
+        }
+        assertEquals(2, replayedOperations.size());
+        assertEquals(5d, replayedOperations.get(0).getUnitCost());
+        assertEquals(OperationType.SELL, replayedOperations.get(1).getOperationType());
+    }
+
+    @Test
+    @DisplayName("A file that is not a journal is rejected")
+    void testOpenOtherFile() throws IOException {
+        //Given
+        Path otherFile = temporaryDirectory.resolve("other.bin");
+        Files.write(otherFile, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+        //Then
+        assertThrows(IllegalStateException.class, () -> FileChannelStockOperationJournalAdapter.builder().journalFile(otherFile).build());
+    }
+
+    @Test
+    @DisplayName("Replaying the journal of the CLI rebuilds the state of the transaction")
+    void testReplayCalculatedLines() {
+        //Given
+        Path journalFile = temporaryDirectory.resolve("account.journal");
+        StockOperationService stockOperationService = ApplicationConfiguration.builder().build().configureStockOperationService();
+        StockTransaction stockTransaction = new StockTransaction();
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter = ApplicationConfiguration.builder().stockOperationJournal(journal).build().configureDependencies();
+            stockTransaction = taxCalculationViewCLIAdapter.calculateTaxes("[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 10000},"
+                    + "{\"operation\":\"sell\", \"unit-cost\":2.00, \"quantity\": 5000}]", new ByteArrayOutputStream(), stockTransaction);
+            stockTransaction = taxCalculationViewCLIAdapter.calculateTaxes("[{\"operation\":\"sell\", \"unit-cost\":20.00, \"quantity\": 2000},"
+                    + "{\"operation\":\"sell\", \"unit-cost\":25.00, \"quantity\": 1000}]", new ByteArrayOutputStream(), stockTransaction);
+            assertEquals(2L, journal.getForceCount());
+        }
+
+        //When
+        StockTransaction replayedStockTransaction;
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            replayedStockTransaction = journal.replay(0L, stockOperationService, new StockTransaction());
+        }
+
+        //Then
+        assertEquals(stockTransaction.getCurrentStockQuantity(), replayedStockTransaction.getCurrentStockQuantity());
+        assertEquals(stockTransaction.getWeightedAveragePrice(), replayedStockTransaction.getWeightedAveragePrice());
+        assertEquals(stockTransaction.getTotalLoss(), replayedStockTransaction.getTotalLoss());
+        assertTrue(replayedStockTransaction.getOperationList().isEmpty());
+    }
+
+    @Test
+    @DisplayName("A line that fails halfway journals none of its operations and writes no taxes")
+    void testFailedLineNotJournaled() {
+        //Given
+        Path journalFile = temporaryDirectory.resolve("account.journal");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter = ApplicationConfiguration.builder().stockOperationJournal(journal).build().configureDependencies();
+
+            //When
+            assertThrows(IllegalArgumentException.class, () -> taxCalculationViewCLIAdapter.calculateTaxes("[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 100},"
+                    + "{\"operation\":\"hold\", \"unit-cost\":10.00, \"quantity\": 100}]", output, new StockTransaction()));
+        }
+
+        //Then
+        assertEquals(0, output.size());
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            assertEquals(0L, journal.getLastSequence());
+        }
+    }
+
+    @Test
+    @DisplayName("The taxes of a line only reach the output once its operations are committed")
+    void testTaxesWrittenAfterCommit() {
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder()
+                .journalFile(temporaryDirectory.resolve("account.journal")).build()) {
+            //Given
+            TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter = ApplicationConfiguration.builder().stockOperationJournal(journal).build().configureDependencies();
+            List<Long> forceCounts = new ArrayList<>();
+            OutputStream output = new OutputStream() {
+                @Override
+                public void write(int b) {
+                    forceCounts.add(journal.getForceCount());
+                }
+            };
+
+            //When
+            taxCalculationViewCLIAdapter.calculateTaxes("[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 10000},"
+                    + "{\"operation\":\"sell\", \"unit-cost\":20.00, \"quantity\": 5000}]", output, new StockTransaction());
+
+            //Then
+            assertFalse(forceCounts.isEmpty());
+            assertTrue(forceCounts.stream().allMatch(forceCount -> forceCount == 1L));
+        }
+    }
+
+    @Test
+    @DisplayName("Replaying through the engine of the CLI rebuilds exactly the state it calculated")
+    void testReplayWithEngine() {
+        //Given
+        Path journalFile = temporaryDirectory.resolve("account.journal");
+        ApplicationConfiguration applicationConfiguration = ApplicationConfiguration.builder().calculationEngine(CalculationEngine.FIXED_POINT).build();
+        StockTransaction stockTransaction = new StockTransaction();
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter = ApplicationConfiguration.builder().calculationEngine(CalculationEngine.FIXED_POINT)
+                    .stockOperationJournal(journal).build().configureDependencies();
+            stockTransaction = taxCalculationViewCLIAdapter.calculateTaxes("[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 3},"
+                    + "{\"operation\":\"buy\", \"unit-cost\":10.01, \"quantity\": 7},{\"operation\":\"sell\", \"unit-cost\":2.00, \"quantity\": 5}]",
+                    new ByteArrayOutputStream(), stockTransaction);
+            stockTransaction = taxCalculationViewCLIAdapter.calculateTaxes("[{\"operation\":\"buy\", \"unit-cost\":0.33, \"quantity\": 11},"
+                    + "{\"operation\":\"sell\", \"unit-cost\":25.00, \"quantity\": 4}]", new ByteArrayOutputStream(), stockTransaction);
+        }
+
+        //When
+        StockTransaction replayedStockTransaction;
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            replayedStockTransaction = journal.replay(0L, applicationConfiguration.configureTaxCalculationUseCase(), new StockTransaction());
+        }
+
+        //Then
+        assertEquals(stockTransaction.getCurrentStockQuantity(), replayedStockTransaction.getCurrentStockQuantity());
+        assertEquals(stockTransaction.getWeightedAveragePrice(), replayedStockTransaction.getWeightedAveragePrice());
+        assertEquals(stockTransaction.getTotalLoss(), replayedStockTransaction.getTotalLoss());
+    }
+
+    private static StockOperation operation(OperationType operationType, double unitCost, long quantity) {
+        return StockOperation.builder().operationType(operationType).unitCost(unitCost).quantity(quantity).build();
+    }
+
+    @Test
+    @DisplayName("The CLI refuses to journal the positions of a portfolio")
+    void testJournalPortfolio() {
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder()
+                .journalFile(temporaryDirectory.resolve("account.journal")).build()) {
+            assertThrows(IllegalStateException.class, () -> ApplicationConfiguration.builder().calculationEngine(CalculationEngine.PORTFOLIO)
+                    .stockOperationJournal(journal).build().configureDependencies());
+        }
+    }
+}
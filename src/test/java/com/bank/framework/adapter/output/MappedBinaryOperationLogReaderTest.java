@@ -0,0 +1,154 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.config.ApplicationConfiguration;
+import com.bank.domain.service.ColumnarStockOperationEngine;
+import com.bank.domain.service.PrimitiveStockOperationEngine;
+import com.bank.framework.adapter.input.BinaryOperationLogReplayCLIAdapter;
+import com.bank.framework.adapter.input.TaxCalculationViewCLIAdapter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedBinaryOperationLogReaderTest {
+
+    private static final List<String> OPERATION_LINES = List.of(
+            "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 100},{\"operation\":\"sell\", \"unit-cost\":15.00, \"quantity\": 50},{\"operation\":\"sell\", \"unit-cost\":15.00, \"quantity\": 50}]",
+            "[]",
+            "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 10000},{\"operation\":\"sell\", \"unit-cost\":2.00, \"quantity\": 5000},{\"operation\":\"sell\", \"unit-cost\":20.00, \"quantity\": 2000},{\"operation\":\"sell\", \"unit-cost\":20.00, \"quantity\": 2000},{\"operation\":\"sell\", \"unit-cost\":25.00, \"quantity\": 1000}]",
+            "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 10},{\"operation\":\"sell\", \"unit-cost\":20.00, \"quantity\": 11}]");
+
+    @TempDir
+    Path temporaryDirectory;
+
+    private Path binaryFile;
+    private JsonToBinaryOperationLogConverter jsonToBinaryOperationLogConverter;
+
+    @BeforeEach
+    void setUp() {
+        binaryFile = temporaryDirectory.resolve("operations.bin");
+        jsonToBinaryOperationLogConverter = JsonToBinaryOperationLogConverter.builder()
+                .stringToStockOperationParserAdapter(StringToStockOperationParserAdapter.builder().build()).build();
+    }
+
+    @Test
+    @DisplayName("Replaying the converted log writes the same taxes as the Json input")
+    void testReplayWritesTheSameTaxesAsTheJsonInput() throws IOException {
+        //Given
+        TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter = ApplicationConfiguration.builder().build().configureDependencies();
+        ByteArrayOutputStream expectedOutput = new ByteArrayOutputStream();
+        OPERATION_LINES.forEach(line -> taxCalculationViewCLIAdapter.calculateTaxes(line, expectedOutput));
+
+        //When
+        long convertedOperations = jsonToBinaryOperationLogConverter.convert(OPERATION_LINES.iterator(), binaryFile);
+        ByteArrayOutputStream replayedOutput = new ByteArrayOutputStream();
+        long replayedOperations = ApplicationConfiguration.builder().build().configureBinaryReplay(binaryFile).replay(replayedOutput);
+
+        //Then
+        assertEquals(10L, convertedOperations);
+        assertEquals(10L, replayedOperations);
+        assertEquals(BinaryOperationLog.HEADER_SIZE + (10L + OPERATION_LINES.size()) * BinaryOperationLog.RECORD_SIZE, Files.size(binaryFile));
+        assertEquals(expectedOutput.toString(StandardCharsets.UTF_8), replayedOutput.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("A log bigger than the mapping window is replayed window by window")
+    void testReplayInSeveralWindows() {
+        //Given
+        jsonToBinaryOperationLogConverter.convert(OPERATION_LINES.iterator(), binaryFile);
+        List<String> events = new ArrayList<>();
+        OperationLogTaxConsumer taxConsumer = new OperationLogTaxConsumer() {
+            @Override
+            public void accept(double tax, boolean rejected) {
+                events.add(tax + (rejected ? "!" : ""));
+            }
+
+            @Override
+            public void endOfList() {
+                events.add("|");
+            }
+        };
+
+        //When
+        MappedBinaryOperationLogReader.builder().binaryFile(binaryFile).windowSize(BinaryOperationLog.RECORD_SIZE * 3L).build()
+                .replay(new PrimitiveStockOperationEngine(), taxConsumer);
+
+        //Then
+        assertEquals(List.of("0.0", "0.0", "0.0", "|", "|", "0.0", "0.0", "0.0", "0.0", "3000.0", "|", "0.0", "0.0!", "|"), events);
+    }
+
+    @Test
+    @DisplayName("Batches smaller than a list and spanning windows are calculated in order by the columnar engine")
+    void testReplayInBatchesWithTheColumnarEngine() {
+        //Given
+        jsonToBinaryOperationLogConverter.convert(OPERATION_LINES.iterator(), binaryFile);
+        List<String> events = new ArrayList<>();
+        OperationLogTaxConsumer taxConsumer = new OperationLogTaxConsumer() {
+            @Override
+            public void accept(double tax, boolean rejected) {
+                events.add(tax + (rejected ? "!" : ""));
+            }
+
+            @Override
+            public void endOfList() {
+                events.add("|");
+            }
+        };
+
+        //When
+        long replayedOperations = MappedBinaryOperationLogReader.builder().binaryFile(binaryFile).windowSize(BinaryOperationLog.RECORD_SIZE * 4L)
+                .batchSize(2).build().replay(new ColumnarStockOperationEngine(), taxConsumer);
+
+        //Then
+        assertEquals(10L, replayedOperations);
+        assertEquals(List.of("0.0", "0.0", "0.0", "|", "|", "0.0", "0.0", "0.0", "0.0", "3000.0", "|", "0.0", "0.0!", "|"), events);
+    }
+
+    @Test
+    @DisplayName("Costs with more than two decimal places are not converted")
+    void testConvertRejectsCostsThatCannotBeScaled() {
+        assertThrows(IllegalArgumentException.class, () -> jsonToBinaryOperationLogConverter.convert(
+                List.of("[{\"operation\":\"buy\", \"unit-cost\":10.005, \"quantity\": 100}]").iterator(), binaryFile));
+    }
+
+    @Test
+    @DisplayName("A file that is not an operation log is rejected")
+    void testReplayRejectsOtherFiles() throws IOException {
+        //Given
+        Files.write(binaryFile, "[{\"operation\":\"buy\"}]".getBytes(StandardCharsets.UTF_8));
+        BinaryOperationLogReplayCLIAdapter binaryOperationLogReplayCLIAdapter = ApplicationConfiguration.builder().build().configureBinaryReplay(binaryFile);
+
+        //Then
+        assertThrows(IllegalStateException.class, () -> binaryOperationLogReplayCLIAdapter.replay(new ByteArrayOutputStream()));
+    }
+
+    @Test
+    @DisplayName("The last list is written whole even when the log does not end it")
+    void testReplayWithoutLastEndOfList() throws IOException {
+        //Given
+        TaxCalculationViewCLIAdapter taxCalculationViewCLIAdapter = ApplicationConfiguration.builder().build().configureDependencies();
+        ByteArrayOutputStream expectedOutput = new ByteArrayOutputStream();
+        OPERATION_LINES.forEach(line -> taxCalculationViewCLIAdapter.calculateTaxes(line, expectedOutput));
+        jsonToBinaryOperationLogConverter.convert(OPERATION_LINES.iterator(), binaryFile);
+        byte[] content = Files.readAllBytes(binaryFile);
+        Files.write(binaryFile, Arrays.copyOf(content, content.length - BinaryOperationLog.RECORD_SIZE));
+
+        //When
+        ByteArrayOutputStream replayedOutput = new ByteArrayOutputStream();
+        ApplicationConfiguration.builder().build().configureBinaryReplay(binaryFile).replay(replayedOutput);
+
+        //Then
+        assertEquals(expectedOutput.toString(StandardCharsets.UTF_8), replayedOutput.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,125 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.config.ApplicationConfiguration;
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.service.StockOperationService;
+import com.bank.domain.valueobject.AbstractEntityStatus;
+import com.bank.domain.valueobject.OperationType;
+import com.bank.domain.valueobject.Tax;
+import com.bank.framework.adapter.output.domain.StockTransactionSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedStockTransactionCheckpointAdapterTest {
+
+    @TempDir
+    Path temporaryDirectory;
+
+    private Path checkpointFile;
+    private MappedStockTransactionCheckpointAdapter checkpointAdapter;
+
+    @BeforeEach
+    void setUp() {
+        checkpointFile = temporaryDirectory.resolve("account.checkpoint");
+        checkpointAdapter = MappedStockTransactionCheckpointAdapter.builder().checkpointFile(checkpointFile).build();
+    }
+
+    @Test
+    @DisplayName("There is no state to restore before the first save")
+    void testLoadWithoutCheckpoint() {
+        assertTrue(checkpointAdapter.load().isEmpty());
+    }
+
+    @Test
+    @DisplayName("The saved state is restored without operations")
+    void testSaveAndLoad() throws IOException {
+        //Given
+        StockTransaction stockTransaction = StockTransaction.fromState(150L, 16.666666666666668d, -2500.5d);
+
+        //When
+        checkpointAdapter.save(stockTransaction);
+        StockTransaction restoredStockTransaction = checkpointAdapter.load().orElseThrow();
+
+        //Then
+        assertEquals(MappedStockTransactionCheckpointAdapter.CHECKPOINT_SIZE, Files.size(checkpointFile));
+        assertEquals(150L, restoredStockTransaction.getCurrentStockQuantity());
+        assertEquals(16.666666666666668d, restoredStockTransaction.getWeightedAveragePrice());
+        assertEquals(-2500.5d, restoredStockTransaction.getTotalLoss());
+        assertTrue(restoredStockTransaction.getOperationList().isEmpty());
+        assertFalse(Files.exists(temporaryDirectory.resolve("account.checkpoint.tmp")));
+    }
+
+    @Test
+    @DisplayName("A snapshot is saved in the checkpoint format with the sequence of its last operation")
+    void testSaveSnapshot() throws IOException {
+        //Given
+        MappedStockTransactionSnapshotAdapter snapshotAdapter = MappedStockTransactionSnapshotAdapter.builder().snapshotFile(checkpointFile).build();
+
+        //When
+        snapshotAdapter.save(StockTransactionSnapshot.builder().sequence(42L).stockTransaction(StockTransaction.fromState(150L, 10d, -5d)).build());
+        StockTransactionSnapshot restoredSnapshot = snapshotAdapter.load().orElseThrow();
+
+        //Then
+        assertEquals(MappedStockTransactionCheckpointAdapter.CHECKPOINT_SIZE, Files.size(checkpointFile));
+        assertEquals(42L, restoredSnapshot.getSequence());
+        assertEquals(150L, restoredSnapshot.getStockTransaction().getCurrentStockQuantity());
+        assertEquals(10d, checkpointAdapter.load().orElseThrow().getWeightedAveragePrice());
+        checkpointAdapter.save(StockTransaction.fromState(1L, 2d, 0d));
+        assertEquals(0L, snapshotAdapter.load().orElseThrow().getSequence());
+    }
+
+    @Test
+    @DisplayName("A corrupted checkpoint is rejected")
+    void testLoadCorruptedCheckpoint() throws IOException {
+        //Given
+        checkpointAdapter.save(StockTransaction.fromState(100L, 10d, 0d));
+        byte[] content = Files.readAllBytes(checkpointFile);
+        content[10] ^= 1;
+        Files.write(checkpointFile, content);
+
+        //Then
+        assertThrows(IllegalStateException.class, () -> checkpointAdapter.load());
+    }
+
+    @Test
+    @DisplayName("Continuing from a checkpoint calculates the same taxes as processing every operation")
+    void testResumeFromCheckpoint() {
+        //Given
+        StockOperationService stockOperationService = ApplicationConfiguration.builder().build().configureStockOperationService();
+        List<StockOperation> firstOperations = List.of(operation(OperationType.BUY, 10d, 10000L), operation(OperationType.SELL, 2d, 5000L));
+        List<StockOperation> newOperations = List.of(operation(OperationType.SELL, 20d, 2000L), operation(OperationType.SELL, 20d, 2000L),
+                operation(OperationType.SELL, 25d, 1000L));
+
+        //When
+        checkpointAdapter.save(stockOperationService.processOperation(firstOperations));
+        StockTransaction resumedStockTransaction = stockOperationService.processOperation(newOperations, checkpointAdapter.load().orElseThrow());
+        StockTransaction fullStockTransaction = stockOperationService.processOperation(
+                List.of(firstOperations.get(0), firstOperations.get(1), newOperations.get(0), newOperations.get(1), newOperations.get(2)));
+
+        //Then
+        assertEquals(taxes(fullStockTransaction).subList(2, 5), taxes(resumedStockTransaction));
+        assertEquals(fullStockTransaction.getCurrentStockQuantity(), resumedStockTransaction.getCurrentStockQuantity());
+        assertEquals(fullStockTransaction.getWeightedAveragePrice(), resumedStockTransaction.getWeightedAveragePrice());
+        assertEquals(fullStockTransaction.getTotalLoss(), resumedStockTransaction.getTotalLoss());
+    }
+
+    private static StockOperation operation(OperationType operationType, double unitCost, long quantity) {
+        return StockOperation.builder().operationType(operationType).unitCost(unitCost).quantity(quantity).build();
+    }
+
+    private static List<Double> taxes(StockTransaction stockTransaction) {
+        return stockTransaction.getOperationList().stream().map(AbstractEntityStatus::getTax)
+                .map(Tax::getTax).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,115 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.config.ApplicationConfiguration;
+import com.bank.domain.entity.StockOperation;
+import com.bank.domain.entity.StockTransaction;
+import com.bank.domain.service.StockOperationService;
+import com.bank.domain.valueobject.OperationType;
+import com.bank.framework.adapter.output.domain.StockTransactionSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockOperationJournalSnapshotterTest {
+
+    @TempDir
+    Path temporaryDirectory;
+
+    private final StockOperationService stockOperationService = ApplicationConfiguration.builder().build().configureStockOperationService();
+
+    @Test
+    @DisplayName("A restart loads the last snapshot and replays only the operations journaled after it")
+    void testRecoverFromSnapshotAndTail() throws IOException {
+        //Given
+        Path journalFile = temporaryDirectory.resolve("account.journal");
+        MappedStockTransactionSnapshotAdapter snapshotAdapter = MappedStockTransactionSnapshotAdapter.builder()
+                .snapshotFile(temporaryDirectory.resolve("account.snapshot")).build();
+        List<StockOperation> stockOperationList = List.of(operation(OperationType.BUY, 10d, 10000L), operation(OperationType.SELL, 2d, 5000L),
+                operation(OperationType.SELL, 20d, 2000L), operation(OperationType.BUY, 15d, 1000L), operation(OperationType.SELL, 25d, 1000L));
+        StockTransaction stockTransaction;
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            StockOperationJournalSnapshotter snapshotter = StockOperationJournalSnapshotter.builder().stockOperationJournal(journal)
+                    .stockTransactionSnapshotPort(snapshotAdapter).operationsPerSnapshot(2L).snapshotInterval(Duration.ofDays(1)).build();
+            stockTransaction = snapshotter.recover(stockOperationService);
+            int snapshots = 0;
+            for (StockOperation stockOperation : stockOperationList) {
+                journal.commit(journal.append(stockOperation));
+                stockTransaction = stockOperationService.processOperation(stockOperation, stockTransaction);
+                snapshots += snapshotter.snapshotIfDue(stockTransaction) ? 1 : 0;
+            }
+            assertEquals(2, snapshots);
+        }
+
+        //When
+        StockTransaction recoveredStockTransaction;
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            recoveredStockTransaction = StockOperationJournalSnapshotter.builder().stockOperationJournal(journal)
+                    .stockTransactionSnapshotPort(snapshotAdapter).build().recover(stockOperationService);
+        }
+
+        //Then
+        assertEquals(4L, snapshotAdapter.load().map(StockTransactionSnapshot::getSequence).orElseThrow());
+        assertEquals(FileChannelStockOperationJournalAdapter.HEADER_SIZE + FileChannelStockOperationJournalAdapter.RECORD_SIZE, Files.size(journalFile));
+        assertEquals(stockTransaction.getCurrentStockQuantity(), recoveredStockTransaction.getCurrentStockQuantity());
+        assertEquals(stockTransaction.getWeightedAveragePrice(), recoveredStockTransaction.getWeightedAveragePrice());
+        assertEquals(stockTransaction.getTotalLoss(), recoveredStockTransaction.getTotalLoss());
+    }
+
+    @Test
+    @DisplayName("A snapshot saved without the compaction of the journal skips the operations it includes")
+    void testRecoverWhenTheJournalWasNotCompacted() {
+        //Given
+        Path journalFile = temporaryDirectory.resolve("account.journal");
+        MappedStockTransactionSnapshotAdapter snapshotAdapter = MappedStockTransactionSnapshotAdapter.builder()
+                .snapshotFile(temporaryDirectory.resolve("account.snapshot")).build();
+        StockOperation buy = operation(OperationType.BUY, 10d, 100L);
+        StockOperation sell = operation(OperationType.SELL, 20d, 40L);
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            journal.append(buy);
+            journal.append(sell);
+        }
+        snapshotAdapter.save(StockTransactionSnapshot.builder().sequence(1L)
+                .stockTransaction(stockOperationService.processOperation(buy, new StockTransaction())).build());
+
+        //When
+        StockTransaction recoveredStockTransaction;
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder().journalFile(journalFile).build()) {
+            recoveredStockTransaction = StockOperationJournalSnapshotter.builder().stockOperationJournal(journal)
+                    .stockTransactionSnapshotPort(snapshotAdapter).build().recover(stockOperationService);
+        }
+
+        //Then
+        assertEquals(60L, recoveredStockTransaction.getCurrentStockQuantity());
+        assertEquals(10d, recoveredStockTransaction.getWeightedAveragePrice());
+    }
+
+    @Test
+    @DisplayName("A snapshot ahead of its journal is rejected")
+    void testRecoverWithSnapshotAheadOfJournal() {
+        //Given
+        MappedStockTransactionSnapshotAdapter snapshotAdapter = MappedStockTransactionSnapshotAdapter.builder()
+                .snapshotFile(temporaryDirectory.resolve("account.snapshot")).build();
+        snapshotAdapter.save(StockTransactionSnapshot.builder().sequence(10L).stockTransaction(StockTransaction.fromState(100L, 10d, 0d)).build());
+
+        try (FileChannelStockOperationJournalAdapter journal = FileChannelStockOperationJournalAdapter.builder()
+                .journalFile(temporaryDirectory.resolve("account.journal")).build()) {
+            StockOperationJournalSnapshotter snapshotter = StockOperationJournalSnapshotter.builder().stockOperationJournal(journal)
+                    .stockTransactionSnapshotPort(snapshotAdapter).build();
+
+            //Then
+            assertThrows(IllegalStateException.class, () -> snapshotter.recover(stockOperationService));
+        }
+    }
+
+    private static StockOperation operation(OperationType operationType, double unitCost, long quantity) {
+        return StockOperation.builder().operationType(operationType).unitCost(unitCost).quantity(quantity).build();
+    }
+}
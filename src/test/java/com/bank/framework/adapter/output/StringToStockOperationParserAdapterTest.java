@@ -0,0 +1,117 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.framework.adapter.output.domain.StockOperationDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringToStockOperationParserAdapterTest {
+
+    private static final String OPERATIONS = "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 10000},"
+            + "{\"operation\":\"sell\", \"unit-cost\":20.50, \"quantity\": 5000}]";
+
+    private StringToStockOperationParserAdapter stringToStockOperationParserAdapter;
+
+    @BeforeEach
+    void setUp() {
+        stringToStockOperationParserAdapter = StringToStockOperationParserAdapter.builder().build();
+    }
+
+    @Test
+    @DisplayName("Streaming the operations reads the same values as parsing the list")
+    void testParseStringStreamingTheOperations() {
+        //Given
+        List<StockOperationDTO> expectedOperations = stringToStockOperationParserAdapter.parseString(OPERATIONS);
+        List<String> streamedOperations = new ArrayList<>();
+
+        //When
+        stringToStockOperationParserAdapter.parseString(OPERATIONS,
+                operation -> streamedOperations.add(operation.getOperation() + ":" + operation.getUnitCost() + ":" + operation.getQuantity()));
+
+        //Then
+        assertEquals(expectedOperations.size(), streamedOperations.size(), "Every operation should be streamed");
+        for (int i = 0; i < expectedOperations.size(); i++) {
+            StockOperationDTO expected = expectedOperations.get(i);
+            assertEquals(expected.getOperation() + ":" + expected.getUnitCost() + ":" + expected.getQuantity(), streamedOperations.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Streaming the operations from a reader")
+    void testParseReader() {
+        //Given
+        List<Long> quantities = new ArrayList<>();
+
+        //When
+        stringToStockOperationParserAdapter.parseReader(new StringReader(OPERATIONS), operation -> quantities.add(operation.getQuantity()));
+
+        //Then
+        assertEquals(List.of(10000L, 5000L), quantities);
+    }
+
+    @Test
+    @DisplayName("Streaming an empty array does not produce operations")
+    void testParseStringWhenTheArrayIsEmpty() {
+        List<StockOperationDTO> streamedOperations = new ArrayList<>();
+        stringToStockOperationParserAdapter.parseString("[]", streamedOperations::add);
+        assertTrue(streamedOperations.isEmpty());
+    }
+
+    @Test
+    @DisplayName("The optional ticker is read by both parsers and not kept between operations")
+    void testParseStringWithTicker() {
+        //Given
+        String operations = "[{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 100, \"ticker\":\"ABC\"},"
+                + "{\"operation\":\"buy\", \"unit-cost\":10.00, \"quantity\": 100}]";
+        List<String> tickers = new ArrayList<>();
+
+        //When
+        stringToStockOperationParserAdapter.parseString(operations, operation -> tickers.add(operation.getTicker()));
+        List<StockOperationDTO> parsedOperations = stringToStockOperationParserAdapter.parseString(operations);
+
+        //Then
+        assertEquals(Arrays.asList("ABC", null), tickers);
+        assertEquals("ABC", parsedOperations.get(0).getTicker());
+        assertNull(parsedOperations.get(1).getTicker());
+    }
+
+    @Test
+    @DisplayName("Streaming fails with an unknown field")
+    void testParseStringWhenThereIsAnUnknownField() {
+        assertThrows(RuntimeException.class,
+                () -> stringToStockOperationParserAdapter.parseString("[{\"operation\":\"buy\",\"price\":1}]", operation -> { }));
+    }
+
+    @Test
+    @DisplayName("Streaming fails when the input is not an array")
+    void testParseStringWhenTheInputIsNotAnArray() {
+        assertThrows(RuntimeException.class,
+                () -> stringToStockOperationParserAdapter.parseString("{\"operation\":\"buy\"}", operation -> { }));
+        assertThrows(RuntimeException.class,
+                () -> stringToStockOperationParserAdapter.parseString("[{\"operation\":\"buy\"}, 1]", operation -> { }));
+    }
+
+    @Test
+    @DisplayName("Streaming from a reader fails when there is content after the array")
+    void testParseReaderWithTrailingContent() {
+        assertThrows(RuntimeException.class,
+                () -> stringToStockOperationParserAdapter.parseReader(new StringReader(OPERATIONS + " garbage"), operation -> { }));
+        assertThrows(RuntimeException.class,
+                () -> stringToStockOperationParserAdapter.parseReader(new StringReader(OPERATIONS + OPERATIONS), operation -> { }));
+        assertDoesNotThrow(() -> stringToStockOperationParserAdapter.parseReader(new StringReader(OPERATIONS + " \n"), operation -> { }));
+    }
+
+    @Test
+    @DisplayName("Streaming fails when a number is not numeric")
+    void testParseStringWhenTheQuantityIsNotANumber() {
+        assertThrows(RuntimeException.class,
+                () -> stringToStockOperationParserAdapter.parseString("[{\"operation\":\"buy\",\"quantity\":\"many\"}]", operation -> { }));
+    }
+}
@@ -0,0 +1,55 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.framework.adapter.output.domain.TaxDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringToTaxListParserAdapterTest {
+
+    private StringToTaxListParserAdapter stringToTaxListParserAdapter;
+
+    @BeforeEach
+    void setUp() {
+        stringToTaxListParserAdapter = StringToTaxListParserAdapter.builder().build();
+    }
+
+    @Test
+    @DisplayName("Streaming the taxes writes the same Json as serializing the list")
+    void testOpenStreamWriterWritesTheSameJson() {
+        //Given
+        List<TaxDTO> taxList = List.of(TaxDTO.builder().tax(0d).build(), TaxDTO.builder().tax(10000d).build(),
+                TaxDTO.builder().tax(1234567.89d).build(), TaxDTO.builder().build());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //When
+        TaxListStreamWriter taxListStreamWriter = stringToTaxListParserAdapter.openStreamWriter(outputStream);
+        taxList.forEach(taxListStreamWriter::write);
+        taxListStreamWriter.finish();
+
+        //Then
+        assertEquals(stringToTaxListParserAdapter.parseObject(taxList) + "\n", outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Streaming consecutive lists into the same stream")
+    void testOpenStreamWriterTwiceOnTheSameStream() {
+        //Given
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //When
+        stringToTaxListParserAdapter.openStreamWriter(outputStream).finish();
+        TaxListStreamWriter taxListStreamWriter = stringToTaxListParserAdapter.openStreamWriter(outputStream);
+        taxListStreamWriter.write(TaxDTO.builder().tax(1d).build());
+        taxListStreamWriter.finish();
+
+        //Then
+        assertEquals("[]\n[{\"tax\":1.0}]\n", outputStream.toString(StandardCharsets.UTF_8));
+    }
+}
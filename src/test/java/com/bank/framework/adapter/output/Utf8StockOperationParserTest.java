@@ -0,0 +1,149 @@
+package com.bank.framework.adapter.output;
+
+import com.bank.domain.valueobject.OperationType;
+import com.bank.framework.adapter.output.domain.StockOperationDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Utf8StockOperationParserTest {
+
+    private Utf8StockOperationParser utf8StockOperationParser;
+    private StringToStockOperationParserAdapter stringToStockOperationParserAdapter;
+
+    @BeforeEach
+    void setUp() {
+        utf8StockOperationParser = Utf8StockOperationParser.builder().build();
+        stringToStockOperationParserAdapter = StringToStockOperationParserAdapter.builder().build();
+    }
+
+    @Test
+    @DisplayName("The operation names are the ones of the operation types")
+    void testParseOperationNames() {
+        //Given
+        List<String> operations = new ArrayList<>();
+
+        //When
+        parse("[{\"operation\":\"buy\"},{\"operation\":\"sell\"},{\"operation\":\"hold\"}]", operation -> operations.add(operation.getOperation()));
+
+        //Then
+        assertSame(OperationType.BUY.getOperationName(), operations.get(0));
+        assertSame(OperationType.SELL.getOperationName(), operations.get(1));
+        assertEquals("hold", operations.get(2));
+    }
+
+    @Test
+    @DisplayName("Numbers are read as Jackson reads them")
+    void testParseNumbersAsJackson() {
+        //Given
+        Random random = new Random(42);
+        StringBuilder json = new StringBuilder("[");
+        String[] edgeUnitCosts = {"0", "-0", "-0.0", "0.1", "1e22", "1E-22", "123456789012345678901234567890", "9007199254740993.0",
+                "2.2250738585072014E-308", "4.9e-324", "1.7976931348623157e308", "0.30000000000000004", "1e400", "100.50e-2"};
+        for (String unitCost : edgeUnitCosts) {
+            json.append("{\"operation\":\"buy\",\"unit-cost\":").append(unitCost).append(",\"quantity\":1},");
+        }
+        for (int i = 0; i < 2000; i++) {
+            String unitCost = random.nextBoolean() ? Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(30) - 10))
+                    : (random.nextInt(100000) + "." + random.nextInt(100));
+            json.append("{\"operation\":\"sell\",\"unit-cost\":").append(unitCost)
+                    .append(",\"quantity\":").append(random.nextInt(3) == 0 ? random.nextLong() : random.nextInt(100000)).append("},");
+        }
+        json.append("{\"quantity\":12.9,\"unit-cost\":null,\"ticker\":null}]");
+        List<String> expected = new ArrayList<>();
+        List<String> actual = new ArrayList<>();
+
+        //When
+        stringToStockOperationParserAdapter.parseReader(new StringReader(json.toString()), operation -> expected.add(describe(operation)));
+        parse(json.toString(), operation -> actual.add(describe(operation)));
+
+        //Then
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Escaped and non ASCII strings are decoded")
+    void testParseEscapedStrings() {
+        //Given
+        List<String> tickers = new ArrayList<>();
+
+        //When
+        parse("[{\"tick\\u0065r\":\"A\\\"B\\\\C\\/\\n\\u00e9\"},{\"ticker\":\"é€\"},{\"operation\":\"b\\u0075y\"}]",
+                operation -> tickers.add(operation.getTicker() == null ? operation.getOperation() : operation.getTicker()));
+
+        //Then
+        assertEquals(List.of("A\"B\\C/\né", "é€", "buy"), tickers);
+    }
+
+    @Test
+    @DisplayName("Only the bytes between the position and the limit of a direct buffer are read")
+    void testParseDirectBuffer() {
+        //Given
+        byte[] json = "xx[{\"operation\":\"buy\",\"unit-cost\":10.5,\"quantity\":3}]yy".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(json.length);
+        buffer.put(json).position(2).limit(json.length - 2);
+        List<String> operations = new ArrayList<>();
+
+        //When
+        utf8StockOperationParser.parse(buffer, operation -> operations.add(describe(operation)));
+
+        //Then
+        assertEquals(List.of("buy:10.5:3:null"), operations);
+        assertEquals(2, buffer.position());
+    }
+
+    @Test
+    @DisplayName("Malformed operations are rejected with the offset of the error")
+    void testParseMalformedOperations() {
+        String[] malformed = {"", "{}", "[", "[{}", "[{},]", "[{}] x", "[{\"price\":1}]", "[{\"quantity\":\"1\"}]",
+                "[{\"quantity\":01}]", "[{\"quantity\":1.}]", "[{\"quantity\":-}]", "[{\"quantity\":1e}]", "[{\"quantity\":1x}]",
+                "[{\"quantity\":99999999999999999999}]", "[{\"quantity\":1e19}]", "[{\"unit-cost\":NaN}]", "[{\"operation\":buy}]",
+                "[{\"operation\":\"buy}]", "[{\"operation\":\"b\\xy\"}]", "[{\"ticker\":\"a\tb\"}]", "[{\"operation\" \"buy\"}]",
+                "[{\"operation\":nul}]", "[{\"operation\":\"buy\" \"quantity\":1}]", "[1]"};
+        for (String json : malformed) {
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> parse(json, operation -> { }), json);
+            assertTrue(exception.getMessage().contains(" at offset "), exception.getMessage());
+        }
+        byte[] invalidUtf8 = {'[', '{', '"', 't', 'i', 'c', 'k', 'e', 'r', '"', ':', '"', (byte) 0xc3, '"', '}', ']'};
+        assertThrows(IllegalArgumentException.class, () -> utf8StockOperationParser.parse(invalidUtf8, operation -> { }));
+    }
+
+    @Test
+    @DisplayName("Trying to parse returns if the input is valid instead of throwing")
+    void testTryParse() {
+        //Given
+        List<String> operations = new ArrayList<>();
+
+        //When
+        boolean valid = utf8StockOperationParser.tryParse("[{\"operation\":\"buy\",\"quantity\":3}]".getBytes(StandardCharsets.UTF_8),
+                operation -> operations.add(describe(operation)));
+        boolean malformed = utf8StockOperationParser.tryParse("[{\"operation\":\"sell\"},{\"quantity\":1x}]".getBytes(StandardCharsets.UTF_8),
+                operation -> operations.add(describe(operation)));
+
+        //Then
+        assertTrue(valid);
+        assertFalse(malformed);
+        assertEquals(List.of("buy:null:3:null", "sell:null:null:null"), operations, "The operations before the error are handed over");
+        for (String json : new String[]{"", "[", "[{}] x", "[{\"price\":1}]", "[1]"}) {
+            assertFalse(utf8StockOperationParser.tryParse(json.getBytes(StandardCharsets.UTF_8), operation -> { }), json);
+        }
+    }
+
+    private void parse(String json, Consumer<StockOperationDTO> operationConsumer) {
+        utf8StockOperationParser.parse(json.getBytes(StandardCharsets.UTF_8), operationConsumer);
+    }
+
+    private static String describe(StockOperationDTO operation) {
+        return operation.getOperation() + ":" + operation.getUnitCost() + ":" + operation.getQuantity() + ":" + operation.getTicker();
+    }
+}